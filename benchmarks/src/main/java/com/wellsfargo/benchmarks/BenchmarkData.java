@@ -0,0 +1,35 @@
+package com.wellsfargo.benchmarks;
+
+import com.wellsfargo.order_service.dto.OrderRequest;
+import com.wellsfargo.order_service.entity.Order;
+
+import java.time.LocalDateTime;
+
+/** Representative records shared by the benchmarks. */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+        // Utility class
+    }
+
+    static Order order() {
+        Order order = new Order();
+        order.setId(1_234_567L);
+        order.setOrderNumber("ORD-02T6SKVMFC5XC");
+        order.setCustomerId("CUST-000042");
+        order.setTotalAmount(149.99);
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        order.setCreatedAt(LocalDateTime.of(2026, 1, 15, 10, 30, 0));
+        order.setUpdatedAt(LocalDateTime.of(2026, 1, 15, 10, 31, 5));
+        return order;
+    }
+
+    static OrderRequest orderRequest() {
+        OrderRequest request = new OrderRequest();
+        request.setOrderNumber("ORD-02T6SKVMFC5XC");
+        request.setCustomerId("CUST-000042");
+        request.setTotalAmount(149.99);
+        request.setStatus("PENDING");
+        return request;
+    }
+}
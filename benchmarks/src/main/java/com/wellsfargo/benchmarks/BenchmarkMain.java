@@ -0,0 +1,57 @@
+package com.wellsfargo.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Runs the benchmarks with JMH's usual command line, but defaults to the gc profiler (allocation
+ * per operation) and a JSON result file in a jmh directory next to the jar, named by version and
+ * time, so runs from different releases can be compared side by side. Any -prof, -rf or -rff given
+ * on the command line wins; listing and help options go straight to JMH.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+        // Entry point only
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            File directory = new File(jarDirectory(), "jmh");
+            directory.mkdirs();
+            String version = BenchmarkMain.class.getPackage().getImplementationVersion();
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            options.result(new File(directory,
+                    "jmh-" + (version == null ? "dev" : version) + "-" + timestamp + ".json").getPath());
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static File jarDirectory() throws URISyntaxException {
+        File location = new File(BenchmarkMain.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        return location.isFile() ? location.getParentFile() : location;
+    }
+}
@@ -0,0 +1,60 @@
+package com.wellsfargo.benchmarks;
+
+import com.wellsfargo.service_support.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order and payment number generation. A generator hands out at most 4096 IDs per millisecond, so
+ * the contended variants show where callers start waiting for the clock.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+    private SnowflakeIdGenerator orderIds;
+    private SnowflakeIdGenerator paymentIds;
+
+    @Setup
+    public void setUp() {
+        orderIds = new SnowflakeIdGenerator(1);
+        paymentIds = new SnowflakeIdGenerator(2);
+    }
+
+    @Benchmark
+    public String orderNumber() {
+        return orderIds.nextId("ORD-");
+    }
+
+    @Benchmark
+    public String paymentNumber() {
+        return paymentIds.nextId("PAY-");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String orderNumberContended() {
+        return orderIds.nextId("ORD-");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String paymentNumberContended() {
+        return paymentIds.nextId("PAY-");
+    }
+}
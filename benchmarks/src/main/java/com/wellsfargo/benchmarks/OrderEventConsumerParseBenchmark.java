@@ -0,0 +1,71 @@
+package com.wellsfargo.benchmarks;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventDeserializer;
+import com.wellsfargo.order_event_contract.OrderEventHeaders;
+import com.wellsfargo.order_event_contract.OrderEventSerializer;
+import com.wellsfargo.order_event_contract.OrderEventType;
+import com.wellsfargo.order_event_contract.OrderEventWireFormat;
+import com.wellsfargo.order_service.config.KafkaProducerConfig;
+import com.wellsfargo.order_service.kafka.event.OrderEvents;
+import com.wellsfargo.payment_service.config.JacksonConfig;
+import com.wellsfargo.payment_service.kafka.consumer.ByteBufferErrorHandlingDeserializer;
+import com.wellsfargo.payment_service.kafka.consumer.OrderEventConsumer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The value path of a record through payment-service's order listener, as its consumer factory
+ * builds it: header-based type check, then in-place parsing from the fetch buffer. ORDER_UPDATED
+ * is a type the listener does not handle, so it measures the skip-without-parsing path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderEventConsumerParseBenchmark {
+
+    private static final String TOPIC = "orders";
+
+    @Param({"JSON", "BINARY"})
+    public OrderEventWireFormat format;
+
+    @Param({"ORDER_CREATED", "ORDER_UPDATED"})
+    public OrderEventType type;
+
+    private ByteBufferErrorHandlingDeserializer<OrderEvent> deserializer;
+    private RecordHeaders headers;
+    private ByteBuffer fetchBuffer;
+
+    @Setup
+    public void setUp() {
+        OrderEvent event = OrderEvents.of(BenchmarkData.order());
+        OrderEventSerializer serializer = new OrderEventSerializer(new KafkaProducerConfig().objectMapper(), format);
+        byte[] value = serializer.serialize(TOPIC, event);
+        headers = new RecordHeaders();
+        OrderEventHeaders.write(headers, type, event.getEventId());
+        fetchBuffer = ByteBuffer.wrap(value);
+        deserializer = new ByteBufferErrorHandlingDeserializer<>(
+                new OrderEventDeserializer(new JacksonConfig().objectMapper(), OrderEventConsumer.HANDLED_TYPES));
+    }
+
+    @Benchmark
+    public OrderEvent parse() {
+        return deserializer.deserialize(TOPIC, headers, fetchBuffer.duplicate());
+    }
+}
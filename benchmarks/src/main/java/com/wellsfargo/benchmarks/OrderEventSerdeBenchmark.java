@@ -0,0 +1,66 @@
+package com.wellsfargo.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventDeserializer;
+import com.wellsfargo.order_event_contract.OrderEventSerializer;
+import com.wellsfargo.order_event_contract.OrderEventWireFormat;
+import com.wellsfargo.order_service.config.KafkaProducerConfig;
+import com.wellsfargo.order_service.kafka.event.OrderEvents;
+import com.wellsfargo.payment_service.config.JacksonConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event encoding as order-service does it and decoding as payment-service does it, each with the
+ * ObjectMapper its own configuration builds, in both wire formats.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderEventSerdeBenchmark {
+
+    private static final String TOPIC = "orders";
+
+    @Param({"JSON", "BINARY"})
+    public OrderEventWireFormat format;
+
+    private OrderEventSerializer orderServiceSerializer;
+    private OrderEventDeserializer paymentServiceDeserializer;
+    private OrderEvent event;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper orderServiceMapper = new KafkaProducerConfig().objectMapper();
+        ObjectMapper paymentServiceMapper = new JacksonConfig().objectMapper();
+        orderServiceSerializer = new OrderEventSerializer(orderServiceMapper, format);
+        paymentServiceDeserializer = new OrderEventDeserializer(paymentServiceMapper);
+        event = OrderEvents.of(BenchmarkData.order());
+        encoded = orderServiceSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return orderServiceSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public OrderEvent decode() {
+        return paymentServiceDeserializer.deserialize(TOPIC, encoded);
+    }
+}
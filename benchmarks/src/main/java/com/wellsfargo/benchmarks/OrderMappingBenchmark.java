@@ -0,0 +1,58 @@
+package com.wellsfargo.benchmarks;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_service.dto.OrderRequest;
+import com.wellsfargo.order_service.dto.OrderResponse;
+import com.wellsfargo.order_service.entity.Order;
+import com.wellsfargo.order_service.kafka.event.OrderEvents;
+import com.wellsfargo.order_service.mapper.OrderMapper;
+import com.wellsfargo.order_service.mapper.OrderMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Entity/DTO mapping and event construction done for every order written or read. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderMappingBenchmark {
+
+    private OrderMapper mapper;
+    private Order order;
+    private OrderRequest request;
+
+    @Setup
+    public void setUp() {
+        mapper = new OrderMapperImpl();
+        order = BenchmarkData.order();
+        request = BenchmarkData.orderRequest();
+    }
+
+    @Benchmark
+    public OrderResponse toResponse() {
+        return mapper.toResponse(order);
+    }
+
+    @Benchmark
+    public Order toEntityFromRequest() {
+        return mapper.toEntityFromRequest(request);
+    }
+
+    // Event construction from the entity, done for every outbox row
+    @Benchmark
+    public OrderEvent orderEventOf() {
+        return OrderEvents.of(order);
+    }
+}
@@ -0,0 +1,335 @@
+package com.wellsfargo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Measures the full order path, {@code POST /api/orders} through the outbox and the orders topic to
+ * payment-service's listener, on one machine. Both services run from their executable jars against
+ * an in-process broker and database; see {@link LoadTestOptions#USAGE} for the knobs.
+ * <p>
+ * After an unmeasured warmup, each rate in {@code --rates} is one stage: an open-loop run for
+ * {@code --stage-duration}, then up to {@code --drain-timeout} for payment-service to work off what
+ * it was sent. The result is written as JSON to a load-test directory next to the jar, named by
+ * version and time; {@code --compare} prints the difference between two such files.
+ */
+public final class LoadTestMain {
+
+    private static final String ORDERS_TOPIC = "orders";
+    private static final String PAYMENT_GROUP = "payment-service-group";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private LoadTestMain() {
+        // Entry point only
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        if (options.compare != null) {
+            ResultComparison.print(objectMapper.readValue(options.compare.get(0).toFile(), LoadTestResult.class),
+                    objectMapper.readValue(options.compare.get(1).toFile(), LoadTestResult.class), System.out);
+            return;
+        }
+
+        String version = LoadTestMain.class.getPackage().getImplementationVersion();
+        version = version == null ? "dev" : version;
+        String timestamp = LocalDateTime.now().format(TIMESTAMP);
+        File jarDirectory = jarDirectory();
+        Path outputDirectory = jarDirectory.toPath().resolve("load-test");
+        Path runDirectory = Files.createDirectories(outputDirectory.resolve("run-" + timestamp));
+        Path output = options.output != null ? options.output
+                : outputDirectory.resolve("loadtest-" + version + "-" + timestamp + ".json");
+        Path repository = repositoryRoot(jarDirectory);
+        Path orderServiceJar = options.orderServiceJar != null ? options.orderServiceJar
+                : executableJar(repository.resolve("order-service/target"));
+        Path paymentServiceJar = options.paymentServiceJar != null ? options.paymentServiceJar
+                : executableJar(repository.resolve("payment-service/target"));
+        Path driverJar = Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<LoadTestResult.Stage> stages = new ArrayList<>();
+        System.out.println("Starting broker and database; service logs go to " + runDirectory);
+        try (LocalInfrastructure infrastructure = LocalInfrastructure.start(ORDERS_TOPIC, options.partitions);
+             ServiceProcess orderService = ServiceProcess.start("order-service", orderServiceJar, driverJar,
+                     options.jvmArgs, orderServiceProperties(options, infrastructure), runDirectory);
+             ServiceProcess paymentService = ServiceProcess.start("payment-service", paymentServiceJar, driverJar,
+                     options.jvmArgs, paymentServiceProperties(options, infrastructure, runDirectory), runDirectory)) {
+            orderService.awaitHealthy(client);
+            paymentService.awaitHealthy(client);
+
+            OpenLoopGenerator generator = new OpenLoopGenerator(client,
+                    orderService.uri("/api/orders?delivery=" + options.delivery),
+                    new OrderWorkload(options), options.requestTimeout);
+            PaymentServiceProbe probe = new PaymentServiceProbe(client, paymentService.uri("/actuator/prometheus"));
+
+            long processedAtStart = probe.snapshot().createdProcessed();
+            long accepted = 0;
+            if (!options.warmup.isZero()) {
+                System.out.printf("Warmup: %d orders/s for %ds%n", options.rates.get(0), options.warmup.toSeconds());
+                accepted += generator.run(options.rates.get(0), options.warmup).succeeded();
+            }
+            for (int rate : options.rates) {
+                System.out.printf("Stage: %d orders/s for %ds%n", rate, options.stageDuration.toSeconds());
+                PaymentServiceProbe.Snapshot before = probe.snapshot();
+                try (LagSampler lag = new LagSampler(infrastructure)) {
+                    OpenLoopGenerator.Measurement measurement = generator.run(rate, options.stageDuration);
+                    accepted += measurement.succeeded();
+                    long expectedProcessed = processedAtStart + accepted;
+                    long drainStart = System.nanoTime();
+                    PaymentServiceProbe.Snapshot after = probe.snapshot();
+                    while (after.createdProcessed() < expectedProcessed
+                            && System.nanoTime() - drainStart < options.drainTimeout.toNanos()) {
+                        Thread.sleep(500);
+                        after = probe.snapshot();
+                    }
+                    Duration drain = Duration.ofNanos(System.nanoTime() - drainStart);
+                    LoadTestResult.Stage stage = stage(rate, measurement, before, after,
+                            Math.max(0, expectedProcessed - after.createdProcessed()), drain, lag);
+                    stages.add(stage);
+                    printStage(stage);
+                }
+            }
+        }
+
+        LoadTestResult result = new LoadTestResult(version, options.label, timestamp, settings(options), stages);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writeValue(output.toFile(), result);
+        System.out.println("Result saved to " + output);
+    }
+
+    private static LoadTestResult.Stage stage(int rate, OpenLoopGenerator.Measurement measurement,
+                                              PaymentServiceProbe.Snapshot before, PaymentServiceProbe.Snapshot after,
+                                              long backlog, Duration drain, LagSampler lag) {
+        Histogram corrected = measurement.correctedLatency();
+        Histogram uncorrected = measurement.uncorrectedLatency();
+        double seconds = seconds(measurement.elapsed());
+        long processed = after.createdProcessed() - before.createdProcessed();
+        Double endToEndEvents = after.endToEndBuckets().getOrDefault(Double.POSITIVE_INFINITY, 0d)
+                - before.endToEndBuckets().getOrDefault(Double.POSITIVE_INFINITY, 0d);
+        return new LoadTestResult.Stage(
+                rate,
+                seconds,
+                measurement.sent(),
+                measurement.succeeded(),
+                measurement.sent() - measurement.succeeded(),
+                measurement.sent() / seconds(measurement.sendingTime()),
+                measurement.succeeded() / seconds,
+                measurement.outcomes(),
+                latency(corrected),
+                latency(uncorrected),
+                new LoadTestResult.EndToEnd(endToEndEvents.longValue(),
+                        after.endToEndQuantileMillis(before, 0.5),
+                        after.endToEndQuantileMillis(before, 0.99),
+                        after.endToEndQuantileMillis(before, 0.999)),
+                new LoadTestResult.Consumer(
+                        processed,
+                        after.failed() - before.failed(),
+                        processed / (seconds + seconds(drain)),
+                        lag.max(),
+                        lag.last(),
+                        backlog,
+                        backlog == 0,
+                        seconds(drain)),
+                encode(corrected));
+    }
+
+    private static LoadTestResult.Latency latency(Histogram micros) {
+        return new LoadTestResult.Latency(
+                millis(micros.getValueAtPercentile(50)),
+                millis(micros.getValueAtPercentile(90)),
+                millis(micros.getValueAtPercentile(99)),
+                millis(micros.getValueAtPercentile(99.9)),
+                millis(micros.getMaxValue()),
+                micros.getTotalCount() == 0 ? 0 : Math.round(micros.getMean()) / 1000d);
+    }
+
+    private static void printStage(LoadTestResult.Stage stage) {
+        System.out.printf("  sent %d, ok %d, errors %d %s%n", stage.sent(), stage.succeeded(), stage.errors(),
+                stage.responses());
+        System.out.printf("  throughput %.1f/s (offered %.1f/s); latency ms p50 %.1f p99 %.1f p99.9 %.1f max %.1f"
+                        + " (uncorrected p99 %.1f)%n",
+                stage.throughput(), stage.offeredRate(), stage.latency().p50(), stage.latency().p99(),
+                stage.latency().p999(), stage.latency().max(), stage.uncorrectedLatency().p99());
+        LoadTestResult.Consumer consumer = stage.consumer();
+        System.out.printf("  consumer %.1f/s, failed %d, max lag %s, backlog %d%s; end-to-end ms p50 <= %s p99 <= %s%n",
+                consumer.throughput(), consumer.failed(), consumer.maxLag(), consumer.backlogAtEnd(),
+                consumer.drained() ? "" : " (not drained)", stage.endToEnd().p50(), stage.endToEnd().p99());
+    }
+
+    private static Map<String, String> commonProperties(LocalInfrastructure infrastructure, String database) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.kafka.bootstrap-servers", infrastructure.bootstrapServers());
+        properties.put("spring.datasource.url", infrastructure.jdbcUrl(database));
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        // The services' defaults log every statement; that would dominate the measurement
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.org.springframework.kafka", "INFO");
+        properties.put("logging.level.org.hibernate.SQL", "INFO");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "INFO");
+        return properties;
+    }
+
+    private static Map<String, String> orderServiceProperties(LoadTestOptions options, LocalInfrastructure infrastructure) {
+        Map<String, String> properties = commonProperties(infrastructure, "orders");
+        properties.put("app.id-generator.node-id", "1");
+        properties.put("logging.level.com.wellsfargo.order_service", "INFO");
+        properties.putAll(options.orderServiceProperties);
+        return properties;
+    }
+
+    private static Map<String, String> paymentServiceProperties(LoadTestOptions options, LocalInfrastructure infrastructure,
+                                                                Path runDirectory) {
+        Map<String, String> properties = commonProperties(infrastructure, "payments");
+        properties.put("app.id-generator.node-id", "2");
+        properties.put("logging.level.com.wellsfargo.payment_service", "INFO");
+        properties.put("payment.order-view.dir", runDirectory.resolve("order-view").toString());
+        properties.put("payment.kafka.listener.concurrency", Integer.toString(options.partitions));
+        properties.putAll(options.paymentServiceProperties);
+        return properties;
+    }
+
+    private static Map<String, Object> settings(LoadTestOptions options) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rates", options.rates);
+        settings.put("stageDuration", options.stageDuration.toString());
+        settings.put("warmup", options.warmup.toString());
+        settings.put("drainTimeout", options.drainTimeout.toString());
+        settings.put("arrivals", options.arrivals);
+        settings.put("customers", options.customers);
+        settings.put("customerSkew", options.customerSkew);
+        settings.put("amountMedian", options.amountMedian);
+        settings.put("amountSigma", options.amountSigma);
+        settings.put("seed", options.seed);
+        settings.put("delivery", options.delivery);
+        settings.put("requestTimeout", options.requestTimeout.toString());
+        settings.put("partitions", options.partitions);
+        settings.put("jvmArgs", options.jvmArgs);
+        settings.put("orderServiceProperties", options.orderServiceProperties);
+        settings.put("paymentServiceProperties", options.paymentServiceProperties);
+        settings.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        settings.put("javaVersion", Runtime.version().toString());
+        return settings;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000d;
+    }
+
+    private static double seconds(Duration duration) {
+        return Math.max(duration.toNanos(), 1) / 1e9;
+    }
+
+    private static Path executableJar(Path targetDirectory) throws IOException {
+        if (!Files.isDirectory(targetDirectory)) {
+            return targetDirectory.resolve("missing-exec.jar");
+        }
+        try (Stream<Path> files = Files.list(targetDirectory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith("-exec.jar"))
+                    .max(Comparator.comparing(file -> file.toFile().lastModified()))
+                    .orElse(targetDirectory.resolve("missing-exec.jar"));
+        }
+    }
+
+    // The aggregator directory holding both service modules, found by walking up from the jar
+    private static Path repositoryRoot(File jarDirectory) {
+        for (Path directory = jarDirectory.toPath().toAbsolutePath(); directory != null; directory = directory.getParent()) {
+            if (Files.isDirectory(directory.resolve("order-service")) && Files.isDirectory(directory.resolve("payment-service"))) {
+                return directory;
+            }
+        }
+        return Path.of("").toAbsolutePath();
+    }
+
+    private static File jarDirectory() throws URISyntaxException {
+        File location = new File(LoadTestMain.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        return location.isFile() ? location.getParentFile() : location;
+    }
+
+    /** Samples payment-service's committed lag on the orders topic once a second while a stage and its drain run. */
+    private static final class LagSampler implements AutoCloseable {
+
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lag-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final AtomicLong max = new AtomicLong(-1);
+        private final AtomicReference<Long> last = new AtomicReference<>();
+
+        private LagSampler(LocalInfrastructure infrastructure) {
+            executor.scheduleAtFixedRate(() -> {
+                try {
+                    long lag = infrastructure.committedLag(PAYMENT_GROUP, ORDERS_TOPIC);
+                    last.set(lag);
+                    max.accumulateAndGet(lag, Math::max);
+                } catch (ExecutionException | TimeoutException e) {
+                    // Skip this sample; the next one is a second away
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 0, 1, TimeUnit.SECONDS);
+        }
+
+        Long max() {
+            return max.get() < 0 ? null : max.get();
+        }
+
+        Long last() {
+            return last.get();
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+}
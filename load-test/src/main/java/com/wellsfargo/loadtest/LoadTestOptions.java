@@ -0,0 +1,157 @@
+package com.wellsfargo.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Command line of the load test. Every option is {@code --name=value}; {@code --order:<property>=<value>}
+ * and {@code --payment:<property>=<value>} are passed through to the respective service, after the
+ * harness's own settings, so they can override any of them.
+ */
+public final class LoadTestOptions {
+
+    public enum Arrivals {
+        // Exponential gaps between requests, as from many independent clients
+        POISSON,
+        // Fixed gap of 1/rate
+        CONSTANT
+    }
+
+    static final String USAGE = """
+            Usage: java -jar load-test/target/load-test.jar [options]
+              --rates=50,100,200         Open-loop arrival rates (orders/s), one measured stage each
+              --stage-duration=60s       Length of each measured stage
+              --warmup=15s               Unmeasured run at the first rate before the first stage
+              --drain-timeout=60s        Time allowed after each stage for payment-service to catch up
+              --arrivals=POISSON         POISSON or CONSTANT inter-arrival gaps
+              --customers=10000          Distinct customer ids
+              --customer-skew=1.1        Zipf exponent of the customer distribution (0 = uniform)
+              --amount-median=60         Median order amount; amounts are log-normal
+              --amount-sigma=0.9         Log-normal shape of the order amount
+              --seed=42                  Seed for arrivals, customers and amounts
+              --delivery=FIRE_AND_FORGET Delivery mode requested on POST /api/orders
+              --request-timeout=10s      Requests still unanswered after this count as errors
+              --partitions=3             Partitions of the orders topic
+              --jvm-args="-Xmx1g"        JVM options for both service processes
+              --order-service-jar=PATH   Defaults to order-service/target/*-exec.jar
+              --payment-service-jar=PATH Defaults to payment-service/target/*-exec.jar
+              --label=TEXT               Free text stored with the result, e.g. a branch or change
+              --output=FILE              Result file; defaults to load-test/target/load-test/
+              --order:<prop>=<value>     Extra property for order-service (repeatable)
+              --payment:<prop>=<value>   Extra property for payment-service (repeatable)
+              --compare=BASE.json,NEW.json  Print the difference between two result files and exit
+            """;
+
+    private static final Pattern DURATION = Pattern.compile("(\\d+)(ms|s|m|h)");
+
+    List<Integer> rates = List.of(50, 100, 200);
+    Duration stageDuration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(15);
+    Duration drainTimeout = Duration.ofSeconds(60);
+    Arrivals arrivals = Arrivals.POISSON;
+    int customers = 10_000;
+    double customerSkew = 1.1;
+    double amountMedian = 60;
+    double amountSigma = 0.9;
+    long seed = 42;
+    String delivery = "FIRE_AND_FORGET";
+    Duration requestTimeout = Duration.ofSeconds(10);
+    int partitions = 3;
+    List<String> jvmArgs = List.of();
+    Path orderServiceJar;
+    Path paymentServiceJar;
+    String label;
+    Path output;
+    List<Path> compare;
+    final Map<String, String> orderServiceProperties = new LinkedHashMap<>();
+    final Map<String, String> paymentServiceProperties = new LinkedHashMap<>();
+
+    private LoadTestOptions() {
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            if (name.startsWith("order:")) {
+                options.orderServiceProperties.put(name.substring("order:".length()), value);
+                continue;
+            }
+            if (name.startsWith("payment:")) {
+                options.paymentServiceProperties.put(name.substring("payment:".length()), value);
+                continue;
+            }
+            switch (name) {
+                case "rates" -> options.rates = parseRates(value);
+                case "stage-duration" -> options.stageDuration = parseDuration(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "drain-timeout" -> options.drainTimeout = parseDuration(value);
+                case "arrivals" -> options.arrivals = Arrivals.valueOf(value.toUpperCase());
+                case "customers" -> options.customers = Integer.parseInt(value);
+                case "customer-skew" -> options.customerSkew = Double.parseDouble(value);
+                case "amount-median" -> options.amountMedian = Double.parseDouble(value);
+                case "amount-sigma" -> options.amountSigma = Double.parseDouble(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "delivery" -> options.delivery = value;
+                case "request-timeout" -> options.requestTimeout = parseDuration(value);
+                case "partitions" -> options.partitions = Integer.parseInt(value);
+                case "jvm-args" -> options.jvmArgs = value.isBlank() ? List.of() : List.of(value.trim().split("\\s+"));
+                case "order-service-jar" -> options.orderServiceJar = Path.of(value);
+                case "payment-service-jar" -> options.paymentServiceJar = Path.of(value);
+                case "label" -> options.label = value;
+                case "output" -> options.output = Path.of(value);
+                case "compare" -> options.compare = parseCompare(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (options.customers < 1 || options.partitions < 1) {
+            throw new IllegalArgumentException("--customers and --partitions must be at least 1");
+        }
+        return options;
+    }
+
+    static Duration parseDuration(String value) {
+        Matcher matcher = DURATION.matcher(value.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Expected a duration such as 500ms, 30s or 5m but got: " + value);
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        return switch (matcher.group(2)) {
+            case "ms" -> Duration.ofMillis(amount);
+            case "s" -> Duration.ofSeconds(amount);
+            case "m" -> Duration.ofMinutes(amount);
+            default -> Duration.ofHours(amount);
+        };
+    }
+
+    private static List<Integer> parseRates(String value) {
+        List<Integer> rates = new ArrayList<>();
+        for (String rate : value.split(",")) {
+            int parsed = Integer.parseInt(rate.trim());
+            if (parsed < 1) {
+                throw new IllegalArgumentException("Rates must be at least 1 order/s: " + value);
+            }
+            rates.add(parsed);
+        }
+        return List.copyOf(rates);
+    }
+
+    private static List<Path> parseCompare(String value) {
+        String[] files = value.split(",");
+        if (files.length != 2) {
+            throw new IllegalArgumentException("--compare takes two result files: BASE.json,NEW.json");
+        }
+        return List.of(Path.of(files[0].trim()), Path.of(files[1].trim()));
+    }
+}
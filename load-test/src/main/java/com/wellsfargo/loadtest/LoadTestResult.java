@@ -0,0 +1,53 @@
+package com.wellsfargo.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result file of one load test run. Latencies are in milliseconds and rates in orders per second.
+ * Stage fields are only ever added, never renamed, so files from older builds stay comparable.
+ */
+record LoadTestResult(String version, String label, String startedAt, Map<String, Object> settings,
+                      List<Stage> stages) {
+
+    /**
+     * @param targetRate         scheduled arrival rate
+     * @param offeredRate        rate actually sent; below targetRate only if the generator itself fell behind
+     * @param throughput         2xx responses per second over the stage, including the wait for the last responses
+     * @param errors             requests without a 2xx response: error statuses, exceptions and timeouts
+     * @param responses          count per HTTP status, or per exception name for requests without a response
+     * @param latency            from each request's scheduled send time (coordinated omission corrected)
+     * @param uncorrectedLatency from each request's actual send time, for comparison only
+     * @param correctedHistogram the corrected latency histogram in microseconds, HdrHistogram compressed and base64 encoded
+     */
+    record Stage(int targetRate, double durationSeconds, long sent, long succeeded, long errors,
+                 double offeredRate, double throughput, Map<String, Long> responses,
+                 Latency latency, Latency uncorrectedLatency, EndToEnd endToEnd, Consumer consumer,
+                 String correctedHistogram) {
+    }
+
+    record Latency(double p50, double p90, double p99, double p999, double max, double mean) {
+    }
+
+    /**
+     * Order creation in order-service to the end of payment-service's processing, for ORDER_CREATED
+     * events the listener finished during the stage and its drain. Values are bucket upper bounds of
+     * payment-service's own histogram; null when no event finished or the quantile fell in the last bucket.
+     */
+    record EndToEnd(Long events, Double p50, Double p99, Double p999) {
+    }
+
+    /**
+     * @param processed    ORDER_CREATED records the listener finished during the stage and its drain
+     * @param failed       records whose processing threw
+     * @param throughput   processed per second over the stage and its drain
+     * @param maxLag       highest sampled lag of payment-service's committed offsets behind the end of the
+     *                     orders topic, in records; null if never sampled
+     * @param lagAtEnd     last sampled lag
+     * @param backlogAtEnd orders accepted since the run started that the listener has not yet finished
+     * @param drained      whether the backlog reached zero within the drain timeout
+     */
+    record Consumer(long processed, long failed, double throughput, Long maxLag, Long lagAtEnd,
+                    long backlogAtEnd, boolean drained, double drainSeconds) {
+    }
+}
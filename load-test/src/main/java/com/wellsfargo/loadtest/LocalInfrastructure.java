@@ -0,0 +1,86 @@
+package com.wellsfargo.loadtest;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.h2.tools.Server;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The broker and database both services run against, hosted in the harness's own JVM: a single-node
+ * KRaft broker with the orders topic pre-created at the requested partition count, and an H2 TCP
+ * server holding one in-memory database per service. Everything is gone when the harness exits.
+ */
+final class LocalInfrastructure implements AutoCloseable {
+
+    private final EmbeddedKafkaKraftBroker broker;
+    private final Server database;
+    private final Admin admin;
+
+    private LocalInfrastructure(EmbeddedKafkaKraftBroker broker, Server database) {
+        this.broker = broker;
+        this.database = database;
+        this.admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+    }
+
+    static LocalInfrastructure start(String ordersTopic, int ordersPartitions) throws SQLException {
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, ordersPartitions, ordersTopic);
+        broker.brokerProperties(Map.of("auto.create.topics.enable", "true"));
+        broker.afterPropertiesSet();
+        Server database;
+        try {
+            database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        } catch (SQLException | RuntimeException e) {
+            broker.destroy();
+            throw e;
+        }
+        return new LocalInfrastructure(broker, database);
+    }
+
+    String bootstrapServers() {
+        return broker.getBrokersAsString();
+    }
+
+    // DB_CLOSE_DELAY keeps the in-memory database alive between connections
+    String jdbcUrl(String databaseName) {
+        return "jdbc:h2:tcp://localhost:" + database.getPort() + "/mem:" + databaseName + ";DB_CLOSE_DELAY=-1";
+    }
+
+    /**
+     * Records on the topic not yet committed by the group: the records its consumers have not finished
+     * with, including any they have fetched but are still working through. Partitions the group has
+     * never committed count from offset 0.
+     */
+    long committedLag(String groupId, String topic) throws ExecutionException, InterruptedException, TimeoutException {
+        Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata().get(5, TimeUnit.SECONDS);
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        admin.describeTopics(List.of(topic)).allTopicNames().get(5, TimeUnit.SECONDS).get(topic).partitions()
+                .forEach(partition -> latest.put(new TopicPartition(topic, partition.partition()), OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResultInfo> ends = admin.listOffsets(latest).all().get(5, TimeUnit.SECONDS);
+        long lag = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResultInfo> end : ends.entrySet()) {
+            OffsetAndMetadata position = committed.get(end.getKey());
+            lag += end.getValue().offset() - (position == null ? 0 : position.offset());
+        }
+        return lag;
+    }
+
+    @Override
+    public void close() {
+        admin.close();
+        database.stop();
+        broker.destroy();
+    }
+}
@@ -0,0 +1,153 @@
+package com.wellsfargo.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends {@code POST /api/orders} on a fixed arrival schedule that does not wait for responses, so a
+ * slow server faces a growing queue as it would with real clients instead of quietly receiving
+ * fewer requests.
+ * <p>
+ * Latency is recorded twice. The corrected figure runs from the request's scheduled send time, so
+ * time spent behind a stalled client or a full connection pool counts. This corrects for
+ * coordinated omission. The uncorrected figure runs from the actual send time and is kept only to
+ * show how much the correction matters.
+ */
+final class OpenLoopGenerator {
+
+    // 1 hour in microseconds; longer values are clamped
+    private static final long MAX_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final HttpClient client;
+    private final URI ordersUri;
+    private final OrderWorkload workload;
+    private final Duration requestTimeout;
+
+    OpenLoopGenerator(HttpClient client, URI ordersUri, OrderWorkload workload, Duration requestTimeout) {
+        this.client = client;
+        this.ordersUri = ordersUri;
+        this.workload = workload;
+        this.requestTimeout = requestTimeout;
+    }
+
+    Measurement run(int ratePerSecond, Duration duration) throws InterruptedException {
+        Measurement measurement = new Measurement();
+        long start = System.nanoTime();
+        measurement.startNanos = start;
+        long end = start + duration.toNanos();
+        long scheduled = start;
+        while (scheduled < end) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(measurement, scheduled);
+            scheduled += workload.nextGapNanos(ratePerSecond);
+        }
+        measurement.sendingFinishedNanos = System.nanoTime();
+        // Every request ends by its timeout at the latest
+        long deadline = System.nanoTime() + requestTimeout.toNanos() + TimeUnit.SECONDS.toNanos(5);
+        while (measurement.inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        measurement.elapsedNanos = System.nanoTime() - start;
+        return measurement;
+    }
+
+    private void send(Measurement measurement, long scheduledNanos) {
+        HttpRequest request = HttpRequest.newBuilder(ordersUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(workload.nextOrderJson()))
+                .build();
+        long sentNanos = System.nanoTime();
+        measurement.sent.increment();
+        measurement.inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            long completedNanos = System.nanoTime();
+            measurement.corrected.recordValue(micros(completedNanos - scheduledNanos));
+            measurement.uncorrected.recordValue(micros(completedNanos - sentNanos));
+            String outcome = failure != null
+                    ? rootCause(failure).getClass().getSimpleName()
+                    : Integer.toString(response.statusCode());
+            measurement.outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+            if (failure == null && response.statusCode() / 100 == 2) {
+                measurement.succeeded.increment();
+            }
+            measurement.inFlight.decrementAndGet();
+        });
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)), MAX_LATENCY_MICROS);
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    static final class Measurement {
+        private final Recorder corrected = new Recorder(MAX_LATENCY_MICROS, 3);
+        private final Recorder uncorrected = new Recorder(MAX_LATENCY_MICROS, 3);
+        // HTTP status code, or the exception's simple name for requests that got no response
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder succeeded = new LongAdder();
+        private final AtomicLong inFlight = new AtomicLong();
+        private long startNanos;
+        private long sendingFinishedNanos;
+        private long elapsedNanos;
+
+        Histogram correctedLatency() {
+            return corrected.getIntervalHistogram();
+        }
+
+        Histogram uncorrectedLatency() {
+            return uncorrected.getIntervalHistogram();
+        }
+
+        long sent() {
+            return sent.sum();
+        }
+
+        long succeeded() {
+            return succeeded.sum();
+        }
+
+        // Requests still unanswered when the measurement gave up waiting
+        long abandoned() {
+            return inFlight.get();
+        }
+
+        Map<String, Long> outcomes() {
+            Map<String, Long> counts = new TreeMap<>();
+            outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+            return counts;
+        }
+
+        Duration elapsed() {
+            return Duration.ofNanos(elapsedNanos);
+        }
+
+        Duration sendingTime() {
+            return Duration.ofNanos(sendingFinishedNanos - startNanos);
+        }
+    }
+}
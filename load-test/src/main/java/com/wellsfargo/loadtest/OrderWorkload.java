@@ -0,0 +1,58 @@
+package com.wellsfargo.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded source of order requests and inter-arrival gaps. Customers follow a Zipf distribution, so a
+ * few customers place a large share of the orders as in real traffic, and amounts are log-normal
+ * (most orders small, a long tail of large ones). The same seed and options produce the same
+ * sequence on every run. Not thread-safe: one generator thread draws from it.
+ */
+final class OrderWorkload {
+
+    private final SplittableRandom random;
+    private final LoadTestOptions.Arrivals arrivals;
+    // Cumulative probability of customer ranks 1..n
+    private final double[] customerCdf;
+    private final double amountMu;
+    private final double amountSigma;
+
+    OrderWorkload(LoadTestOptions options) {
+        this.random = new SplittableRandom(options.seed);
+        this.arrivals = options.arrivals;
+        this.customerCdf = zipfCdf(options.customers, options.customerSkew);
+        this.amountMu = Math.log(options.amountMedian);
+        this.amountSigma = options.amountSigma;
+    }
+
+    long nextGapNanos(int ratePerSecond) {
+        double meanNanos = 1_000_000_000d / ratePerSecond;
+        if (arrivals == LoadTestOptions.Arrivals.CONSTANT) {
+            return (long) meanNanos;
+        }
+        return (long) (-Math.log(1 - random.nextDouble()) * meanNanos);
+    }
+
+    String nextOrderJson() {
+        int index = Arrays.binarySearch(customerCdf, random.nextDouble());
+        int customer = index >= 0 ? index : Math.min(-index - 1, customerCdf.length - 1);
+        double amount = Math.max(0.01, Math.exp(amountMu + amountSigma * random.nextGaussian()));
+        return String.format(Locale.ROOT, "{\"customerId\":\"CUST-%06d\",\"totalAmount\":%.2f,\"status\":\"PENDING\"}",
+                customer + 1, amount);
+    }
+
+    private static double[] zipfCdf(int customers, double exponent) {
+        double[] cdf = new double[customers];
+        double total = 0;
+        for (int rank = 1; rank <= customers; rank++) {
+            total += 1 / Math.pow(rank, exponent);
+            cdf[rank - 1] = total;
+        }
+        for (int i = 0; i < customers; i++) {
+            cdf[i] /= total;
+        }
+        return cdf;
+    }
+}
@@ -0,0 +1,107 @@
+package com.wellsfargo.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads payment-service's listener counters and end-to-end latency histogram from
+ * {@code /actuator/prometheus}. Counters are cumulative, so a stage's figures are the difference
+ * between the snapshots taken at its start and end.
+ */
+final class PaymentServiceProbe {
+
+    private static final String CREATED = "type=\"ORDER_CREATED\"";
+    private static final Pattern SAMPLE = Pattern.compile("^([a-zA-Z_:][a-zA-Z0-9_:]*)(\\{[^}]*})?\\s+(\\S+)");
+    private static final Pattern LE = Pattern.compile("le=\"([^\"]+)\"");
+
+    private final HttpClient client;
+    private final HttpRequest prometheus;
+
+    PaymentServiceProbe(HttpClient client, URI prometheusUri) {
+        this.client = client;
+        // Plain Prometheus text format; OpenMetrics names counters differently
+        this.prometheus = HttpRequest.newBuilder(prometheusUri)
+                .header("Accept", "text/plain; version=0.0.4")
+                .timeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    Snapshot snapshot() throws IOException, InterruptedException {
+        String body = client.send(prometheus, HttpResponse.BodyHandlers.ofString()).body();
+        double created = 0;
+        double failed = 0;
+        Map<Double, Double> endToEndBuckets = new TreeMap<>();
+        for (String line : body.split("\n")) {
+            Matcher sample = SAMPLE.matcher(line);
+            if (line.startsWith("#") || !sample.find()) {
+                continue;
+            }
+            String name = sample.group(1);
+            String labels = sample.group(2) == null ? "" : sample.group(2);
+            double value = Double.parseDouble(sample.group(3));
+            switch (name) {
+                case "payment_order_event_records_total" -> {
+                    if (labels.contains(CREATED)) {
+                        created += value;
+                    }
+                }
+                case "payment_order_event_processing_seconds_count" -> {
+                    if (labels.contains("outcome=\"failure\"")) {
+                        failed += value;
+                    }
+                }
+                case "payment_order_event_end_to_end_seconds_bucket" -> {
+                    Matcher le = LE.matcher(labels);
+                    if (labels.contains(CREATED) && le.find()) {
+                        endToEndBuckets.merge(parseBound(le.group(1)), value, Double::sum);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return new Snapshot((long) created, (long) failed, endToEndBuckets);
+    }
+
+    private static double parseBound(String bound) {
+        return "+Inf".equals(bound) ? Double.POSITIVE_INFINITY : Double.parseDouble(bound);
+    }
+
+    /**
+     * @param createdProcessed ORDER_CREATED records the listener has finished, successfully or not
+     * @param failed           records of any type whose processing threw
+     * @param endToEndBuckets  cumulative ORDER_CREATED end-to-end counts by upper bound in seconds
+     */
+    record Snapshot(long createdProcessed, long failed, Map<Double, Double> endToEndBuckets) {
+
+        /**
+         * Upper bound, in milliseconds, of the histogram bucket holding the given quantile of the
+         * events processed between {@code earlier} and this snapshot; null if there were none. The
+         * figure is as coarse as the service's bucket layout.
+         */
+        Double endToEndQuantileMillis(Snapshot earlier, double quantile) {
+            double total = delta(earlier, Double.POSITIVE_INFINITY);
+            if (total <= 0) {
+                return null;
+            }
+            for (Double bound : endToEndBuckets.keySet()) {
+                if (delta(earlier, bound) >= quantile * total) {
+                    return bound.isInfinite() ? null : Math.round(bound * 1_000_000) / 1000d;
+                }
+            }
+            return null;
+        }
+
+        private double delta(Snapshot earlier, double bound) {
+            return endToEndBuckets.getOrDefault(bound, 0d) - earlier.endToEndBuckets.getOrDefault(bound, 0d);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.wellsfargo.loadtest;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Side-by-side view of two result files, stage by stage at matching target rates. Percentages are
+ * relative to the base run; whether a change is good depends on the row (more throughput, less latency).
+ */
+final class ResultComparison {
+
+    private ResultComparison() {
+    }
+
+    static void print(LoadTestResult base, LoadTestResult candidate, PrintStream out) {
+        out.printf("Base: %s %s (%s)%nNew:  %s %s (%s)%n",
+                base.version(), base.startedAt(), base.label() == null ? "" : base.label(),
+                candidate.version(), candidate.startedAt(), candidate.label() == null ? "" : candidate.label());
+        Map<Integer, LoadTestResult.Stage> baseStages = base.stages().stream()
+                .collect(Collectors.toMap(LoadTestResult.Stage::targetRate, Function.identity(), (first, second) -> second));
+        for (LoadTestResult.Stage stage : candidate.stages()) {
+            LoadTestResult.Stage baseline = baseStages.get(stage.targetRate());
+            if (baseline == null) {
+                out.printf("%nStage %d/s: not in base run%n", stage.targetRate());
+                continue;
+            }
+            out.printf("%nStage %d/s%n", stage.targetRate());
+            row(out, "throughput /s", baseline, stage, LoadTestResult.Stage::throughput);
+            row(out, "errors", baseline, stage, LoadTestResult.Stage::errors);
+            row(out, "latency p50 ms", baseline, stage, s -> s.latency().p50());
+            row(out, "latency p99 ms", baseline, stage, s -> s.latency().p99());
+            row(out, "latency p99.9 ms", baseline, stage, s -> s.latency().p999());
+            row(out, "latency max ms", baseline, stage, s -> s.latency().max());
+            row(out, "end-to-end p99 ms", baseline, stage, s -> orNaN(s.endToEnd().p99()));
+            row(out, "consumer /s", baseline, stage, s -> s.consumer().throughput());
+            row(out, "consumer max lag", baseline, stage, s -> s.consumer().maxLag() == null ? Double.NaN : s.consumer().maxLag());
+            row(out, "backlog at end", baseline, stage, s -> s.consumer().backlogAtEnd());
+        }
+    }
+
+    private static void row(PrintStream out, String name, LoadTestResult.Stage base, LoadTestResult.Stage candidate,
+                            ToDoubleFunction<LoadTestResult.Stage> value) {
+        double before = value.applyAsDouble(base);
+        double after = value.applyAsDouble(candidate);
+        String change = before == 0 || Double.isNaN(before) || Double.isNaN(after)
+                ? "" : String.format("%+.1f%%", (after - before) / before * 100);
+        out.printf("  %-20s %12.2f %12.2f %10s%n", name, before, after, change);
+    }
+
+    private static double orNaN(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+}
@@ -0,0 +1,253 @@
+package com.wellsfargo.order_event_contract;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Binary encoding of {@link OrderEvent}.
+ *
+ * <p>A record is the {@link #MAGIC} byte, the {@link #SCHEMA_VERSION} byte, then tagged fields until
+ * the end of the value. Each field starts with a varint tag {@code fieldNumber << 3 | wireType};
+ * wire types are varint, fixed 64-bit little-endian, and length-prefixed bytes. Null fields are
+ * omitted. Timestamps are signed varint microseconds since 1970-01-01T00:00 (the wall-clock value
+ * is kept as-is, no zone conversion), the same precision as the datetime2(6) columns they come
+ * from. Statuses and sources are enum ordinals; values outside the enums fall back to text fields.
+ *
+ * <p>Compatibility rules:
+ * <ul>
+ *   <li>Field numbers are never reused or renumbered, and a field's wire type never changes.
+ *       Retired numbers stay listed below as reserved.</li>
+ *   <li>New fields are optional. Readers skip field numbers they do not know (old reader, new
+ *       writer) and leave fields absent from a record null (new reader, old record).</li>
+ *   <li>Enum constants are appended only. A reader that meets an ordinal it does not know leaves
+ *       the field null, so a new constant must reach every consumer before a producer emits it.</li>
+ *   <li>Anything else is a new {@link #SCHEMA_VERSION}. Readers refuse versions newer than their
+ *       own, so consumers are upgraded before producers.</li>
+ * </ul>
+ */
+public final class BinaryOrderEventCodec {
+
+    /** A UTF-8 continuation byte, so a binary record can never be mistaken for JSON text. */
+    public static final byte MAGIC = (byte) 0xB0;
+    public static final int SCHEMA_VERSION = 1;
+
+    private static final int VARINT = 0;
+    private static final int FIXED64 = 1;
+    private static final int BYTES = 2;
+
+    // Field numbers; never reuse or renumber
+    private static final int EVENT_ID = 1;
+    private static final int ORDER_NUMBER = 2;
+    private static final int CUSTOMER_ID = 3;
+    private static final int TOTAL_AMOUNT = 4;
+    private static final int STATUS = 5;
+    private static final int CREATED_AT = 6;
+    private static final int EVENT_TIMESTAMP = 7;
+    private static final int SOURCE = 8;
+    private static final int EVENT_ID_TEXT = 9;
+    private static final int STATUS_TEXT = 10;
+    private static final int SOURCE_TEXT = 11;
+
+    private static final OrderEventStatus[] STATUSES = OrderEventStatus.values();
+    private static final EventSource[] SOURCES = EventSource.values();
+
+    private BinaryOrderEventCodec() {
+        // Utility class
+    }
+
+    public static byte[] encode(OrderEvent event) {
+        BinaryWriter writer = new BinaryWriter(128);
+        encode(event, writer);
+        return writer.toByteArray();
+    }
+
+    /** Appends the encoded event to {@code out}, which the caller may reuse across records. */
+    public static void encode(OrderEvent event, BinaryWriter out) {
+        out.writeByte(MAGIC);
+        out.writeByte(SCHEMA_VERSION);
+
+        String eventId = event.getEventId();
+        if (eventId != null) {
+            UUID uuid = parseUuid(eventId);
+            if (uuid != null) {
+                out.writeVarLong(tag(EVENT_ID, BYTES));
+                out.writeUuid(uuid);
+            } else {
+                writeString(out, EVENT_ID_TEXT, eventId);
+            }
+        }
+        writeString(out, ORDER_NUMBER, event.getOrderNumber());
+        writeString(out, CUSTOMER_ID, event.getCustomerId());
+        if (event.getTotalAmount() != null) {
+            out.writeVarLong(tag(TOTAL_AMOUNT, FIXED64));
+            out.writeFixed64(Double.doubleToRawLongBits(event.getTotalAmount()));
+        }
+        if (event.getStatus() != null) {
+            OrderEventStatus status = parseStatus(event.getStatus());
+            if (status != null) {
+                writeVarLong(out, STATUS, status.ordinal());
+            } else {
+                writeString(out, STATUS_TEXT, event.getStatus());
+            }
+        }
+        writeTimestamp(out, CREATED_AT, event.getCreatedAt());
+        writeTimestamp(out, EVENT_TIMESTAMP, event.getEventTimestamp());
+        if (event.getSource() != null) {
+            EventSource source = EventSource.fromId(event.getSource());
+            if (source != null) {
+                writeVarLong(out, SOURCE, source.ordinal());
+            } else {
+                writeString(out, SOURCE_TEXT, event.getSource());
+            }
+        }
+    }
+
+    public static OrderEvent decode(byte[] data) {
+        return decode(data, 0, data.length);
+    }
+
+    public static OrderEvent decode(byte[] data, int offset, int length) {
+        BinaryReader in = new BinaryReader(data, offset, length);
+        if (!in.hasRemaining() || (byte) in.readByte() != MAGIC) {
+            throw new OrderEventFormatException("Not a binary order event");
+        }
+        int version = in.readByte();
+        if (version > SCHEMA_VERSION) {
+            throw new OrderEventFormatException("Schema version " + version + " is newer than supported version "
+                    + SCHEMA_VERSION);
+        }
+
+        OrderEvent event = new OrderEvent();
+        while (in.hasRemaining()) {
+            long tag = in.readVarLong();
+            int wireType = (int) (tag & 0x7);
+            long field = tag >>> 3;
+            if (!readField(in, event, field, wireType)) {
+                skip(in, wireType, field);
+            }
+        }
+        return event;
+    }
+
+    private static boolean readField(BinaryReader in, OrderEvent event, long field, int wireType) {
+        if (wireType != expectedWireType(field)) {
+            return false;
+        }
+        switch ((int) field) {
+            case EVENT_ID -> event.setEventId(in.readUuid().toString());
+            case EVENT_ID_TEXT -> event.setEventId(in.readString());
+            case ORDER_NUMBER -> event.setOrderNumber(in.readString());
+            case CUSTOMER_ID -> event.setCustomerId(in.readString());
+            case TOTAL_AMOUNT -> event.setTotalAmount(Double.longBitsToDouble(in.readFixed64()));
+            case STATUS -> event.setStatus(byOrdinal(STATUSES, in.readVarLong()) instanceof OrderEventStatus status
+                    ? status.name() : null);
+            case STATUS_TEXT -> event.setStatus(in.readString());
+            case CREATED_AT -> event.setCreatedAt(fromMicros(in.readSignedVarLong()));
+            case EVENT_TIMESTAMP -> event.setEventTimestamp(fromMicros(in.readSignedVarLong()));
+            case SOURCE -> event.setSource(byOrdinal(SOURCES, in.readVarLong()) instanceof EventSource source
+                    ? source.id() : null);
+            case SOURCE_TEXT -> event.setSource(in.readString());
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int expectedWireType(long field) {
+        if (field == TOTAL_AMOUNT) {
+            return FIXED64;
+        }
+        if (field == STATUS || field == CREATED_AT || field == EVENT_TIMESTAMP || field == SOURCE) {
+            return VARINT;
+        }
+        return BYTES;
+    }
+
+    private static void skip(BinaryReader in, int wireType, long field) {
+        switch (wireType) {
+            case VARINT -> in.readVarLong();
+            case FIXED64 -> in.skip(8);
+            case BYTES -> in.skip(in.readLength());
+            default -> throw new OrderEventFormatException("Unknown wire type " + wireType + " for field " + field);
+        }
+    }
+
+    private static long tag(int field, int wireType) {
+        return (long) field << 3 | wireType;
+    }
+
+    private static void writeVarLong(BinaryWriter out, int field, long value) {
+        out.writeVarLong(tag(field, VARINT));
+        out.writeVarLong(value);
+    }
+
+    private static void writeString(BinaryWriter out, int field, String value) {
+        if (value != null) {
+            out.writeVarLong(tag(field, BYTES));
+            out.writeString(value);
+        }
+    }
+
+    private static void writeTimestamp(BinaryWriter out, int field, LocalDateTime value) {
+        if (value != null) {
+            out.writeVarLong(tag(field, VARINT));
+            out.writeSignedVarLong(toMicros(value));
+        }
+    }
+
+    private static long toMicros(LocalDateTime value) {
+        return Math.addExact(Math.multiplyExact(value.toEpochSecond(ZoneOffset.UTC), 1_000_000L),
+                value.getNano() / 1_000);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    // Only canonical (lowercase, dashed) UUID text survives the round trip; anything else goes in
+    // EVENT_ID_TEXT. Parsed by hand because UUID.fromString plus the equality check cost more than
+    // the rest of the encoding.
+    private static UUID parseUuid(String value) {
+        if (value.length() != 36) {
+            return null;
+        }
+        long mostSignificant = 0;
+        long leastSignificant = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int nibble = c >= '0' && c <= '9' ? c - '0' : c >= 'a' && c <= 'f' ? c - 'a' + 10 : -1;
+            if (nibble < 0) {
+                return null;
+            }
+            if (digits++ < 16) {
+                mostSignificant = mostSignificant << 4 | nibble;
+            } else {
+                leastSignificant = leastSignificant << 4 | nibble;
+            }
+        }
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    private static OrderEventStatus parseStatus(String value) {
+        for (OrderEventStatus status : STATUSES) {
+            if (status.name().equals(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    private static Object byOrdinal(Object[] constants, long ordinal) {
+        return ordinal >= 0 && ordinal < constants.length ? constants[(int) ordinal] : null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.wellsfargo.order_event_contract;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/** Reads the primitives written by {@link BinaryWriter}, failing on truncated input. */
+final class BinaryReader {
+
+    private final byte[] data;
+    private final int limit;
+    private int position;
+
+    BinaryReader(byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    int readByte() {
+        require(1);
+        return data[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new OrderEventFormatException("Varint longer than 10 bytes at offset " + position);
+    }
+
+    long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    long readFixed64() {
+        require(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value |= (data[position++] & 0xFFL) << (8 * i);
+        }
+        return value;
+    }
+
+    int readLength() {
+        long length = readVarLong();
+        if (length < 0 || length > limit - position) {
+            throw new OrderEventFormatException("Length " + length + " overruns the record at offset " + position);
+        }
+        return (int) length;
+    }
+
+    String readString() {
+        int length = readLength();
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    UUID readUuid() {
+        if (readLength() != 16) {
+            throw new OrderEventFormatException("UUID field is not 16 bytes at offset " + position);
+        }
+        return new UUID(readBigEndian(), readBigEndian());
+    }
+
+    private long readBigEndian() {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (data[position++] & 0xFFL);
+        }
+        return value;
+    }
+
+    void skip(int length) {
+        require(length);
+        position += length;
+    }
+
+    private void require(int bytes) {
+        if (limit - position < bytes) {
+            throw new OrderEventFormatException("Record truncated at offset " + position);
+        }
+    }
+}
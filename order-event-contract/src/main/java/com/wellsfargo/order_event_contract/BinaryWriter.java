@@ -0,0 +1,134 @@
+package com.wellsfargo.order_event_contract;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Growable byte buffer with the primitives of the binary order event format. Not thread-safe;
+ * callers that encode many records keep one per thread and {@link #reset()} it between records.
+ */
+public final class BinaryWriter {
+
+    private byte[] buffer;
+    private int size;
+    private OutputStream outputStream;
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    /** A view that appends to this buffer, for encoders that write to streams. Closing it does nothing. */
+    public OutputStream asOutputStream() {
+        if (outputStream == null) {
+            outputStream = new OutputStream() {
+                @Override
+                public void write(int b) {
+                    writeByte(b);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) {
+                    writeRaw(bytes, offset, length);
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    /** Unsigned LEB128: seven bits per byte, high bit set while more bytes follow. */
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /** ZigZag first, so small negative values stay short. */
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeFixed64(long value) {
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            buffer[size++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    void writeBytes(byte[] bytes) {
+        writeVarLong(bytes.length);
+        writeRaw(bytes, 0, bytes.length);
+    }
+
+    void writeRaw(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    /** Length-prefixed like any byte field: 16 bytes, most significant half first. */
+    void writeUuid(UUID value) {
+        writeVarLong(16);
+        ensureCapacity(16);
+        writeBigEndian(value.getMostSignificantBits());
+        writeBigEndian(value.getLeastSignificantBits());
+    }
+
+    private void writeBigEndian(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    void writeString(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                writeBytes(value.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        // ASCII, which covers the order and customer identifiers: copy without an intermediate array
+        writeVarLong(length);
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
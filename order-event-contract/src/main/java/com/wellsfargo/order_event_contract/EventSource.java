@@ -0,0 +1,29 @@
+package com.wellsfargo.order_event_contract;
+
+/**
+ * Known event producers, written by ordinal in the binary format. Append only, like
+ * {@link OrderEventStatus}.
+ */
+public enum EventSource {
+    ORDER_SERVICE("order-service");
+
+    private final String id;
+
+    EventSource(String id) {
+        this.id = id;
+    }
+
+    /** The value used in the event's {@code source} field. */
+    public String id() {
+        return id;
+    }
+
+    static EventSource fromId(String id) {
+        for (EventSource source : values()) {
+            if (source.id.equals(id)) {
+                return source;
+            }
+        }
+        return null;
+    }
+}
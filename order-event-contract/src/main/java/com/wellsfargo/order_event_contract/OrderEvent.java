@@ -0,0 +1,27 @@
+package com.wellsfargo.order_event_contract;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Order state as of an order event. Every {@link OrderEventType} carries the same snapshot; the
+ * type travels in the {@link OrderEventHeaders#EVENT_TYPE} header so consumers can route without
+ * decoding this body. Status and source stay strings so the JSON form is unchanged; the binary
+ * form maps them to {@link OrderEventStatus} and {@link EventSource}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+    
+    private String eventId;
+    private String orderNumber;
+    private String customerId;
+    private Double totalAmount;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime eventTimestamp;
+    private String source;
+}
@@ -0,0 +1,74 @@
+package com.wellsfargo.order_event_contract;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Kafka deserializer for order events in either wire format, detected per record. The consumer
+ * hands over each value as a slice of the fetch buffer; it is parsed in place through a cached
+ * {@link ObjectReader} or the binary codec, without copying it into a byte[] or a String first.
+ * Records whose {@link OrderEventHeaders#EVENT_TYPE} is not in the accepted set are not parsed at
+ * all and come back as null.
+ */
+public class OrderEventDeserializer implements Deserializer<OrderEvent> {
+
+    private final ObjectReader jsonReader;
+    private final Set<OrderEventType> acceptedTypes;
+
+    public OrderEventDeserializer() {
+        this(OrderEventJson.defaultMapper());
+    }
+
+    public OrderEventDeserializer(ObjectMapper objectMapper) {
+        this(objectMapper, EnumSet.allOf(OrderEventType.class));
+    }
+
+    public OrderEventDeserializer(ObjectMapper objectMapper, Set<OrderEventType> acceptedTypes) {
+        this.jsonReader = objectMapper.readerFor(OrderEvent.class);
+        this.acceptedTypes = EnumSet.copyOf(acceptedTypes);
+    }
+
+    @Override
+    public OrderEvent deserialize(String topic, byte[] data) {
+        return data == null ? null : decode(data, 0, data.length);
+    }
+
+    @Override
+    public OrderEvent deserialize(String topic, Headers headers, byte[] data) {
+        return data == null || !accepts(headers) ? null : decode(data, 0, data.length);
+    }
+
+    @Override
+    public OrderEvent deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null || !accepts(headers)) {
+            return null;
+        }
+        if (!data.hasArray()) {
+            return Deserializer.super.deserialize(topic, headers, data);
+        }
+        return decode(data.array(), data.arrayOffset() + data.position(), data.remaining());
+    }
+
+    private boolean accepts(Headers headers) {
+        return acceptedTypes.contains(OrderEventHeaders.eventType(headers));
+    }
+
+    private OrderEvent decode(byte[] data, int offset, int length) {
+        if (OrderEventWireFormat.detect(data, offset, length) == OrderEventWireFormat.BINARY) {
+            return BinaryOrderEventCodec.decode(data, offset, length);
+        }
+        try {
+            return jsonReader.readValue(data, offset, length);
+        } catch (IOException e) {
+            throw new SerializationException("Error deserializing order event", e);
+        }
+    }
+}
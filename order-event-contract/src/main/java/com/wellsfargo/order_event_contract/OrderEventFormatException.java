@@ -0,0 +1,12 @@
+package com.wellsfargo.order_event_contract;
+
+/**
+ * A record value that is not a well-formed binary order event, or was written with a schema
+ * version this reader does not support.
+ */
+public class OrderEventFormatException extends RuntimeException {
+
+    public OrderEventFormatException(String message) {
+        super(message);
+    }
+}
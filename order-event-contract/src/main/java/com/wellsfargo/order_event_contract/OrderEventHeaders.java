@@ -0,0 +1,64 @@
+package com.wellsfargo.order_event_contract;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Kafka record headers of order events. They let consumers route and skip records without
+ * decoding the value; reading the type compares bytes and allocates nothing.
+ */
+public final class OrderEventHeaders {
+
+    /** {@link OrderEventType} name. */
+    public static final String EVENT_TYPE = "event-type";
+    /** Version of the payload schema, {@link BinaryOrderEventCodec#SCHEMA_VERSION}, as decimal text. */
+    public static final String SCHEMA_VERSION = "schema-version";
+    /** The payload's event id, for deduplication and tracing without decoding the payload. */
+    public static final String EVENT_ID = "event-id";
+
+    private static final OrderEventType[] TYPES = OrderEventType.values();
+    private static final byte[] CURRENT_SCHEMA_VERSION =
+            Integer.toString(BinaryOrderEventCodec.SCHEMA_VERSION).getBytes(StandardCharsets.US_ASCII);
+
+    private OrderEventHeaders() {
+        // Utility class
+    }
+
+    public static void write(Headers headers, OrderEventType eventType, String eventId) {
+        headers.add(EVENT_TYPE, eventType.headerValue());
+        headers.add(SCHEMA_VERSION, CURRENT_SCHEMA_VERSION);
+        if (eventId != null) {
+            headers.add(EVENT_ID, eventId.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    public static OrderEventType eventType(Headers headers) {
+        Header header = headers == null ? null : headers.lastHeader(EVENT_TYPE);
+        return eventType(header == null ? null : header.value());
+    }
+
+    /**
+     * The type named by an {@link #EVENT_TYPE} header value. Records without the header predate it
+     * and were all published as created events, so they read as {@link OrderEventType#ORDER_CREATED}.
+     * Returns null for a type this reader does not know.
+     */
+    public static OrderEventType eventType(byte[] headerValue) {
+        if (headerValue == null) {
+            return OrderEventType.ORDER_CREATED;
+        }
+        for (OrderEventType type : TYPES) {
+            if (Arrays.equals(type.headerValue(), headerValue)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    public static String eventId(Headers headers) {
+        Header header = headers == null ? null : headers.lastHeader(EVENT_ID);
+        return header == null ? null : new String(header.value(), StandardCharsets.US_ASCII);
+    }
+}
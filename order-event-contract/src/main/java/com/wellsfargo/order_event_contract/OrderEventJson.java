@@ -0,0 +1,18 @@
+package com.wellsfargo.order_event_contract;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+final class OrderEventJson {
+
+    private OrderEventJson() {
+        // Utility class
+    }
+
+    // Same configuration as the services' ObjectMapper beans, so the JSON is identical
+    static ObjectMapper defaultMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        return mapper;
+    }
+}
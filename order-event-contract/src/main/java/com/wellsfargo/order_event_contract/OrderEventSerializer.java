@@ -0,0 +1,79 @@
+package com.wellsfargo.order_event_contract;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Kafka serializer that encodes an order event straight into a pooled byte buffer, in JSON through
+ * a cached {@link ObjectWriter} or in the binary format, and copies it out once. There is no
+ * intermediate String. Buffers are pooled rather than thread-local, so virtual threads reuse them
+ * too.
+ */
+public class OrderEventSerializer implements Serializer<OrderEvent> {
+
+    /** Producer config key selecting the {@link OrderEventWireFormat}; defaults to JSON. */
+    public static final String WIRE_FORMAT_CONFIG = "order.event.wire-format";
+
+    private static final int POOLED_BUFFERS = 64;
+    private static final int INITIAL_CAPACITY = 512;
+    // Don't hold on to the occasional oversized buffer
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private final BlockingQueue<BinaryWriter> buffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+    private final ObjectWriter jsonWriter;
+    private OrderEventWireFormat wireFormat;
+
+    public OrderEventSerializer() {
+        this(OrderEventJson.defaultMapper(), OrderEventWireFormat.JSON);
+    }
+
+    public OrderEventSerializer(ObjectMapper objectMapper, OrderEventWireFormat wireFormat) {
+        this.jsonWriter = objectMapper.writerFor(OrderEvent.class);
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object configured = configs.get(WIRE_FORMAT_CONFIG);
+        if (configured != null) {
+            wireFormat = OrderEventWireFormat.valueOf(configured.toString().toUpperCase());
+        }
+    }
+
+    public OrderEventWireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    @Override
+    public byte[] serialize(String topic, OrderEvent event) {
+        if (event == null) {
+            return null;
+        }
+        BinaryWriter buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new BinaryWriter(INITIAL_CAPACITY);
+        }
+        try {
+            if (wireFormat == OrderEventWireFormat.BINARY) {
+                BinaryOrderEventCodec.encode(event, buffer);
+            } else {
+                jsonWriter.writeValue(buffer.asOutputStream(), event);
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Error serializing order event for order: " + event.getOrderNumber(), e);
+        } finally {
+            buffer.reset();
+            if (buffer.capacity() <= MAX_POOLED_CAPACITY) {
+                buffers.offer(buffer);
+            }
+        }
+    }
+}
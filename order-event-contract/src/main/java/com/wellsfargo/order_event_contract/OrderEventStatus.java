@@ -0,0 +1,13 @@
+package com.wellsfargo.order_event_contract;
+
+/**
+ * Order statuses as carried in the binary format, which writes the ordinal. Append new constants
+ * at the end only; reordering or removing one changes the meaning of records already written.
+ */
+public enum OrderEventStatus {
+    PENDING,
+    CONFIRMED,
+    SHIPPED,
+    DELIVERED,
+    CANCELLED
+}
@@ -0,0 +1,22 @@
+package com.wellsfargo.order_event_contract;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The order event family, carried by name in the {@link OrderEventHeaders#EVENT_TYPE} header.
+ * Consumers route on it without decoding the payload and must skip values they do not know.
+ */
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_UPDATED,
+    ORDER_CONFIRMED,
+    ORDER_SHIPPED,
+    ORDER_DELIVERED,
+    ORDER_CANCELLED;
+
+    private final byte[] headerValue = name().getBytes(StandardCharsets.US_ASCII);
+
+    byte[] headerValue() {
+        return headerValue;
+    }
+}
@@ -0,0 +1,19 @@
+package com.wellsfargo.order_event_contract;
+
+/**
+ * Encodings an order event record value can have. Readers accept both, so producers can switch
+ * once every consumer runs a version that understands the binary form.
+ */
+public enum OrderEventWireFormat {
+    JSON,
+    BINARY;
+
+    /** Tells the formats apart by the first byte: JSON objects start with '{', binary records with the magic byte. */
+    public static OrderEventWireFormat detect(byte[] value) {
+        return value == null ? JSON : detect(value, 0, value.length);
+    }
+
+    public static OrderEventWireFormat detect(byte[] data, int offset, int length) {
+        return length > 0 && data[offset] == BinaryOrderEventCodec.MAGIC ? BINARY : JSON;
+    }
+}
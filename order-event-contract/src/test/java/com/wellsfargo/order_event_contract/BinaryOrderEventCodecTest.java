@@ -0,0 +1,90 @@
+package com.wellsfargo.order_event_contract;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryOrderEventCodecTest {
+
+    private static OrderEvent event() {
+        return new OrderEvent("1b4e28ba-2fa1-41d2-883f-0016d3cca427", "ORD-02T6Q60KZ55VK", "CUST-00042",
+                129.99, "CONFIRMED", LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000),
+                LocalDateTime.of(2025, 3, 14, 15, 9, 27, 1_000), "order-service");
+    }
+
+    @Test
+    void roundTripsEveryField() {
+        OrderEvent event = event();
+        assertEquals(event, BinaryOrderEventCodec.decode(BinaryOrderEventCodec.encode(event)));
+    }
+
+    @Test
+    void fallsBackToTextForValuesOutsideTheEnums() {
+        OrderEvent event = event();
+        event.setEventId("replay-7");
+        event.setStatus("ON_HOLD");
+        event.setSource("backfill-job");
+        event.setCustomerId("Zoë Müller");
+        event.setCreatedAt(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000));
+        assertEquals(event, BinaryOrderEventCodec.decode(BinaryOrderEventCodec.encode(event)));
+    }
+
+    @Test
+    void omitsNullFields() {
+        OrderEvent event = new OrderEvent();
+        event.setOrderNumber("ORD-1");
+        byte[] encoded = BinaryOrderEventCodec.encode(event);
+        assertEquals(2 + 1 + 1 + "ORD-1".length(), encoded.length);
+        assertEquals(event, BinaryOrderEventCodec.decode(encoded));
+    }
+
+    @Test
+    void oldReaderSkipsFieldsItDoesNotKnow() {
+        BinaryWriter writer = new BinaryWriter(64);
+        BinaryOrderEventCodec.encode(event(), writer);
+        // Fields a later schema might add, one of each wire type
+        writer.writeVarLong(40L << 3);
+        writer.writeVarLong(Long.MAX_VALUE);
+        writer.writeVarLong(41L << 3 | 1);
+        writer.writeFixed64(7);
+        writer.writeVarLong(42L << 3 | 2);
+        writer.writeString("warehouse-9");
+
+        assertEquals(event(), BinaryOrderEventCodec.decode(writer.toByteArray()));
+    }
+
+    @Test
+    void unknownEnumOrdinalDecodesAsNull() {
+        BinaryWriter writer = new BinaryWriter(16);
+        writer.writeByte(BinaryOrderEventCodec.MAGIC);
+        writer.writeByte(BinaryOrderEventCodec.SCHEMA_VERSION);
+        writer.writeVarLong(5L << 3);
+        writer.writeVarLong(OrderEventStatus.values().length);
+
+        assertNull(BinaryOrderEventCodec.decode(writer.toByteArray()).getStatus());
+    }
+
+    @Test
+    void rejectsNewerSchemaVersionsAndTruncatedRecords() {
+        byte[] encoded = BinaryOrderEventCodec.encode(event());
+        byte[] newer = encoded.clone();
+        newer[1] = (byte) (BinaryOrderEventCodec.SCHEMA_VERSION + 1);
+
+        assertThrows(OrderEventFormatException.class, () -> BinaryOrderEventCodec.decode(newer));
+        assertThrows(OrderEventFormatException.class,
+                () -> BinaryOrderEventCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+    }
+
+    @Test
+    void detectsTheWireFormatFromTheFirstByte() {
+        assertEquals(OrderEventWireFormat.BINARY, OrderEventWireFormat.detect(BinaryOrderEventCodec.encode(event())));
+        assertEquals(OrderEventWireFormat.JSON,
+                OrderEventWireFormat.detect("{\"orderNumber\":\"ORD-1\"}".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,162 @@
+package com.wellsfargo.order_event_contract;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives produce-side serialization and consume-side deserialization at a paced 20k msgs/sec and
+ * reports allocation and GC activity. It compares the String pipeline the services used
+ * (ObjectMapper to String, StringSerializer; StringDeserializer, ObjectMapper from String) with
+ * OrderEventSerializer/OrderEventDeserializer in both wire formats. Consumed values are slices of
+ * a fetch buffer, as the Kafka consumer hands them to deserializers. Run with
+ * {@code mvn test -Pbenchmark}; the report is written to target/benchmarks.
+ */
+@Tag("benchmark")
+class OrderEventSerdeAllocationBenchmark {
+
+    private static final String TOPIC = "orders";
+    private static final int MESSAGES_PER_SECOND = 20_000;
+    private static final long WARMUP_SECONDS = 3;
+    private static final long MEASURED_SECONDS = 10;
+    private static final int DISTINCT_EVENTS = 1_000;
+
+    private interface Pipeline {
+        OrderEvent roundTrip(OrderEvent event) throws Exception;
+    }
+
+    private record Result(double messagesPerSecond, double bytesPerMessage, double allocationMegabytesPerSecond,
+                          double cpuMicrosPerMessage, long gcCount, long gcMillis) {
+    }
+
+    @Test
+    void stringPipelineVersusReusableBuffers() throws Exception {
+        ObjectMapper objectMapper = OrderEventJson.defaultMapper();
+        Headers headers = new RecordHeaders();
+        ByteBuffer fetchBuffer = ByteBuffer.allocate(64 * 1024);
+
+        StringSerializer stringSerializer = new StringSerializer();
+        StringDeserializer stringDeserializer = new StringDeserializer();
+        Pipeline strings = event -> {
+            byte[] value = stringSerializer.serialize(TOPIC, objectMapper.writeValueAsString(event));
+            String json = stringDeserializer.deserialize(TOPIC, headers, fetched(fetchBuffer, value));
+            return objectMapper.readValue(json, OrderEvent.class);
+        };
+
+        Map<String, Pipeline> pipelines = new LinkedHashMap<>();
+        pipelines.put("String + StringSerializer (before)", strings);
+        for (OrderEventWireFormat format : OrderEventWireFormat.values()) {
+            OrderEventSerializer serializer = new OrderEventSerializer(objectMapper, format);
+            OrderEventDeserializer deserializer = new OrderEventDeserializer(objectMapper);
+            pipelines.put("OrderEventSerializer " + format.name().toLowerCase(), event ->
+                    deserializer.deserialize(TOPIC, headers, fetched(fetchBuffer, serializer.serialize(TOPIC, event))));
+        }
+
+        List<OrderEvent> events = events();
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Pipeline> pipeline : pipelines.entrySet()) {
+            assertEquals(events.get(0), pipeline.getValue().roundTrip(events.get(0)));
+            run(pipeline.getValue(), events, WARMUP_SECONDS);
+            results.put(pipeline.getKey(), run(pipeline.getValue(), events, MEASURED_SECONDS));
+        }
+
+        StringBuilder report = new StringBuilder(String.format(
+                "# Order event serde at %,d msgs/sec (%d s per pipeline, serialize + deserialize on one thread)%n%n",
+                MESSAGES_PER_SECOND, MEASURED_SECONDS));
+        report.append(String.format("%-36s %10s %12s %12s %12s %8s %8s%n", "pipeline", "msgs/s", "alloc/msg",
+                "alloc rate", "cpu/msg", "GCs", "GC time"));
+        results.forEach((name, r) -> report.append(String.format("%-36s %10.0f %10.0f B %7.1f MB/s %9.2f us %8d %6d ms%n",
+                name, r.messagesPerSecond(), r.bytesPerMessage(), r.allocationMegabytesPerSecond(),
+                r.cpuMicrosPerMessage(), r.gcCount(), r.gcMillis())));
+
+        Path directory = Path.of("target", "benchmarks");
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("order-event-serde-allocation.txt"), report);
+        System.out.println(report);
+    }
+
+    // The value as the consumer sees it: a slice of a larger buffer, not its own array
+    private static ByteBuffer fetched(ByteBuffer fetchBuffer, byte[] value) {
+        fetchBuffer.clear().position(13);
+        fetchBuffer.put(value);
+        return fetchBuffer.position(13).slice().limit(value.length);
+    }
+
+    private static Result run(Pipeline pipeline, List<OrderEvent> events, long seconds) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+
+        long start = System.nanoTime();
+        long duration = TimeUnit.SECONDS.toNanos(seconds);
+        long sent = 0;
+        long sink = 0;
+        long elapsed;
+        while ((elapsed = System.nanoTime() - start) < duration) {
+            // Catch up to the schedule, then sleep; parkNanos is too coarse to pace every 50 us
+            long due = elapsed * MESSAGES_PER_SECOND / 1_000_000_000L;
+            while (sent < due) {
+                sink += pipeline.roundTrip(events.get((int) (sent++ % events.size()))).getOrderNumber().length();
+            }
+            LockSupport.parkNanos(200_000);
+        }
+        double actualSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+        if (sink == 42) {
+            System.out.println(sink);
+        }
+        return new Result(sent / actualSeconds, allocated / (double) sent, allocated / actualSeconds / (1024 * 1024),
+                cpu / 1_000.0 / sent, gcCount() - gcCountBefore, gcMillis() - gcMillisBefore);
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static List<OrderEvent> events() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<OrderEvent> events = new ArrayList<>(DISTINCT_EVENTS);
+        for (int i = 0; i < DISTINCT_EVENTS; i++) {
+            LocalDateTime createdAt = start.plusNanos(random.nextLong(31_536_000_000_000L) * 1_000);
+            events.add(new OrderEvent(new UUID(random.nextLong(), random.nextLong()).toString(),
+                    "ORD-" + Long.toString(random.nextLong(1L << 62), 32).toUpperCase(),
+                    String.format("CUST-%05d", random.nextInt(5_000)), 10.0 + random.nextInt(99_000) / 100.0,
+                    OrderEventStatus.PENDING.name(), createdAt, createdAt.plusNanos(random.nextInt(5_000) * 1_000L),
+                    EventSource.ORDER_SERVICE.id()));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,94 @@
+package com.wellsfargo.order_event_contract;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OrderEventSerdeTest {
+
+    private static final String TOPIC = "orders";
+
+    private static OrderEvent event() {
+        return new OrderEvent("1b4e28ba-2fa1-41d2-883f-0016d3cca427", "ORD-02T6Q60KZ55VK", "CUST-00042",
+                129.99, "CONFIRMED", LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000),
+                LocalDateTime.of(2025, 3, 14, 15, 9, 27, 1_000), "order-service");
+    }
+
+    @Test
+    void jsonMatchesTheServiceObjectMapper() throws Exception {
+        ObjectMapper objectMapper = OrderEventJson.defaultMapper();
+        OrderEventSerializer serializer = new OrderEventSerializer(objectMapper, OrderEventWireFormat.JSON);
+
+        // Twice, so the second call runs on a pooled buffer
+        assertArrayEquals(objectMapper.writeValueAsBytes(event()), serializer.serialize(TOPIC, event()));
+        assertArrayEquals(objectMapper.writeValueAsBytes(event()), serializer.serialize(TOPIC, event()));
+    }
+
+    @Test
+    void configureSelectsTheWireFormat() {
+        OrderEventSerializer serializer = new OrderEventSerializer();
+        serializer.configure(Map.of(OrderEventSerializer.WIRE_FORMAT_CONFIG, "binary"), false);
+
+        assertArrayEquals(BinaryOrderEventCodec.encode(event()), serializer.serialize(TOPIC, event()));
+    }
+
+    @Test
+    void deserializesEitherFormatFromASliceOfTheFetchBuffer() {
+        OrderEventDeserializer deserializer = new OrderEventDeserializer();
+        for (OrderEventWireFormat format : OrderEventWireFormat.values()) {
+            byte[] value = new OrderEventSerializer(OrderEventJson.defaultMapper(), format).serialize(TOPIC, event());
+            ByteBuffer fetchBuffer = ByteBuffer.allocate(value.length + 20);
+            fetchBuffer.position(7);
+            fetchBuffer.put(value);
+            ByteBuffer slice = fetchBuffer.position(7).slice().limit(value.length);
+
+            assertEquals(event(), deserializer.deserialize(TOPIC, new RecordHeaders(), slice), format.name());
+        }
+    }
+
+    @Test
+    void headersCarryTypeVersionAndId() {
+        Headers headers = new RecordHeaders();
+        OrderEventHeaders.write(headers, OrderEventType.ORDER_SHIPPED, event().getEventId());
+
+        assertEquals(OrderEventType.ORDER_SHIPPED, OrderEventHeaders.eventType(headers));
+        assertEquals(event().getEventId(), OrderEventHeaders.eventId(headers));
+        assertEquals("1", new String(headers.lastHeader(OrderEventHeaders.SCHEMA_VERSION).value(),
+                StandardCharsets.US_ASCII));
+        // Records from before the headers existed were all published as created events
+        assertEquals(OrderEventType.ORDER_CREATED, OrderEventHeaders.eventType(new RecordHeaders()));
+    }
+
+    @Test
+    void skipsTypesOutsideTheAcceptedSetWithoutParsing() {
+        OrderEventDeserializer deserializer = new OrderEventDeserializer(OrderEventJson.defaultMapper(),
+                Set.of(OrderEventType.ORDER_CREATED));
+        // Not a valid event in either format, so any attempt to parse it would throw
+        ByteBuffer garbage = ByteBuffer.wrap("not an order event".getBytes(StandardCharsets.UTF_8));
+
+        Headers shipped = new RecordHeaders();
+        OrderEventHeaders.write(shipped, OrderEventType.ORDER_SHIPPED, null);
+        assertNull(deserializer.deserialize(TOPIC, shipped, garbage));
+
+        Headers unknown = new RecordHeaders().add(OrderEventHeaders.EVENT_TYPE,
+                "ORDER_RETURNED".getBytes(StandardCharsets.US_ASCII));
+        assertNull(OrderEventHeaders.eventType(unknown));
+        assertNull(deserializer.deserialize(TOPIC, unknown, garbage));
+
+        Headers created = new RecordHeaders();
+        OrderEventHeaders.write(created, OrderEventType.ORDER_CREATED, null);
+        byte[] value = new OrderEventSerializer().serialize(TOPIC, event());
+        assertEquals(event(), deserializer.deserialize(TOPIC, created, ByteBuffer.wrap(value)));
+    }
+}
@@ -0,0 +1,134 @@
+package com.wellsfargo.order_event_contract;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the JSON the services send today (ObjectMapper with JavaTimeModule, as configured in
+ * both services) with the binary format: bytes per record and encode/decode ns/op. Run with
+ * {@code mvn test -Pbenchmark}; the report is written to target/benchmarks.
+ */
+@Tag("benchmark")
+class OrderEventWireFormatBenchmark {
+
+    private static final int EVENTS = 10_000;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 50;
+    private static final OrderEventStatus[] STATUSES = OrderEventStatus.values();
+
+    private interface Encoder {
+        byte[] encode(OrderEvent event) throws Exception;
+    }
+
+    private interface Decoder {
+        OrderEvent decode(byte[] value) throws Exception;
+    }
+
+    private record Result(double bytesPerRecord, double encodeNanos, double decodeNanos) {
+    }
+
+    @Test
+    void jsonVersusBinary() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        List<OrderEvent> events = events();
+
+        Result json = measure(events, objectMapper::writeValueAsBytes,
+                value -> objectMapper.readValue(value, OrderEvent.class));
+        BinaryWriter writer = new BinaryWriter(128);
+        Result binary = measure(events, event -> {
+            writer.reset();
+            BinaryOrderEventCodec.encode(event, writer);
+            return writer.toByteArray();
+        }, BinaryOrderEventCodec::decode);
+
+        StringBuilder report = new StringBuilder("# Order event wire format (" + EVENTS + " events)\n\n");
+        report.append(String.format("%-8s %14s %12s %12s%n", "format", "bytes/record", "encode", "decode"));
+        report.append(String.format("%-8s %14.1f %9.0f ns %9.0f ns%n", "json",
+                json.bytesPerRecord(), json.encodeNanos(), json.decodeNanos()));
+        report.append(String.format("%-8s %14.1f %9.0f ns %9.0f ns%n", "binary",
+                binary.bytesPerRecord(), binary.encodeNanos(), binary.decodeNanos()));
+        report.append(String.format("%nbinary is %.0f%% of the JSON size%n",
+                100 * binary.bytesPerRecord() / json.bytesPerRecord()));
+
+        Path directory = Path.of("target", "benchmarks");
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("order-event-wire-format.txt"), report);
+        System.out.println(report);
+    }
+
+    private static Result measure(List<OrderEvent> events, Encoder encoder, Decoder decoder) throws Exception {
+        byte[][] encoded = new byte[events.size()][];
+        long totalBytes = 0;
+        for (int i = 0; i < events.size(); i++) {
+            encoded[i] = encoder.encode(events.get(i));
+            totalBytes += encoded[i].length;
+            assertEquals(events.get(i), decoder.decode(encoded[i]));
+        }
+
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += encodeAll(events, encoder) + decodeAll(encoded, decoder);
+        }
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            sink += encodeAll(events, encoder);
+            long middle = System.nanoTime();
+            sink += decodeAll(encoded, decoder);
+            decodeNanos += System.nanoTime() - middle;
+            encodeNanos += middle - start;
+        }
+        if (sink == 42) {
+            System.out.println(sink);
+        }
+        double operations = (double) MEASURED_ROUNDS * events.size();
+        return new Result(totalBytes / (double) events.size(), encodeNanos / operations, decodeNanos / operations);
+    }
+
+    private static long encodeAll(List<OrderEvent> events, Encoder encoder) throws Exception {
+        long sink = 0;
+        for (OrderEvent event : events) {
+            sink += encoder.encode(event).length;
+        }
+        return sink;
+    }
+
+    private static long decodeAll(byte[][] encoded, Decoder decoder) throws Exception {
+        long sink = 0;
+        for (byte[] value : encoded) {
+            sink += decoder.decode(value).getOrderNumber().length();
+        }
+        return sink;
+    }
+
+    // Shaped like the order-service output: Snowflake order numbers, microsecond timestamps
+    private static List<OrderEvent> events() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<OrderEvent> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            LocalDateTime createdAt = start.plusNanos(random.nextLong(31_536_000_000_000L) * 1_000);
+            events.add(new OrderEvent(new UUID(random.nextLong(), random.nextLong()).toString(),
+                    "ORD-" + Long.toString(random.nextLong(1L << 62), 32).toUpperCase(),
+                    String.format("CUST-%05d", random.nextInt(5_000)),
+                    Math.round(random.nextDouble(10, 1_000) * 100) / 100.0,
+                    STATUSES[random.nextInt(STATUSES.length)].name(), createdAt,
+                    createdAt.plusNanos(random.nextInt(5_000_000) * 1_000L), EventSource.ORDER_SERVICE.id()));
+        }
+        return events;
+    }
+}
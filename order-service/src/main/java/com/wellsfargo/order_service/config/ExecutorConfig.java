@@ -0,0 +1,39 @@
+package com.wellsfargo.order_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    private static final int MAX_CONCURRENT_REPLAYS = 2;
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public TaskExecutor orderReplayExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(MAX_CONCURRENT_REPLAYS);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("order-replay-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    // With spring.threads.virtual.enabled each replay job gets its own virtual thread; the limit
+    // keeps the same bound on concurrent jobs as the platform pool
+    @Bean(name = "orderReplayExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor virtualOrderReplayExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("order-replay-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(MAX_CONCURRENT_REPLAYS);
+        executor.setRejectTasksWhenLimitReached(true);
+        return executor;
+    }
+}
@@ -1,6 +1,13 @@
 package com.wellsfargo.order_service.config;
 
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventSerializer;
+import com.wellsfargo.order_event_contract.OrderEventWireFormat;
+import com.wellsfargo.order_service.metrics.TimedSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -9,8 +16,11 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,15 +32,21 @@ public class KafkaProducerConfig {
     
     @Value("${spring.kafka.producer.retries}")
     private Integer retries;
+    
+    // How long send() may block on metadata or a full buffer before throwing
+    @Value("${order.kafka.producer.max-block:2s}")
+    private Duration maxBlock;
+    
+    @Value("${order.events.wire-format:JSON}")
+    private OrderEventWireFormat wireFormat;
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, Object> producerFactory(Serializer<OrderEvent> orderEventSerializer,
+                                                           MeterRegistry meterRegistry) {
         Map<String, Object> configProps = new HashMap<>();
         
         // Basic configuration
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         
         // Reliability and durability
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
@@ -46,6 +62,7 @@ public class KafkaProducerConfig {
         // Timeout configurations
         configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 30000);
         configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 120000);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlock.toMillis());
         
         // Buffer management
         configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, 67108864); // 64MB
@@ -53,12 +70,26 @@ public class KafkaProducerConfig {
         // Client identification
         configProps.put(ProducerConfig.CLIENT_ID_CONFIG, "order-service-producer");
         
-        return new DefaultKafkaProducerFactory<>(configProps);
+        // Outbox rows are already encoded; events sent directly are encoded on the send path
+        Map<Class<?>, Serializer<?>> valueSerializers = Map.of(
+                byte[].class, new ByteArraySerializer(),
+                OrderEvent.class, orderEventSerializer);
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configProps,
+                new StringSerializer(), new DelegatingByTypeSerializer(valueSerializers));
+        // Binds the client's own metrics (request latency, batch size, record error rate, buffer-available bytes)
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public Serializer<OrderEvent> orderEventSerializer(MeterRegistry meterRegistry) {
+        return new TimedSerializer<>(new OrderEventSerializer(objectMapper(), wireFormat), meterRegistry,
+                "order.event.serialization", wireFormat.name());
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        KafkaTemplate<String, String> template = new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory);
         template.setDefaultTopic("orders");
         return template;
     }
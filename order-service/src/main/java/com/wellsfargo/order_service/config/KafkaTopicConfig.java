@@ -0,0 +1,33 @@
+package com.wellsfargo.order_service.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${order.state.topic:order-state}")
+    private String orderStateTopic;
+
+    @Value("${order.state.partitions:3}")
+    private int orderStatePartitions;
+
+    @Value("${order.state.replicas:1}")
+    private int orderStateReplicas;
+
+    // Compacted: only the latest record per orderNumber is retained, and tombstones remove deleted orders
+    @Bean
+    public NewTopic orderStateTopic() {
+        return TopicBuilder.name(orderStateTopic)
+                .partitions(orderStatePartitions)
+                .replicas(orderStateReplicas)
+                .compact()
+                .config(TopicConfig.MIN_COMPACTION_LAG_MS_CONFIG, "0")
+                .config(TopicConfig.DELETE_RETENTION_MS_CONFIG, "86400000")
+                .build();
+    }
+}
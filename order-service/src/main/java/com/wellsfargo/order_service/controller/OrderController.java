@@ -1,19 +1,35 @@
 package com.wellsfargo.order_service.controller;
 
-import com.wellsfargo.order_service.dto.BulkOrderSendResponse;
 import com.wellsfargo.order_service.dto.OrderRequest;
+import com.wellsfargo.order_service.dto.BatchOrderResponse;
+import com.wellsfargo.order_service.dto.OrderCacheStatsResponse;
+import com.wellsfargo.order_service.dto.OrderPageResponse;
+import com.wellsfargo.order_service.dto.OrderPartitioningStatsResponse;
+import com.wellsfargo.order_service.dto.OrderReplayJobResponse;
 import com.wellsfargo.order_service.dto.OrderResponse;
 import com.wellsfargo.order_service.entity.Order;
+import com.wellsfargo.order_service.kafka.producer.DeliveryMode;
+import com.wellsfargo.order_service.service.OrderEventDeliveryException;
+import com.wellsfargo.order_service.service.OrderExportService;
+import com.wellsfargo.order_service.service.OrderReplayService;
 import com.wellsfargo.order_service.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -22,12 +38,55 @@ import java.util.List;
 public class OrderController {
     
     private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+    private static final String DEFAULT_PAGE_SIZE = "50";
+    private static final String NDJSON = "application/x-ndjson";
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderReplayService orderReplayService;
+
+    @Value("${order.delivery.ack-timeout:5s}")
+    private Duration defaultAckTimeout;
+    
+    // 201 once the event is delivered per the requested mode; 202 if the order was saved but the
+    // event is still pending; 503 if the producer is at capacity
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
+    public CompletableFuture<ResponseEntity<OrderResponse>> createOrder(
+            @Valid @RequestBody OrderRequest orderRequest,
+            @RequestParam(defaultValue = "FIRE_AND_FORGET") DeliveryMode delivery,
+            @RequestParam(required = false) Long timeoutMs) {
         log.info("REST request to create order: {}", orderRequest);
-        OrderResponse createdOrder = orderService.createOrder(orderRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+        Duration ackTimeout = timeoutMs != null ? Duration.ofMillis(timeoutMs) : defaultAckTimeout;
+        return orderService.createOrder(orderRequest, delivery, ackTimeout)
+                .handle((createdOrder, failure) -> {
+                    if (failure == null) {
+                        return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+                    }
+                    Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                    if (cause instanceof OrderEventDeliveryException pending) {
+                        OrderResponse order = pending.getOrder();
+                        order.setMessage("Order created; " + pending.getMessage() + ", delivery will be retried");
+                        return ResponseEntity.status(HttpStatus.ACCEPTED).body(order);
+                    }
+                    throw failure instanceof CompletionException completion ? completion : new CompletionException(cause);
+                });
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<BatchOrderResponse> createOrders(@RequestBody List<OrderRequest> orderRequests) {
+        log.info("REST request to create batch of {} orders", orderRequests.size());
+        BatchOrderResponse response = orderService.createOrders(orderRequests);
+        HttpStatus status = response.getFailedOrders() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<OrderCacheStatsResponse> getCacheStats() {
+        return ResponseEntity.ok(orderService.getCacheStats());
+    }
+    
+    @GetMapping("/partitioning/stats")
+    public ResponseEntity<OrderPartitioningStatsResponse> getPartitioningStats() {
+        return ResponseEntity.ok(orderService.getPartitioningStats());
     }
     
     @GetMapping("/{id}")
@@ -47,33 +106,55 @@ public class OrderController {
     }
     
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByCustomerId(@PathVariable String customerId) {
+    public ResponseEntity<OrderPageResponse> getOrdersByCustomerId(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
         log.info("REST request to get orders for customer: {}", customerId);
-        List<OrderResponse> orderResponses = orderService.getOrdersByCustomerId(customerId);
-        return ResponseEntity.ok(orderResponses);
+        OrderPageResponse page = orderService.getOrdersByCustomerId(customerId, cursor, size);
+        return ResponseEntity.ok(page);
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByStatus(@PathVariable Order.OrderStatus status) {
+    public ResponseEntity<OrderPageResponse> getOrdersByStatus(
+            @PathVariable Order.OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
         log.info("REST request to get orders with status: {}", status);
-        List<OrderResponse> orderResponses = orderService.getOrdersByStatus(status);
-        return ResponseEntity.ok(orderResponses);
+        OrderPageResponse page = orderService.getOrdersByStatus(status, cursor, size);
+        return ResponseEntity.ok(page);
     }
     
     @GetMapping("/customer/{customerId}/status/{status}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByCustomerIdAndStatus(
+    public ResponseEntity<OrderPageResponse> getOrdersByCustomerIdAndStatus(
             @PathVariable String customerId, 
-            @PathVariable Order.OrderStatus status) {
+            @PathVariable Order.OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
         log.info("REST request to get orders for customer: {} with status: {}", customerId, status);
-        List<OrderResponse> orderResponses = orderService.getOrdersByCustomerIdAndStatus(customerId, status);
-        return ResponseEntity.ok(orderResponses);
+        OrderPageResponse page = orderService.getOrdersByCustomerIdAndStatus(customerId, status, cursor, size);
+        return ResponseEntity.ok(page);
     }
     
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
+    public ResponseEntity<OrderPageResponse> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
         log.info("REST request to get all orders");
-        List<OrderResponse> orderResponses = orderService.getAllOrders();
-        return ResponseEntity.ok(orderResponses);
+        OrderPageResponse page = orderService.getAllOrders(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("REST request to export orders with status: {}, from: {}, to: {}", status, from, to);
+        StreamingResponseBody body = out -> orderExportService.exportOrders(status, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
     
     @PutMapping("/{id}/status")
@@ -95,11 +176,19 @@ public class OrderController {
     }
     
     @PostMapping("/send-all-to-payment")
-public ResponseEntity<BulkOrderSendResponse> sendAllOrdersToPaymentService() {
-    log.info("REST request to send all orders to Payment Service");
-    BulkOrderSendResponse response = orderService.sendAllOrdersToPaymentService();
-    return ResponseEntity.ok(response);
-}
+    public ResponseEntity<OrderReplayJobResponse> sendAllOrdersToPaymentService() {
+        log.info("REST request to send all orders to Payment Service");
+        OrderReplayJobResponse response = orderReplayService.startReplay();
+        return ResponseEntity.accepted().body(response);
+    }
+    
+    @GetMapping("/send-all-to-payment/{jobId}")
+    public ResponseEntity<OrderReplayJobResponse> getReplayJobStatus(@PathVariable String jobId) {
+        log.info("REST request to get replay job status: {}", jobId);
+        return orderReplayService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
@@ -11,22 +11,23 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class BulkOrderSendResponse {
-    
+public class BatchOrderResponse {
+
     private int totalOrders;
-    private int successfulSends;
-    private int failedSends;
-    private List<OrderResponse> successfulOrders;
-    private List<OrderErrorInfo> failedOrders;
+    private int createdOrders;
+    private int failedOrders;
+    private List<BatchOrderItemResult> results;
     private String message;
-    
+
     @Data
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
-    public static class OrderErrorInfo {
-        private Long orderId;
-        private String orderNumber;
+    public static class BatchOrderItemResult {
+        // Position of the item in the submitted array
+        private int index;
+        private boolean success;
+        private OrderResponse order;
         private String errorMessage;
     }
 }
@@ -0,0 +1,24 @@
+package com.wellsfargo.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCacheStatsResponse {
+
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long loadCount;
+    private long evictionCount;
+    private long byIdHitCount;
+    private long byIdMissCount;
+    private long byOrderNumberHitCount;
+    private long byOrderNumberMissCount;
+}
@@ -0,0 +1,21 @@
+package com.wellsfargo.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageResponse {
+
+    private List<OrderResponse> orders;
+    private int size;
+    private boolean hasNext;
+    // Opaque token to pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,35 @@
+package com.wellsfargo.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPartitioningStatsResponse {
+
+    private String strategy;
+    // Customers currently split across sub-keys, with the number of sub-keys each
+    private Map<String, Integer> hotCustomers;
+    private long lastWindowEvents;
+    private List<KeyCount> lastWindowTopCustomers;
+    // Acknowledged records per partition of the orders topic since start
+    private Map<Integer, Long> partitionCounts;
+    // Busiest partition's count divided by the mean; 1.0 is perfectly even
+    private double partitionSkew;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class KeyCount {
+        private String key;
+        private long count;
+        private double share;
+    }
+}
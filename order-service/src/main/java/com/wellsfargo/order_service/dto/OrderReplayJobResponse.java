@@ -0,0 +1,29 @@
+package com.wellsfargo.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReplayJobResponse {
+
+    private String jobId;
+    private String status;
+    private long totalOrders;
+    private long sentCount;
+    private long failedCount;
+    private Long lastOrderId;
+    private double elapsedSeconds;
+    private double ordersPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    private String lastError;
+    private String message;
+}
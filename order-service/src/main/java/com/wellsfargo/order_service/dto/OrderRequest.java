@@ -10,7 +10,7 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class OrderRequest {
     
-    @NotBlank(message = "Order number is required")
+    // Optional: a time-ordered ORD- number is generated when omitted
     private String orderNumber;
     
     @NotBlank(message = "Customer ID is required")
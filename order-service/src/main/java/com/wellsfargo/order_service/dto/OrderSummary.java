@@ -0,0 +1,18 @@
+package com.wellsfargo.order_service.dto;
+
+import com.wellsfargo.order_service.entity.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of an order, built by the query straight from the result set. Nothing is
+ * registered in the persistence context, so there is no snapshot or dirty-check cost per row.
+ */
+public record OrderSummary(Long id, String orderNumber, String customerId, Double totalAmount,
+                           Order.OrderStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public OrderResponse toResponse() {
+        return new OrderResponse(id, orderNumber, customerId, totalAmount,
+                status != null ? status.name() : null, createdAt, updatedAt, null);
+    }
+}
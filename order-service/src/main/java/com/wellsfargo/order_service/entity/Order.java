@@ -6,23 +6,36 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", uniqueConstraints = {
+        @UniqueConstraint(name = Order.ORDER_NUMBER_CONSTRAINT, columnNames = "order_number")
+}, indexes = {
+        // One index per list query shape: equality columns first, then the (created_at, id) keyset
+        @Index(name = "ix_orders_customer_status_created", columnList = "customer_id, status, created_at DESC, id DESC"),
+        @Index(name = "ix_orders_customer_created", columnList = "customer_id, created_at DESC, id DESC"),
+        @Index(name = "ix_orders_status_created", columnList = "status, created_at DESC, id DESC"),
+        @Index(name = "ix_orders_created", columnList = "created_at DESC, id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
     
+    public static final String ORDER_NUMBER_CONSTRAINT = "uk_orders_order_number";
+    
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
-    @Column(nullable = false)
+    @Column(name = "order_number", nullable = false)
     @NotBlank(message = "Order number is required")
     private String orderNumber;
     
-    @Column(nullable = false)
+    @Column(name = "customer_id", nullable = false)
     @NotBlank(message = "Customer ID is required")
     private String customerId;
     
@@ -44,8 +57,9 @@ public class Order {
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        // Match the column's microsecond precision so keyset cursors compare against the stored value
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = createdAt;
     }
     
     @PreUpdate
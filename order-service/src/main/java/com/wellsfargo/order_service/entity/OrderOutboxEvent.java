@@ -0,0 +1,73 @@
+package com.wellsfargo.order_service.entity;
+
+import com.wellsfargo.order_event_contract.OrderEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "ix_order_outbox_sent_at", columnList = "sent_at, failed_at, id"),
+        @Index(name = "ix_order_outbox_key_unsent", columnList = "message_key, sent_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private OrderEventType eventType;
+
+    // Copied from the payload so the relay can set the event-id header without decoding it
+    @Column(name = "event_id", length = 36)
+    private String eventId;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(name = "message_key", nullable = false)
+    private String messageKey;
+
+    // Encoded record value, JSON or binary per order.events.wire-format
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Null until the relay has had the record acknowledged by the broker
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // Set after a failed send; the relay leaves the row alone until then
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    // Set when the relay gives up after max-attempts; a parked (FAILED) row is never sent again
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
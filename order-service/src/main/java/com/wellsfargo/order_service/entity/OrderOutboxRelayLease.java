@@ -0,0 +1,30 @@
+package com.wellsfargo.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_outbox_relay_lease")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxRelayLease {
+
+    public static final String RELAY = "outbox-relay";
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    // Instance allowed to poll the outbox; it renews the lease while it runs, and an instance that
+    // finds the lease expired may claim it
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+}
@@ -0,0 +1,83 @@
+package com.wellsfargo.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_replay_jobs", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_replay_jobs_active", columnNames = "active_key")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReplayJob {
+
+    public static final String RUNNING_KEY = "RUNNING";
+
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status;
+
+    // Highest order ID whose event has been acknowledged; the job resumes after this ID
+    @Column(name = "last_order_id", nullable = false)
+    private Long lastOrderId;
+
+    @Column(name = "total_orders", nullable = false)
+    private long totalOrders;
+
+    @Column(name = "sent_count", nullable = false)
+    private long sentCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private long failedCount;
+
+    // RUNNING_KEY while the job runs, its own job ID once it ends; the unique constraint lets only one
+    // job run at a time
+    @Column(name = "active_key", length = 36, nullable = false)
+    private String activeKey;
+
+    // Instance running the job; it renews the lease at each checkpoint, and an instance that finds
+    // the lease expired may claim the job
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        startedAt = LocalDateTime.now();
+        updatedAt = startedAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum JobStatus {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -1,15 +0,0 @@
-package com.wellsfargo.order_service.kafka.event;
-
-public final class OrderEventType {
-    
-    public static final String ORDER_CREATED = "ORDER_CREATED";
-    public static final String ORDER_UPDATED = "ORDER_UPDATED";
-    public static final String ORDER_CANCELLED = "ORDER_CANCELLED";
-    public static final String ORDER_CONFIRMED = "ORDER_CONFIRMED";
-    public static final String ORDER_SHIPPED = "ORDER_SHIPPED";
-    public static final String ORDER_DELIVERED = "ORDER_DELIVERED";
-    
-    private OrderEventType() {
-        // Utility class
-    }
-}
@@ -0,0 +1,27 @@
+package com.wellsfargo.order_service.kafka.event;
+
+import com.wellsfargo.order_event_contract.EventSource;
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_service.entity.Order;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public final class OrderEvents {
+    
+    private OrderEvents() {
+        // Utility class
+    }
+    
+    public static OrderEvent of(Order order) {
+        return new OrderEvent(
+                UUID.randomUUID().toString(),
+                order.getOrderNumber(),
+                order.getCustomerId(),
+                order.getTotalAmount(),
+                order.getStatus().toString(),
+                order.getCreatedAt(),
+                LocalDateTime.now(),
+                EventSource.ORDER_SERVICE.id());
+    }
+}
@@ -0,0 +1,397 @@
+package com.wellsfargo.order_service.kafka.outbox;
+
+import com.wellsfargo.order_service.entity.OrderOutboxEvent;
+import com.wellsfargo.order_service.entity.OrderOutboxRelayLease;
+import com.wellsfargo.order_service.kafka.producer.OrderEventProducer;
+import com.wellsfargo.order_service.repository.OrderOutboxRelayLeaseRepository;
+import com.wellsfargo.order_service.repository.OrderOutboxRepository;
+import com.wellsfargo.order_service.service.ServiceInstance;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains committed rows from the order outbox into Kafka. Rows are only marked as sent once the
+ * broker has acknowledged them, so a crash between send and mark results in a re-send rather than
+ * a lost event (at-least-once delivery).
+ * <p>
+ * Rows with the same message key are published in id order. A row is only dispatched directly
+ * after commit if no earlier row for its key is still unsent, and the poller holds back a key
+ * while one of its rows is being dispatched directly. Within a batch the poller sends a key's next
+ * row only once the previous one has been acknowledged.
+ * <p>
+ * A row that the broker or serializer fails is retried after a backoff that doubles with each
+ * attempt, and its key is held back until then. Waiting for a producer slot is not an attempt: the
+ * relay waits up to {@code send-timeout} for one, and otherwise leaves the row for the next poll.
+ * After {@code max-attempts} the row is parked ({@code failed_at} set) and never sent again; later
+ * rows for its key are no longer held back by it.
+ * <p>
+ * Only one instance polls the outbox: the holder of the relay lease ({@link OrderOutboxRelayLease}),
+ * which it renews as it polls. Another instance takes the lease over once it has expired, or at
+ * once when the holder shuts down. Every instance still dispatches its own rows after commit; the
+ * poller may send such a row again while it is in flight, which consumers drop as a duplicate.
+ */
+@Component
+@Slf4j
+public class OrderOutboxRelay {
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderOutboxRelayLeaseRepository leaseRepository;
+    private final OrderEventProducer orderEventProducer;
+    private final String instanceId;
+    private final Duration lease;
+    private final int batchSize;
+    private final Semaphore inFlight;
+    private final Duration sendTimeout;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    // Rows being published directly after commit, by id, with their message key; the poller leaves
+    // them, and later rows for the same key, alone until they settle
+    private final Map<Long, String> dispatching = new ConcurrentHashMap<>();
+    private final Set<Long> dispatchedAcks = ConcurrentHashMap.newKeySet();
+    // Acknowledgements promised by dispatchAfterCommit for rows left to the poller
+    private final Map<Long, CompletableFuture<SendResult<String, Object>>> awaitingRelay = new ConcurrentHashMap<>();
+    private volatile boolean leaseHeld;
+    private LocalDateTime nextLeaseCheck = LocalDateTime.MIN;
+
+    public OrderOutboxRelay(OrderOutboxRepository outboxRepository,
+                            OrderOutboxRelayLeaseRepository leaseRepository,
+                            OrderEventProducer orderEventProducer,
+                            ServiceInstance serviceInstance,
+                            @Value("${order.outbox.relay.batch-size:500}") int batchSize,
+                            @Value("${order.outbox.relay.max-in-flight:100}") int maxInFlight,
+                            @Value("${order.outbox.relay.send-timeout:30s}") Duration sendTimeout,
+                            @Value("${order.outbox.retention:24h}") Duration retention,
+                            @Value("${order.outbox.relay.max-attempts:10}") int maxAttempts,
+                            @Value("${order.outbox.relay.retry-backoff:1s}") Duration retryBackoff,
+                            @Value("${order.outbox.relay.max-retry-backoff:5m}") Duration maxRetryBackoff,
+                            @Value("${order.outbox.relay.lease:2m}") Duration lease) {
+        this.outboxRepository = outboxRepository;
+        this.leaseRepository = leaseRepository;
+        this.orderEventProducer = orderEventProducer;
+        this.instanceId = serviceInstance.id();
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.sendTimeout = sendTimeout;
+        this.retention = retention;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay.poll-interval:200ms}")
+    public void relayPendingEvents() {
+        markDispatchedSent();
+        List<OrderOutboxEvent> batch;
+        int fetched;
+        do {
+            if (!holdsLease()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            batch = outboxRepository.findDue(now, Limit.of(batchSize));
+            fetched = batch.size();
+            Set<String> heldKeys = new HashSet<>(dispatching.values());
+            if (!batch.isEmpty()) {
+                heldKeys.addAll(outboxRepository.findKeysBackingOff(now));
+            }
+            batch.removeIf(event -> dispatching.containsKey(event.getId()) || dispatchedAcks.contains(event.getId())
+                    || heldKeys.contains(event.getMessageKey()));
+            if (batch.isEmpty()) {
+                return;
+            }
+        } while (publish(batch) && fetched == batchSize);
+    }
+
+    /**
+     * Publishes an outbox row as soon as the current transaction commits, using a producer slot the
+     * caller has already reserved, and returns the broker acknowledgement. The row is marked sent
+     * on the next poll; if the send fails the poller retries it as usual. On rollback the slot is
+     * released and the future fails.
+     * <p>
+     * If an earlier row for the same key is still unsent, sending this one now could overtake it.
+     * The slot is then released and the row left to the poller, which completes the future when it
+     * publishes the row.
+     */
+    public CompletableFuture<SendResult<String, Object>> dispatchAfterCommit(OrderOutboxEvent event) {
+        CompletableFuture<SendResult<String, Object>> acknowledgement = new CompletableFuture<>();
+        if (outboxRepository.existsUnsentBefore(event.getMessageKey(), event.getId())) {
+            orderEventProducer.releaseReservation();
+            awaitingRelay.put(event.getId(), acknowledgement);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED && awaitingRelay.remove(event.getId()) != null) {
+                        acknowledgement.completeExceptionally(
+                                new IllegalStateException("Transaction rolled back before the event was published"));
+                    }
+                }
+            });
+            return acknowledgement;
+        }
+        dispatching.put(event.getId(), event.getMessageKey());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orderEventProducer.sendReserved(toRecord(event))
+                        .whenComplete((result, failure) -> {
+                            if (failure == null) {
+                                dispatchedAcks.add(event.getId());
+                            }
+                            dispatching.remove(event.getId());
+                            if (failure == null) {
+                                acknowledgement.complete(result);
+                            } else {
+                                acknowledgement.completeExceptionally(failure);
+                            }
+                        });
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    dispatching.remove(event.getId());
+                    orderEventProducer.releaseReservation();
+                    acknowledgement.completeExceptionally(
+                            new IllegalStateException("Transaction rolled back before the event was published"));
+                }
+            }
+        });
+        return acknowledgement;
+    }
+
+    private void markDispatchedSent() {
+        List<Long> acknowledged = new ArrayList<>(dispatchedAcks);
+        if (!acknowledged.isEmpty()) {
+            outboxRepository.markSent(acknowledged, LocalDateTime.now());
+            acknowledged.forEach(dispatchedAcks::remove);
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (leaseHeld) {
+            leaseRepository.release(OrderOutboxRelayLease.RELAY, instanceId);
+        }
+    }
+
+    // Claims or renews the lease once half of it has run out; an instance without it tries as often
+    private boolean holdsLease() {
+        LocalDateTime now = LocalDateTime.now();
+        if (now.isBefore(nextLeaseCheck)) {
+            return leaseHeld;
+        }
+        boolean held = leaseRepository.claim(OrderOutboxRelayLease.RELAY, instanceId, now, now.plus(lease)) == 1
+                || createLease(now);
+        if (held != leaseHeld) {
+            log.info(held ? "Took the outbox relay lease" : "Outbox relay lease is held by another instance");
+        }
+        leaseHeld = held;
+        nextLeaseCheck = now.plus(lease.dividedBy(2));
+        return held;
+    }
+
+    // The first instance to find the lease row missing creates it, holding the lease
+    private boolean createLease(LocalDateTime now) {
+        if (leaseRepository.existsById(OrderOutboxRelayLease.RELAY)) {
+            return false;
+        }
+        try {
+            leaseRepository.saveAndFlush(new OrderOutboxRelayLease(OrderOutboxRelayLease.RELAY, instanceId, now.plus(lease)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.cleanup-interval:10m}")
+    public void purgeSentEvents() {
+        int deleted = outboxRepository.deleteSentBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} sent outbox events", deleted);
+        }
+    }
+
+    /**
+     * Sends a batch in rounds of at most one row per key, so a key's row is only sent once the
+     * previous one has been acknowledged. A key whose row fails sends nothing more from this batch;
+     * its failed row's backoff then holds the key back. Returns false if any row was left unsent,
+     * so the caller waits until the next poll.
+     */
+    private boolean publish(List<OrderOutboxEvent> batch) {
+        // Each key's rows in id order, as findDue returns them
+        Map<String, Deque<OrderOutboxEvent>> byKey = new LinkedHashMap<>();
+        batch.forEach(event -> byKey.computeIfAbsent(event.getMessageKey(), key -> new ArrayDeque<>()).add(event));
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        Set<Long> sent = new HashSet<>();
+        boolean finished = true;
+        while (finished && !byKey.isEmpty()) {
+            List<OrderOutboxEvent> round = byKey.values().stream().map(Deque::peekFirst).toList();
+            finished = sendRound(round, sent, deadline);
+            Iterator<Deque<OrderOutboxEvent>> keys = byKey.values().iterator();
+            while (keys.hasNext()) {
+                Deque<OrderOutboxEvent> rows = keys.next();
+                // A key whose row failed or went unsent sends nothing more from this batch
+                if (!sent.contains(rows.pollFirst().getId()) || rows.isEmpty()) {
+                    keys.remove();
+                }
+            }
+        }
+        if (sent.size() < batch.size()) {
+            log.debug("Relayed {} of {} outbox events; the rest wait for the next poll", sent.size(), batch.size());
+            return false;
+        }
+        log.debug("Relayed {} outbox events", sent.size());
+        return true;
+    }
+
+    /**
+     * Sends one row per key with at most {@code max-in-flight} unacknowledged records, adds the
+     * acknowledged ids to {@code sent} and records the failures. Returns false if a row was not
+     * attempted or got no outcome before {@code deadline}.
+     */
+    private boolean sendRound(List<OrderOutboxEvent> round, Set<Long> sent, long deadline) {
+        List<Long> sentIds = new ArrayList<>(round.size());
+        // Failed rows by error; a round usually fails for one reason, so this is one update per reason
+        Map<String, List<OrderOutboxEvent>> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<?>> pending = new ArrayList<>(round.size());
+        boolean finished = true;
+
+        for (OrderOutboxEvent event : round) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finished = false;
+                break;
+            }
+            // A full producer is not a failed attempt: the rest of the batch waits for the next poll
+            // without counting towards max-attempts
+            if (!orderEventProducer.tryReserve(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())))) {
+                inFlight.release();
+                log.warn("No producer slot freed up within {}; leaving outbox events for the next poll", sendTimeout);
+                finished = false;
+                break;
+            }
+            pending.add(orderEventProducer.sendReserved(toRecord(event)).whenComplete((result, failure) -> {
+                inFlight.release();
+                if (failure == null) {
+                    synchronized (sentIds) {
+                        sentIds.add(event.getId());
+                    }
+                    CompletableFuture<SendResult<String, Object>> waiting = awaitingRelay.remove(event.getId());
+                    if (waiting != null) {
+                        waiting.complete(result);
+                    }
+                } else {
+                    failures.computeIfAbsent(errorMessage(failure), error -> new CopyOnWriteArrayList<>())
+                            .add(event);
+                }
+            }));
+        }
+
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finished = false;
+        } catch (TimeoutException e) {
+            log.warn("Timed out waiting for outbox batch acknowledgements after {}", sendTimeout);
+            finished = false;
+        } catch (Exception e) {
+            // Individual failures are collected in whenComplete above
+        }
+
+        List<Long> acknowledged;
+        synchronized (sentIds) {
+            acknowledged = new ArrayList<>(sentIds);
+        }
+        if (!acknowledged.isEmpty()) {
+            outboxRepository.markSent(acknowledged, LocalDateTime.now());
+            sent.addAll(acknowledged);
+        }
+        for (Map.Entry<String, List<OrderOutboxEvent>> failure : failures.entrySet()) {
+            recordFailure(failure.getValue(), failure.getKey());
+            log.error("Failed to relay {} of {} outbox events: {}", failure.getValue().size(), round.size(), failure.getKey());
+        }
+        return finished;
+    }
+
+    // Schedules the next attempt of each row, or parks the rows that have used up their attempts
+    private void recordFailure(List<OrderOutboxEvent> events, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, List<Long>> retryingByAttempts = new HashMap<>();
+        List<Long> parked = new ArrayList<>();
+        for (OrderOutboxEvent event : events) {
+            int attempts = event.getAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                parked.add(event.getId());
+            } else {
+                retryingByAttempts.computeIfAbsent(attempts, n -> new ArrayList<>()).add(event.getId());
+            }
+        }
+        retryingByAttempts.forEach((attempts, ids) ->
+                outboxRepository.markFailed(ids, error, now.plus(backoff(attempts))));
+        if (!parked.isEmpty()) {
+            outboxRepository.markParked(parked, error, now);
+            log.error("Parked outbox events {} after {} attempts; they will not be sent again: {}", parked, maxAttempts, error);
+            for (Long id : parked) {
+                CompletableFuture<SendResult<String, Object>> waiting = awaitingRelay.remove(id);
+                if (waiting != null) {
+                    waiting.completeExceptionally(new IllegalStateException("Event parked after " + maxAttempts
+                            + " failed attempts: " + error));
+                }
+            }
+        }
+    }
+
+    // retry-backoff doubled for each attempt after the first, up to max-retry-backoff
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+
+    // Unwrapped from the future's CompletionException and cut to fit last_error
+    private static String errorMessage(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        String error = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    private static ProducerRecord<String, Object> toRecord(OrderOutboxEvent event) {
+        return OrderEventProducer.record(event.getTopic(), event.getMessageKey(), event.getPayload(),
+                event.getEventType(), event.getEventId());
+    }
+}
@@ -0,0 +1,62 @@
+package com.wellsfargo.order_service.kafka.outbox;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventType;
+import com.wellsfargo.order_service.entity.Order;
+import com.wellsfargo.order_service.entity.OrderOutboxEvent;
+import com.wellsfargo.order_service.kafka.event.OrderEvents;
+import com.wellsfargo.order_service.kafka.producer.OrderEventProducer;
+import com.wellsfargo.order_service.kafka.producer.OrderPartitionKeys;
+import com.wellsfargo.order_service.repository.OrderOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderOutboxWriter {
+
+    private final OrderOutboxRepository outboxRepository;
+    private final Serializer<OrderEvent> orderEventSerializer;
+    private final OrderPartitionKeys orderPartitionKeys;
+
+    // MANDATORY: the outbox row must commit or roll back together with the order change
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OrderOutboxEvent enqueue(Order order, OrderEventType eventType) {
+        OrderOutboxEvent saved = outboxRepository.save(toOutboxEvent(order, eventType));
+        log.debug("Queued {} event for order: {}", eventType, order.getOrderNumber());
+        return saved;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<OrderOutboxEvent> enqueueAll(List<Order> orders, OrderEventType eventType) {
+        List<OrderOutboxEvent> outboxEvents = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            outboxEvents.add(toOutboxEvent(order, eventType));
+        }
+        List<OrderOutboxEvent> saved = outboxRepository.saveAll(outboxEvents);
+        log.debug("Queued {} {} events", saved.size(), eventType);
+        return saved;
+    }
+
+    private OrderOutboxEvent toOutboxEvent(Order order, OrderEventType eventType) {
+        OrderEvent event = OrderEvents.of(order);
+        byte[] payload = orderEventSerializer.serialize(OrderEventProducer.ORDER_TOPIC, event);
+
+        OrderOutboxEvent outboxEvent = new OrderOutboxEvent();
+        outboxEvent.setOrderId(order.getId());
+        outboxEvent.setEventType(eventType);
+        outboxEvent.setEventId(event.getEventId());
+        outboxEvent.setTopic(OrderEventProducer.ORDER_TOPIC);
+        outboxEvent.setMessageKey(orderPartitionKeys.keyFor(order));
+        outboxEvent.setPayload(payload);
+        return outboxEvent;
+    }
+}
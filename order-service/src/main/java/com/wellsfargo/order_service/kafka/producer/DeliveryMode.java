@@ -0,0 +1,13 @@
+package com.wellsfargo.order_service.kafka.producer;
+
+/**
+ * How long a caller waits for its event to reach Kafka.
+ */
+public enum DeliveryMode {
+    /** Return once the event is committed to the outbox; the relay publishes it shortly after. */
+    FIRE_AND_FORGET,
+    /** Publish right after commit and wait for the broker acknowledgement. */
+    AWAIT_ACK,
+    /** As AWAIT_ACK, but stop waiting after a per-call timeout. */
+    AWAIT_ACK_WITH_TIMEOUT
+}
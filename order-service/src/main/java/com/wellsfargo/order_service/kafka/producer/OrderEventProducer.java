@@ -1,45 +1,147 @@
 package com.wellsfargo.order_service.kafka.producer;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventHeaders;
+import com.wellsfargo.order_event_contract.OrderEventType;
 import com.wellsfargo.order_service.entity.Order;
-import com.wellsfargo.order_service.kafka.event.OrderEventType;
-import com.wellsfargo.order_service.kafka.event.OrderCreatedEvent;
-import lombok.RequiredArgsConstructor;
+import com.wellsfargo.order_service.kafka.event.OrderEvents;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes order events with a bounded number of unacknowledged sends. Every send returns a
+ * future that completes with the broker acknowledgement or the failure; when the limit is reached
+ * callers get a {@link ProducerBackpressureException} instead of queueing behind a full buffer.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OrderEventProducer {
     
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    public static final String ORDER_TOPIC = "orders";
+    
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OrderPartitionKeys orderPartitionKeys;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Duration reserveTimeout;
+    private final MeterRegistry meterRegistry;
+    // Send-to-acknowledgement timers per topic, [success, failure]; resolved once per topic, not per send
+    private final Map<String, Timer[]> sendTimers = new ConcurrentHashMap<>();
+    
+    public OrderEventProducer(KafkaTemplate<String, Object> kafkaTemplate, OrderPartitionKeys orderPartitionKeys,
+                              MeterRegistry meterRegistry,
+                              @Value("${order.kafka.producer.max-in-flight:1000}") int maxInFlight,
+                              @Value("${order.kafka.producer.reserve-timeout:50ms}") Duration reserveTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.orderPartitionKeys = orderPartitionKeys;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.reserveTimeout = reserveTimeout;
+        meterRegistry.gauge("order.kafka.producer.in-flight", inFlight, slots -> maxInFlight - slots.availablePermits());
+    }
+    
+    /**
+     * Republishes the order as ORDER_CREATED. Consumers that already applied its creation drop the
+     * repeat by their processed-event store; the others create what they missed. Waits for an
+     * in-flight slot rather than failing fast, so a replay slows down under load instead of
+     * skipping orders.
+     */
+    public CompletableFuture<SendResult<String, Object>> resendOrderCreated(Order order) throws InterruptedException {
+        OrderEvent event = OrderEvents.of(order);
+        inFlight.acquire();
+        // Encoded by the producer's OrderEventSerializer on the send path
+        return sendReserved(record(ORDER_TOPIC, orderPartitionKeys.keyFor(order), event, OrderEventType.ORDER_CREATED,
+                event.getEventId()))
+                .whenComplete((result, failure) -> {
+                    if (failure == null) {
+                        log.debug("Order created event resent for order: {}", order.getOrderNumber());
+                    } else {
+                        log.error("Failed to resend order created event for order: {}", order.getOrderNumber(), failure);
+                    }
+                });
+    }
+    
+    /** A record carrying the type, schema-version and event-id headers consumers route on. */
+    public static ProducerRecord<String, Object> record(String topic, String key, Object value,
+                                                        OrderEventType eventType, String eventId) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, key, value);
+        OrderEventHeaders.write(record.headers(), eventType, eventId);
+        return record;
+    }
+    
+    public CompletableFuture<SendResult<String, Object>> send(ProducerRecord<String, Object> record) {
+        if (!tryReserve()) {
+            return CompletableFuture.failedFuture(new ProducerBackpressureException(maxInFlight));
+        }
+        return sendReserved(record);
+    }
+    
+    /**
+     * Claims an in-flight slot, waiting at most {@code reserve-timeout}. Callers that reserve ahead
+     * of other work must either pass the slot to {@link #sendReserved} or give it back with
+     * {@link #releaseReservation}.
+     */
+    public boolean tryReserve() {
+        return tryReserve(reserveTimeout);
+    }
+    
+    /** As {@link #tryReserve()}, for callers that can wait longer than {@code reserve-timeout}. */
+    public boolean tryReserve(Duration timeout) {
+        try {
+            return inFlight.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
     
-    private static final String ORDER_TOPIC = "orders";
+    public void releaseReservation() {
+        inFlight.release();
+    }
     
-    public void sendOrderCreatedEvent(Order order) {
-        OrderCreatedEvent orderCreatedEvent = OrderCreatedEvent.from(order);
+    /** Sends using a slot obtained from {@link #tryReserve}; the slot is released when the send completes. */
+    public CompletableFuture<SendResult<String, Object>> sendReserved(ProducerRecord<String, Object> record) {
+        Timer[] timers = sendTimers.computeIfAbsent(record.topic(), this::sendTimers);
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future;
         try {
-            String eventJson = objectMapper.writeValueAsString(orderCreatedEvent);
-            kafkaTemplate.send(ORDER_TOPIC, order.getId().toString(), eventJson)
-                    .whenComplete(
-                            (result, failure) -> {
-                                if (failure == null) {
-                                    log.info("Order created event sent successfully for order: {}", order.getOrderNumber());
-                                } else {
-                                    log.error("Failed to send order created event for order: {}", order.getOrderNumber(), failure);
-                                }
-                            }
-                    );
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing order created event for order: {}", order.getOrderNumber(), e);
+            future = kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            // Serialization errors and max.block.ms timeouts are thrown rather than returned
+            future = CompletableFuture.failedFuture(e);
         }
+        return future.whenComplete((result, failure) -> {
+            inFlight.release();
+            timers[failure == null ? 0 : 1].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (failure == null && ORDER_TOPIC.equals(record.topic()) && result.getRecordMetadata() != null) {
+                orderPartitionKeys.recordPartition(result.getRecordMetadata().partition());
+            }
+        });
+    }
+    
+    private Timer[] sendTimers(String topic) {
+        return new Timer[] {sendTimer(topic, "success"), sendTimer(topic, "failure")};
     }
     
-    public void publishOrderCreated(Order order) {
-        sendOrderCreatedEvent(order);
+    private Timer sendTimer(String topic, String outcome) {
+        return Timer.builder("order.kafka.send")
+                .description("Time from send to broker acknowledgement")
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
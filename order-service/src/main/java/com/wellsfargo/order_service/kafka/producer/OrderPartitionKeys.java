@@ -0,0 +1,151 @@
+package com.wellsfargo.order_service.kafka.producer;
+
+import com.wellsfargo.order_service.dto.OrderPartitioningStatsResponse;
+import com.wellsfargo.order_service.dto.OrderPartitioningStatsResponse.KeyCount;
+import com.wellsfargo.order_service.entity.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chooses the message key for order events according to the configured {@link PartitioningStrategy}
+ * and keeps the key-skew statistics it needs to spot hot customers.
+ * <p>
+ * Events are counted per customer over fixed windows. At the end of each window any customer with
+ * at least {@code hot-key-share} of the window's events (and {@code hot-key-min-events}) is hot for
+ * the next window and is keyed as {@code customerId#n}, where the number of sub-keys is sized so each
+ * carries roughly {@code hot-key-share} of the traffic, capped at {@code hot-key-max-spread}. The
+ * sub-key is picked from the order ID, so all events of one order share a key while the spread is
+ * unchanged; a customer becoming hot or cooling down can move its in-flight orders to another
+ * partition once.
+ */
+@Component
+@Slf4j
+public class OrderPartitionKeys {
+
+    private static final int TOP_KEYS = 10;
+
+    private final PartitioningStrategy strategy;
+    private final double hotKeyShare;
+    private final long hotKeyMinEvents;
+    private final int maxSpread;
+    private final int maxTrackedKeys;
+    private volatile Map<String, LongAdder> windowCounts = new ConcurrentHashMap<>();
+    private final LongAdder windowEvents = new LongAdder();
+    private volatile Map<String, Integer> hotCustomers = Map.of();
+    private volatile List<KeyCount> lastWindowTop = List.of();
+    private volatile long lastWindowEvents;
+    private final Map<Integer, LongAdder> partitionCounts = new ConcurrentHashMap<>();
+
+    public OrderPartitionKeys(@Value("${order.kafka.partitioning.strategy:ORDER_ID}") PartitioningStrategy strategy,
+                              @Value("${order.kafka.partitioning.hot-key-share:0.01}") double hotKeyShare,
+                              @Value("${order.kafka.partitioning.hot-key-min-events:100}") long hotKeyMinEvents,
+                              @Value("${order.kafka.partitioning.hot-key-max-spread:32}") int maxSpread,
+                              @Value("${order.kafka.partitioning.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.strategy = strategy;
+        this.hotKeyShare = hotKeyShare;
+        this.hotKeyMinEvents = hotKeyMinEvents;
+        this.maxSpread = maxSpread;
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    public String keyFor(Order order) {
+        String customerId = order.getCustomerId();
+        record(customerId);
+        return switch (strategy) {
+            case ORDER_ID -> order.getId().toString();
+            case CUSTOMER_ID -> customerId;
+            case CUSTOMER_ID_SPREAD_HOT -> {
+                Integer spread = hotCustomers.get(customerId);
+                yield spread == null ? customerId : customerId + "#" + Math.floorMod(order.getId(), spread);
+            }
+        };
+    }
+
+    /** Records the partition a send was acknowledged on, for the per-partition load figures. */
+    public void recordPartition(int partition) {
+        partitionCounts.computeIfAbsent(partition, p -> new LongAdder()).increment();
+    }
+
+    /** Closes the current counting window and recomputes the hot customer set from it. */
+    @Scheduled(fixedDelayString = "${order.kafka.partitioning.hot-key-window:10s}")
+    public void rotateWindow() {
+        Map<String, LongAdder> counts = windowCounts;
+        windowCounts = new ConcurrentHashMap<>();
+        long total = windowEvents.sumThenReset();
+
+        long threshold = Math.max(hotKeyMinEvents, (long) Math.ceil(total * hotKeyShare));
+        Map<String, Integer> hot = new HashMap<>();
+        counts.forEach((customerId, count) -> {
+            long events = count.sum();
+            if (events >= threshold) {
+                int spread = (int) Math.min(maxSpread, Math.max(2, Math.ceil((double) events / threshold)));
+                hot.put(customerId, spread);
+            }
+        });
+        if (!hot.keySet().equals(hotCustomers.keySet())) {
+            log.info("Hot customers for the next window: {}", hot);
+        }
+        hotCustomers = Map.copyOf(hot);
+        lastWindowEvents = total;
+        lastWindowTop = counts.entrySet().stream()
+                .map(entry -> new KeyCount(entry.getKey(), entry.getValue().sum(),
+                        total == 0 ? 0 : (double) entry.getValue().sum() / total))
+                .sorted(Comparator.comparingLong(KeyCount::getCount).reversed())
+                .limit(TOP_KEYS)
+                .toList();
+    }
+
+    public Map<String, Integer> hotCustomers() {
+        return hotCustomers;
+    }
+
+    public OrderPartitioningStatsResponse stats() {
+        Map<Integer, Long> perPartition = new TreeMap<>();
+        partitionCounts.forEach((partition, count) -> perPartition.put(partition, count.sum()));
+        return OrderPartitioningStatsResponse.builder()
+                .strategy(strategy.name())
+                .hotCustomers(hotCustomers)
+                .lastWindowEvents(lastWindowEvents)
+                .lastWindowTopCustomers(lastWindowTop)
+                .partitionCounts(perPartition)
+                .partitionSkew(skew(perPartition.values()))
+                .build();
+    }
+
+    /** Busiest bucket divided by the mean bucket; 0 when there is no data. */
+    public static double skew(Iterable<Long> counts) {
+        long max = 0;
+        long sum = 0;
+        int buckets = 0;
+        for (long count : counts) {
+            max = Math.max(max, count);
+            sum += count;
+            buckets++;
+        }
+        return sum == 0 ? 0 : (double) max * buckets / sum;
+    }
+
+    private void record(String customerId) {
+        windowEvents.increment();
+        Map<String, LongAdder> counts = windowCounts;
+        LongAdder count = counts.get(customerId);
+        if (count == null) {
+            // Past the cap new customers go uncounted; a hot customer shows up well before the cap
+            if (counts.size() >= maxTrackedKeys) {
+                return;
+            }
+            count = counts.computeIfAbsent(customerId, key -> new LongAdder());
+        }
+        count.increment();
+    }
+}
@@ -0,0 +1,152 @@
+package com.wellsfargo.order_service.kafka.producer;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventType;
+import com.wellsfargo.order_service.entity.Order;
+import com.wellsfargo.order_service.kafka.event.OrderEvents;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the latest committed state of each order to the log-compacted {@code order-state}
+ * topic, keyed by orderNumber. Changes are held for at most one {@code flush-interval}; a burst of
+ * updates to the same order within that window is sent as a single record carrying the final state.
+ * Deleted orders (and order numbers that were renamed away) are published as tombstones so
+ * compaction removes them.
+ * <p>
+ * Pending states live in memory only: a crash loses at most one window of state changes, which
+ * the next update or a replay republishes. The {@code orders} topic is unaffected and still
+ * carries every event through the outbox.
+ */
+@Component
+@Slf4j
+public class OrderStatePublisher {
+
+    private final OrderEventProducer orderEventProducer;
+    private final String topic;
+    private final boolean enabled;
+    // Latest unsent state per orderNumber; a newer state simply replaces the older one
+    private final Map<String, PendingState> pending = new ConcurrentHashMap<>();
+    // Last state handed to the producer per orderNumber, so a failed send is only retried if nothing newer went out
+    private final Map<String, PendingState> sending = new ConcurrentHashMap<>();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public OrderStatePublisher(OrderEventProducer orderEventProducer,
+                               @Value("${order.state.topic:order-state}") String topic,
+                               @Value("${order.state.enabled:true}") boolean enabled) {
+        this.orderEventProducer = orderEventProducer;
+        this.topic = topic;
+        this.enabled = enabled;
+    }
+
+    public void publishAfterCommit(Order order, OrderEventType eventType) {
+        publishAfterCommit(List.of(order), eventType);
+    }
+
+    public void publishAfterCommit(List<Order> orders, OrderEventType eventType) {
+        if (!enabled || orders.isEmpty()) {
+            return;
+        }
+        // Snapshot the entities now; they are detached and may change once the transaction ends
+        List<PendingState> states = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            OrderEvent event = OrderEvents.of(order);
+            states.add(new PendingState(order.getOrderNumber(), event, eventType));
+        }
+        afterCommit(() -> states.forEach(this::offer));
+    }
+
+    public void tombstoneAfterCommit(String orderNumber) {
+        if (!enabled || orderNumber == null) {
+            return;
+        }
+        PendingState tombstone = new PendingState(orderNumber, null, null);
+        afterCommit(() -> offer(tombstone));
+    }
+
+    @Scheduled(fixedDelayString = "${order.state.flush-interval:500ms}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        int flushed = 0;
+        for (Map.Entry<String, PendingState> entry : pending.entrySet()) {
+            PendingState state = entry.getValue();
+            // Only remove the exact state read; one that arrived meanwhile stays for the next flush
+            if (pending.remove(entry.getKey(), state)) {
+                send(state);
+                flushed++;
+            }
+        }
+        log.debug("Flushed {} order states to {} ({} of {} changes coalesced so far)",
+                flushed, topic, coalesced.get(), received.get());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void offer(PendingState state) {
+        received.incrementAndGet();
+        if (pending.put(state.orderNumber, state) != null) {
+            coalesced.incrementAndGet();
+        }
+    }
+
+    private void send(PendingState state) {
+        sending.put(state.orderNumber, state);
+        ProducerRecord<String, Object> record = state.event == null
+                ? new ProducerRecord<>(topic, state.orderNumber, null)
+                : OrderEventProducer.record(topic, state.orderNumber, state.event, state.eventType,
+                        state.event.getEventId());
+        orderEventProducer.send(record).whenComplete((result, failure) -> {
+            boolean latest = sending.remove(state.orderNumber, state);
+            if (failure != null && latest) {
+                // Nothing newer has been sent for this order; retry unless a newer state is already queued
+                log.warn("Failed to publish state for order {}, retrying on next flush: {}",
+                        state.orderNumber, failure.toString());
+                pending.putIfAbsent(state.orderNumber, state);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Compared by identity so a retry never displaces a newer state for the same order
+    private static final class PendingState {
+        private final String orderNumber;
+        private final OrderEvent event;
+        private final OrderEventType eventType;
+
+        private PendingState(String orderNumber, OrderEvent event, OrderEventType eventType) {
+            this.orderNumber = orderNumber;
+            this.event = event;
+            this.eventType = eventType;
+        }
+    }
+}
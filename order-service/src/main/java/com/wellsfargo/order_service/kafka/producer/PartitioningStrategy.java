@@ -0,0 +1,17 @@
+package com.wellsfargo.order_service.kafka.producer;
+
+/**
+ * How order events on the {@code orders} topic are keyed, and so partitioned.
+ */
+public enum PartitioningStrategy {
+    /** Key by order ID: even spread, ordering only per order. */
+    ORDER_ID,
+    /** Key by customer ID: ordering per customer, but one busy customer loads a single partition. */
+    CUSTOMER_ID,
+    /**
+     * Key by customer ID, except that customers detected as hot are split across sub-keys
+     * ({@code customerId#n}, chosen by order ID). Ordering holds per customer for normal customers
+     * and per order for hot ones.
+     */
+    CUSTOMER_ID_SPREAD_HOT
+}
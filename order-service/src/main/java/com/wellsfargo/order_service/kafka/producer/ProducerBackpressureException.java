@@ -0,0 +1,11 @@
+package com.wellsfargo.order_service.kafka.producer;
+
+/**
+ * Raised when the producer already has the maximum number of unacknowledged sends in flight.
+ */
+public class ProducerBackpressureException extends RuntimeException {
+
+    public ProducerBackpressureException(int maxInFlight) {
+        super("Order event producer has " + maxInFlight + " sends in flight");
+    }
+}
@@ -0,0 +1,67 @@
+package com.wellsfargo.order_service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each serialization takes and how many bytes it produces. The meters are
+ * registered once up front, so the per-record cost is two clock reads and two recordings.
+ */
+public class TimedSerializer<T> implements Serializer<T> {
+
+    private final Serializer<T> delegate;
+    private final Timer timer;
+    private final DistributionSummary size;
+
+    public TimedSerializer(Serializer<T> delegate, MeterRegistry registry, String name, String format) {
+        this.delegate = delegate;
+        this.timer = Timer.builder(name)
+                .description("Time to serialize one record")
+                .tag("format", format)
+                .register(registry);
+        this.size = DistributionSummary.builder(name + ".bytes")
+                .description("Serialized record size")
+                .baseUnit("bytes")
+                .tag("format", format)
+                .register(registry);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        long start = System.nanoTime();
+        byte[] bytes = delegate.serialize(topic, data);
+        record(start, bytes);
+        return bytes;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        long start = System.nanoTime();
+        byte[] bytes = delegate.serialize(topic, headers, data);
+        record(start, bytes);
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private void record(long start, byte[] bytes) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (bytes != null) {
+            size.record(bytes.length);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.wellsfargo.order_service.repository;
+
+import com.wellsfargo.order_service.entity.OrderOutboxRelayLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OrderOutboxRelayLeaseRepository extends JpaRepository<OrderOutboxRelayLease, String> {
+
+    // Takes over a lease that has expired, or renews the caller's own
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxRelayLease l SET l.owner = :owner, l.leaseExpiresAt = :leaseExpiresAt"
+            + " WHERE l.name = :name AND (l.owner = :owner OR l.leaseExpiresAt IS NULL OR l.leaseExpiresAt < :now)")
+    int claim(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    // Lets another instance take over straight away
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxRelayLease l SET l.leaseExpiresAt = NULL WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
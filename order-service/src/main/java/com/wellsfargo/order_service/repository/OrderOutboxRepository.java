@@ -0,0 +1,59 @@
+package com.wellsfargo.order_service.repository;
+
+import com.wellsfargo.order_service.entity.OrderOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    // Unsent, not parked, and past any retry backoff; backed by ix_order_outbox_sent_at
+    @Query("SELECT e FROM OrderOutboxEvent e WHERE e.sentAt IS NULL AND e.failedAt IS NULL"
+            + " AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) ORDER BY e.id")
+    List<OrderOutboxEvent> findDue(@Param("now") LocalDateTime now, Limit limit);
+
+    // Keys whose next row is waiting out a retry backoff; later rows for them must wait too
+    @Query("SELECT DISTINCT e.messageKey FROM OrderOutboxEvent e WHERE e.sentAt IS NULL AND e.failedAt IS NULL"
+            + " AND e.nextAttemptAt > :now")
+    List<String> findKeysBackingOff(@Param("now") LocalDateTime now);
+
+    long countBySentAtIsNull();
+
+    // Backed by ix_order_outbox_key_unsent
+    @Query("SELECT COUNT(e) > 0 FROM OrderOutboxEvent e WHERE e.messageKey = :key AND e.sentAt IS NULL"
+            + " AND e.failedAt IS NULL AND e.id < :id")
+    boolean existsUnsentBefore(@Param("key") String messageKey, @Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxEvent e SET e.sentAt = :sentAt, e.attempts = e.attempts + 1, e.lastError = null WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error,"
+            + " e.nextAttemptAt = :nextAttemptAt WHERE e.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("error") String error,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, e.failedAt = :failedAt"
+            + " WHERE e.id IN :ids")
+    int markParked(@Param("ids") Collection<Long> ids, @Param("error") String error,
+                   @Param("failedAt") LocalDateTime failedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderOutboxEvent e WHERE e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,56 @@
+package com.wellsfargo.order_service.repository;
+
+import com.wellsfargo.order_service.entity.OrderReplayJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Replay job state changes are conditional updates on the job's owner, so an instance that has
+ * lost its lease cannot overwrite the progress of the instance that took the job over.
+ */
+@Repository
+public interface OrderReplayJobRepository extends JpaRepository<OrderReplayJob, String> {
+
+    List<OrderReplayJob> findByStatus(OrderReplayJob.JobStatus status);
+
+    Optional<OrderReplayJob> findFirstByStatusOrderByStartedAtDesc(OrderReplayJob.JobStatus status);
+
+    // Takes over a RUNNING job whose lease has expired, or renews the caller's own
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderReplayJob j SET j.owner = :owner, j.leaseExpiresAt = :leaseExpiresAt, j.updatedAt = :now"
+            + " WHERE j.jobId = :jobId AND j.status = :running"
+            + " AND (j.owner = :owner OR j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now)")
+    int claim(@Param("jobId") String jobId, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+              @Param("running") OrderReplayJob.JobStatus running);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderReplayJob j SET j.lastOrderId = :lastOrderId, j.sentCount = :sentCount,"
+            + " j.failedCount = :failedCount, j.lastError = :lastError, j.leaseExpiresAt = :leaseExpiresAt,"
+            + " j.updatedAt = :now WHERE j.jobId = :jobId AND j.owner = :owner AND j.status = :running")
+    int checkpoint(@Param("jobId") String jobId, @Param("owner") String owner, @Param("lastOrderId") Long lastOrderId,
+                   @Param("sentCount") long sentCount, @Param("failedCount") long failedCount,
+                   @Param("lastError") String lastError, @Param("now") LocalDateTime now,
+                   @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+                   @Param("running") OrderReplayJob.JobStatus running);
+
+    // Ends the job and frees the running slot for the next one
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderReplayJob j SET j.status = :status, j.lastError = COALESCE(:lastError, j.lastError),"
+            + " j.completedAt = :now, j.updatedAt = :now, j.leaseExpiresAt = NULL, j.activeKey = j.jobId"
+            + " WHERE j.jobId = :jobId AND j.owner = :owner AND j.status = :running")
+    int finish(@Param("jobId") String jobId, @Param("owner") String owner, @Param("status") OrderReplayJob.JobStatus status,
+               @Param("lastError") String lastError, @Param("now") LocalDateTime now,
+               @Param("running") OrderReplayJob.JobStatus running);
+}
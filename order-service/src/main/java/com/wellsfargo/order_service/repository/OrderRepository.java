@@ -1,28 +1,61 @@
 package com.wellsfargo.order_service.repository;
 
+import com.wellsfargo.order_service.dto.OrderSummary;
 import com.wellsfargo.order_service.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Optional<Order> findByOrderNumber(String orderNumber);
     
-    List<Order> findByCustomerId(String customerId);
+    // Read path: OrderSummary projections are built from the result set without managed entities
+    Optional<OrderSummary> findSummaryById(Long id);
     
-    List<Order> findByStatus(Order.OrderStatus status);
+    Optional<OrderSummary> findSummaryByOrderNumber(String orderNumber);
     
-    List<Order> findByCustomerIdAndStatus(String customerId, Order.OrderStatus status);
+    // Keyset-paged finders: each page seeks on (createdAt, id) so its cost does not grow with depth.
+    // The result type is chosen by the caller, normally OrderSummary.
+    <T> Window<T> findAllByOrderByCreatedAtDescIdDesc(ScrollPosition position, Limit limit, Class<T> type);
     
-    @Query("SELECT o FROM Order o WHERE o.customerId = :customerId AND o.status = :status ORDER BY o.createdAt DESC")
-    List<Order> findByCustomerIdAndStatusOrderByCreatedAtDesc(@Param("customerId") String customerId, 
-                                                             @Param("status") Order.OrderStatus status);
+    <T> Window<T> findByCustomerIdOrderByCreatedAtDescIdDesc(String customerId, ScrollPosition position, Limit limit,
+                                                             Class<T> type);
     
-    boolean existsByOrderNumber(String orderNumber);
+    <T> Window<T> findByStatusOrderByCreatedAtDescIdDesc(Order.OrderStatus status, ScrollPosition position, Limit limit,
+                                                         Class<T> type);
+    
+    <T> Window<T> findByCustomerIdAndStatusOrderByCreatedAtDescIdDesc(String customerId, Order.OrderStatus status,
+                                                                     ScrollPosition position, Limit limit,
+                                                                     Class<T> type);
+    
+    @Query("SELECT o.orderNumber FROM Order o WHERE o.orderNumber IN :orderNumbers")
+    List<String> findExistingOrderNumbers(@Param("orderNumbers") Collection<String> orderNumbers);
+    
+    List<Order> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.wellsfargo.order_service.dto.OrderSummary(o.id, o.orderNumber, o.customerId, "
+            + "o.totalAmount, o.status, o.createdAt, o.updatedAt) FROM Order o WHERE (:status IS NULL OR o.status = :status) "
+            + "AND (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) ORDER BY o.id")
+    Stream<OrderSummary> streamForExport(@Param("status") Order.OrderStatus status,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,121 @@
+package com.wellsfargo.order_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.wellsfargo.order_service.dto.OrderCacheStatsResponse;
+import com.wellsfargo.order_service.dto.OrderResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of orders, indexed by ID with a secondary orderNumber to ID index.
+ * Concurrent misses on the same key share a single load. Writes are applied only after the
+ * surrounding transaction commits so readers never see uncommitted state.
+ */
+@Component
+public class OrderCache {
+
+    private final Cache<Long, OrderResponse> ordersById;
+    private final Cache<String, Long> idsByOrderNumber;
+
+    public OrderCache(@Value("${order.cache.max-size:10000}") long maxSize,
+                      @Value("${order.cache.ttl:30s}") Duration ttl) {
+        this.ordersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idsByOrderNumber = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<OrderResponse> getById(Long id, Function<Long, Optional<OrderResponse>> loader) {
+        return Optional.ofNullable(ordersById.get(id, key -> loader.apply(key)
+                .map(order -> {
+                    idsByOrderNumber.put(order.getOrderNumber(), order.getId());
+                    return order;
+                })
+                .orElse(null)));
+    }
+
+    public Optional<OrderResponse> getByOrderNumber(String orderNumber, Function<String, Optional<OrderResponse>> loader) {
+        Long cachedId = idsByOrderNumber.getIfPresent(orderNumber);
+        if (cachedId != null) {
+            OrderResponse order = ordersById.getIfPresent(cachedId);
+            if (order != null && orderNumber.equals(order.getOrderNumber())) {
+                return Optional.of(order);
+            }
+            idsByOrderNumber.invalidate(orderNumber);
+        }
+        Long id = idsByOrderNumber.get(orderNumber, key -> loader.apply(key)
+                .map(order -> {
+                    // putIfAbsent: never replace a fresher entry written by a commit during this load
+                    ordersById.asMap().putIfAbsent(order.getId(), order);
+                    return order.getId();
+                })
+                .orElse(null));
+        return id == null ? Optional.empty() : Optional.ofNullable(ordersById.getIfPresent(id));
+    }
+
+    public void putAfterCommit(OrderResponse order, String previousOrderNumber) {
+        afterCommit(() -> {
+            if (previousOrderNumber != null && !previousOrderNumber.equals(order.getOrderNumber())) {
+                idsByOrderNumber.invalidate(previousOrderNumber);
+            }
+            ordersById.put(order.getId(), order);
+            idsByOrderNumber.put(order.getOrderNumber(), order.getId());
+        });
+    }
+
+    public void evictAfterCommit(Long id) {
+        afterCommit(() -> {
+            OrderResponse cached = ordersById.getIfPresent(id);
+            ordersById.invalidate(id);
+            if (cached != null) {
+                idsByOrderNumber.invalidate(cached.getOrderNumber());
+            }
+        });
+    }
+
+    public OrderCacheStatsResponse stats() {
+        CacheStats byId = ordersById.stats();
+        CacheStats byOrderNumber = idsByOrderNumber.stats();
+        long hits = byId.hitCount() + byOrderNumber.hitCount();
+        long misses = byId.missCount() + byOrderNumber.missCount();
+        return OrderCacheStatsResponse.builder()
+                .size(ordersById.estimatedSize())
+                .hitCount(hits)
+                .missCount(misses)
+                .hitRate(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                .loadCount(byId.loadCount() + byOrderNumber.loadCount())
+                .evictionCount(byId.evictionCount() + byOrderNumber.evictionCount())
+                .byIdHitCount(byId.hitCount())
+                .byIdMissCount(byId.missCount())
+                .byOrderNumberHitCount(byOrderNumber.hitCount())
+                .byOrderNumberMissCount(byOrderNumber.missCount())
+                .build();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.wellsfargo.order_service.service;
+
+import com.wellsfargo.order_service.dto.OrderResponse;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The order was committed but its event was not acknowledged by Kafka within the requested
+ * delivery mode. The event is still in the outbox and the relay keeps retrying it.
+ */
+public class OrderEventDeliveryException extends RuntimeException {
+
+    private final OrderResponse order;
+
+    public OrderEventDeliveryException(OrderResponse order, Throwable cause) {
+        super(cause instanceof TimeoutException
+                ? "event not acknowledged in time"
+                : "event send failed: " + cause.getMessage(), cause);
+        this.order = order;
+    }
+
+    public OrderResponse getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,66 @@
+package com.wellsfargo.order_service.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wellsfargo.order_service.dto.OrderResponse;
+import com.wellsfargo.order_service.dto.OrderSummary;
+import com.wellsfargo.order_service.entity.Order;
+import com.wellsfargo.order_service.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders as newline-delimited JSON. Rows come from a forward-only cursor as unmanaged
+ * projections, so memory use does not depend on the number of orders exported.
+ */
+@Service
+@SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+public class OrderExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExportService.class);
+    private static final int FLUSH_EVERY = 500;
+
+    private final OrderRepository orderRepository;
+    private final ObjectWriter lineWriter;
+
+    public OrderExportService(OrderRepository orderRepository, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.lineWriter = objectMapper.writerFor(OrderResponse.class)
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+    }
+
+    @Transactional(readOnly = true)
+    public long exportOrders(Order.OrderStatus status, LocalDateTime from, LocalDateTime to, OutputStream out)
+            throws IOException {
+        log.info("Exporting orders with status: {}, from: {}, to: {}", status, from, to);
+        long count = 0;
+        try (Stream<OrderSummary> orders = orderRepository.streamForExport(status, from, to);
+             JsonGenerator generator = lineWriter.createGenerator(out)) {
+            Iterator<OrderSummary> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                lineWriter.writeValue(generator, iterator.next().toResponse());
+                // Flush the first row straight away so clients see data before the scan finishes
+                if (++count == 1 || count % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        log.info("Exported {} orders", count);
+        return count;
+    }
+}
@@ -0,0 +1,305 @@
+package com.wellsfargo.order_service.service;
+
+import com.wellsfargo.order_service.dto.OrderReplayJobResponse;
+import com.wellsfargo.order_service.entity.Order;
+import com.wellsfargo.order_service.entity.OrderReplayJob;
+import com.wellsfargo.order_service.kafka.producer.OrderEventProducer;
+import com.wellsfargo.order_service.repository.OrderReplayJobRepository;
+import com.wellsfargo.order_service.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Replays every order to the orders topic as a background job. Orders are read in keyset-paged
+ * chunks by ID, sends are pipelined with a bounded in-flight window and the job row is
+ * checkpointed after each fully acknowledged chunk, so a restarted job resumes where it left off.
+ * A chunk's failed sends are retried with backoff before the checkpoint; if some still fail after
+ * {@code max-attempts}, the job is checkpointed before the first of them and ends FAILED.
+ * <p>
+ * Only one job runs at a time, across all instances: the job row holds the running slot (see
+ * {@link OrderReplayJob#RUNNING_KEY}) and a lease owned by the instance running it, renewed at
+ * each checkpoint. Any instance may take over a job whose lease has expired.
+ */
+@Service
+@SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+public class OrderReplayService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderReplayService.class);
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(30);
+    private final OrderRepository orderRepository;
+    private final OrderReplayJobRepository replayJobRepository;
+    private final OrderEventProducer orderEventProducer;
+    private final TaskExecutor replayExecutor;
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration lease;
+    private final String instanceId;
+    // Jobs this instance is running, so the lease check does not start them twice
+    private final Set<String> runningHere = ConcurrentHashMap.newKeySet();
+
+    public OrderReplayService(OrderRepository orderRepository,
+                              OrderReplayJobRepository replayJobRepository,
+                              OrderEventProducer orderEventProducer,
+                              @Qualifier("orderReplayExecutor") TaskExecutor replayExecutor,
+                              ServiceInstance serviceInstance,
+                              @Value("${order.replay.chunk-size:1000}") int chunkSize,
+                              @Value("${order.replay.max-in-flight:500}") int maxInFlight,
+                              @Value("${order.replay.max-attempts:10}") int maxAttempts,
+                              @Value("${order.replay.retry-backoff:1s}") Duration retryBackoff,
+                              @Value("${order.replay.lease:2m}") Duration lease) {
+        this.orderRepository = orderRepository;
+        this.replayJobRepository = replayJobRepository;
+        this.orderEventProducer = orderEventProducer;
+        this.replayExecutor = replayExecutor;
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.lease = lease;
+        this.instanceId = serviceInstance.id();
+    }
+
+    public OrderReplayJobResponse startReplay() {
+        OrderReplayJob job = new OrderReplayJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setStatus(OrderReplayJob.JobStatus.RUNNING);
+        job.setActiveKey(OrderReplayJob.RUNNING_KEY);
+        job.setOwner(instanceId);
+        job.setLeaseExpiresAt(LocalDateTime.now().plus(lease));
+        job.setLastOrderId(0L);
+        job.setTotalOrders(orderRepository.count());
+        OrderReplayJob savedJob;
+        try {
+            savedJob = replayJobRepository.saveAndFlush(job);
+        } catch (DataIntegrityViolationException e) {
+            // Another request, here or on another instance, holds the running slot
+            OrderReplayJob running = replayJobRepository
+                    .findFirstByStatusOrderByStartedAtDesc(OrderReplayJob.JobStatus.RUNNING)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                            "A replay job is just finishing, retry shortly"));
+            log.info("Order replay job {} is already running", running.getJobId());
+            return toResponse(running, "Replay job already running");
+        }
+        log.info("Starting order replay job {} for {} orders", savedJob.getJobId(), savedJob.getTotalOrders());
+
+        if (!launch(savedJob)) {
+            return toResponse(replayJobRepository.findById(savedJob.getJobId()).orElse(savedJob),
+                    "Replay job rejected: too many replay jobs running on this instance");
+        }
+        return toResponse(savedJob, "Replay job started");
+    }
+
+    public Optional<OrderReplayJobResponse> getJob(String jobId) {
+        return replayJobRepository.findById(jobId)
+                .map(job -> toResponse(job, null));
+    }
+
+    // Runs shortly after startup and then periodically: resumes jobs whose instance stopped or died
+    @Scheduled(fixedDelayString = "${order.replay.lease-check-interval:30s}")
+    public void resumeInterruptedJobs() {
+        for (OrderReplayJob job : replayJobRepository.findByStatus(OrderReplayJob.JobStatus.RUNNING)) {
+            if (runningHere.contains(job.getJobId())) {
+                continue;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (replayJobRepository.claim(job.getJobId(), instanceId, now, now.plus(lease),
+                    OrderReplayJob.JobStatus.RUNNING) == 0) {
+                continue;
+            }
+            OrderReplayJob claimed = replayJobRepository.findById(job.getJobId()).orElse(null);
+            if (claimed != null) {
+                log.info("Resuming order replay job {} after order ID {}", claimed.getJobId(), claimed.getLastOrderId());
+                launch(claimed);
+            }
+        }
+    }
+
+    // A job the executor rejects would otherwise stay RUNNING with nothing running it
+    private boolean launch(OrderReplayJob job) {
+        runningHere.add(job.getJobId());
+        try {
+            replayExecutor.execute(() -> runJob(job));
+            return true;
+        } catch (TaskRejectedException e) {
+            runningHere.remove(job.getJobId());
+            log.error("Order replay job {} rejected by the replay executor", job.getJobId(), e);
+            replayJobRepository.finish(job.getJobId(), instanceId, OrderReplayJob.JobStatus.FAILED,
+                    truncate("Rejected by the replay executor: " + e.getMessage()), LocalDateTime.now(),
+                    OrderReplayJob.JobStatus.RUNNING);
+            return false;
+        }
+    }
+
+    private void runJob(OrderReplayJob job) {
+        Semaphore window = new Semaphore(maxInFlight);
+        try {
+            List<Order> chunk;
+            do {
+                chunk = orderRepository.findByIdGreaterThanOrderByIdAsc(job.getLastOrderId(), Limit.of(chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                List<Order> unsent = chunk;
+                for (int attempt = 1; ; attempt++) {
+                    unsent = sendChunk(job, unsent, window);
+                    if (unsent.isEmpty()) {
+                        break;
+                    }
+                    if (attempt >= maxAttempts) {
+                        failAt(job, chunk, unsent);
+                        return;
+                    }
+                    log.warn("Order replay job {}: {} orders not acknowledged, retrying in {}",
+                            job.getJobId(), unsent.size(), backoff(attempt));
+                    Thread.sleep(backoff(attempt));
+                    // Renews the lease without moving past the unacknowledged orders
+                    if (!checkpoint(job)) {
+                        return;
+                    }
+                }
+                job.setLastOrderId(chunk.get(chunk.size() - 1).getId());
+                if (!checkpoint(job)) {
+                    return;
+                }
+            } while (chunk.size() == chunkSize);
+
+            replayJobRepository.finish(job.getJobId(), instanceId, OrderReplayJob.JobStatus.COMPLETED, null,
+                    LocalDateTime.now(), OrderReplayJob.JobStatus.RUNNING);
+            log.info("Order replay job {} completed: {} sent, {} failed",
+                    job.getJobId(), job.getSentCount(), job.getFailedCount());
+        } catch (InterruptedException e) {
+            // The lease runs out and another instance, or this one after a restart, resumes the job
+            Thread.currentThread().interrupt();
+            log.warn("Order replay job {} interrupted after order ID {}", job.getJobId(), job.getLastOrderId());
+        } catch (Exception e) {
+            log.error("Order replay job {} failed after order ID {}", job.getJobId(), job.getLastOrderId(), e);
+            replayJobRepository.finish(job.getJobId(), instanceId, OrderReplayJob.JobStatus.FAILED,
+                    truncate(String.valueOf(e.getMessage())), LocalDateTime.now(), OrderReplayJob.JobStatus.RUNNING);
+        } finally {
+            runningHere.remove(job.getJobId());
+        }
+    }
+
+    private boolean checkpoint(OrderReplayJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        if (replayJobRepository.checkpoint(job.getJobId(), instanceId, job.getLastOrderId(), job.getSentCount(),
+                job.getFailedCount(), job.getLastError(), now, now.plus(lease),
+                OrderReplayJob.JobStatus.RUNNING) == 0) {
+            log.warn("Order replay job {} lost its lease after order ID {}; another instance has it",
+                    job.getJobId(), job.getLastOrderId());
+            return false;
+        }
+        return true;
+    }
+
+    // Ends the job with its checkpoint just before the first order that was never acknowledged
+    private void failAt(OrderReplayJob job, List<Order> chunk, List<Order> unsent) {
+        Long firstUnsent = unsent.stream().map(Order::getId).min(Long::compare).orElseThrow();
+        chunk.stream().map(Order::getId).filter(id -> id < firstUnsent).max(Long::compare)
+                .ifPresent(job::setLastOrderId);
+        job.setFailedCount(job.getFailedCount() + unsent.size());
+        if (!checkpoint(job)) {
+            return;
+        }
+        String error = unsent.size() + " orders not acknowledged after " + maxAttempts + " attempts; last error "
+                + job.getLastError();
+        replayJobRepository.finish(job.getJobId(), instanceId, OrderReplayJob.JobStatus.FAILED, truncate(error),
+                LocalDateTime.now(), OrderReplayJob.JobStatus.RUNNING);
+        log.error("Order replay job {} failed after order ID {}: {}", job.getJobId(), job.getLastOrderId(), error);
+    }
+
+    // retry-backoff doubled for each attempt after the first, up to 30s
+    private Duration backoff(int attempt) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempt - 1, 30));
+        return backoff.compareTo(MAX_RETRY_BACKOFF) > 0 ? MAX_RETRY_BACKOFF : backoff;
+    }
+
+    // Returns the orders whose send failed, in chunk order
+    private List<Order> sendChunk(OrderReplayJob job, List<Order> chunk, Semaphore window) throws InterruptedException {
+        AtomicLong sent = new AtomicLong();
+        List<Order> failed = new CopyOnWriteArrayList<>();
+        AtomicReference<String> lastError = new AtomicReference<>();
+        List<CompletableFuture<?>> pending = new ArrayList<>(chunk.size());
+
+        for (Order order : chunk) {
+            window.acquire();
+            CompletableFuture<?> future;
+            try {
+                future = orderEventProducer.resendOrderCreated(order);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            pending.add(future.handle((result, failure) -> {
+                window.release();
+                if (failure == null) {
+                    sent.incrementAndGet();
+                } else {
+                    failed.add(order);
+                    lastError.set(order.getOrderNumber() + ": " + failure.getMessage());
+                }
+                return null;
+            }));
+        }
+
+        // Checkpoint only once every record in the chunk has an outcome
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        job.setSentCount(job.getSentCount() + sent.get());
+        if (lastError.get() != null) {
+            job.setLastError(truncate(lastError.get()));
+        }
+        List<Order> unsent = new ArrayList<>(failed);
+        unsent.sort(Comparator.comparing(Order::getId));
+        return unsent;
+    }
+
+    private OrderReplayJobResponse toResponse(OrderReplayJob job, String message) {
+        LocalDateTime end = job.getCompletedAt() != null ? job.getCompletedAt() : LocalDateTime.now();
+        double elapsedSeconds = Duration.between(job.getStartedAt(), end).toMillis() / 1000.0;
+        return OrderReplayJobResponse.builder()
+                .jobId(job.getJobId())
+                .status(job.getStatus().toString())
+                .totalOrders(job.getTotalOrders())
+                .sentCount(job.getSentCount())
+                .failedCount(job.getFailedCount())
+                .lastOrderId(job.getLastOrderId())
+                .elapsedSeconds(elapsedSeconds)
+                .ordersPerSecond(elapsedSeconds > 0 ? job.getSentCount() / elapsedSeconds : 0)
+                .startedAt(job.getStartedAt())
+                .updatedAt(job.getUpdatedAt())
+                .completedAt(job.getCompletedAt())
+                .lastError(job.getLastError())
+                .message(message)
+                .build();
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > 1000 ? value.substring(0, 1000) : value;
+    }
+}
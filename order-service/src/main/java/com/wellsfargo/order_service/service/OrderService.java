@@ -1,112 +1,341 @@
 package com.wellsfargo.order_service.service;
 
-import com.wellsfargo.order_service.dto.BulkOrderSendResponse;
-import com.wellsfargo.order_service.dto.BulkOrderSendResponse.OrderErrorInfo;
+import com.wellsfargo.order_event_contract.OrderEventType;
+import com.wellsfargo.order_service.dto.BatchOrderResponse;
+import com.wellsfargo.order_service.dto.BatchOrderResponse.BatchOrderItemResult;
+import com.wellsfargo.order_service.dto.OrderCacheStatsResponse;
+import com.wellsfargo.order_service.dto.OrderPageResponse;
+import com.wellsfargo.order_service.dto.OrderPartitioningStatsResponse;
 import com.wellsfargo.order_service.dto.OrderRequest;
 import com.wellsfargo.order_service.dto.OrderResponse;
+import com.wellsfargo.order_service.dto.OrderSummary;
 import com.wellsfargo.order_service.entity.Order;
-import com.wellsfargo.order_service.kafka.event.OrderEventType;
+import com.wellsfargo.order_service.entity.OrderOutboxEvent;
+import com.wellsfargo.order_service.kafka.outbox.OrderOutboxRelay;
+import com.wellsfargo.order_service.kafka.outbox.OrderOutboxWriter;
+import com.wellsfargo.order_service.kafka.producer.DeliveryMode;
 import com.wellsfargo.order_service.kafka.producer.OrderEventProducer;
+import com.wellsfargo.order_service.kafka.producer.OrderPartitionKeys;
+import com.wellsfargo.order_service.kafka.producer.OrderStatePublisher;
 import com.wellsfargo.order_service.mapper.OrderMapper;
 import com.wellsfargo.order_service.repository.OrderRepository;
+import com.wellsfargo.service_support.SnowflakeIdGenerator;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Service
 //@RequiredArgsConstructor
 @Transactional
+@Timed("order.service")
 @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
 public class OrderService {
     
     private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+    // A generated number is only taken if a client supplied it or two instances share a node ID
+    private static final int ORDER_NUMBER_ATTEMPTS = 3;
     private final OrderRepository orderRepository;
+    private final OrderOutboxWriter orderOutboxWriter;
+    private final OrderOutboxRelay orderOutboxRelay;
     private final OrderEventProducer orderEventProducer;
+    private final OrderStatePublisher orderStatePublisher;
     private final OrderMapper orderMapper;
+    private final Validator validator;
+    private final SnowflakeIdGenerator idGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderCache orderCache;
+    private final OrderPartitionKeys orderPartitionKeys;
+    private final int maxPageSize;
+    private final int maxBatchSize;
     
-    public OrderService(OrderRepository orderRepository, OrderEventProducer orderEventProducer, OrderMapper orderMapper) {
+    public OrderService(OrderRepository orderRepository, OrderOutboxWriter orderOutboxWriter,
+                        OrderOutboxRelay orderOutboxRelay, OrderEventProducer orderEventProducer,
+                        OrderStatePublisher orderStatePublisher, OrderMapper orderMapper,
+                        Validator validator, SnowflakeIdGenerator idGenerator,
+                        PlatformTransactionManager transactionManager, OrderCache orderCache,
+                        OrderPartitionKeys orderPartitionKeys,
+                        @Value("${order.pagination.max-page-size:500}") int maxPageSize,
+                        @Value("${order.batch.max-size:1000}") int maxBatchSize) {
         this.orderRepository = orderRepository;
+        this.orderOutboxWriter = orderOutboxWriter;
+        this.orderOutboxRelay = orderOutboxRelay;
         this.orderEventProducer = orderEventProducer;
+        this.orderStatePublisher = orderStatePublisher;
         this.orderMapper = orderMapper;
+        this.validator = validator;
+        this.idGenerator = idGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderCache = orderCache;
+        this.orderPartitionKeys = orderPartitionKeys;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
     }
-    public OrderResponse createOrder(OrderRequest orderRequest) {
+    /**
+     * Creates an order and completes once its event has been delivered as far as {@code deliveryMode}
+     * requires. In the acknowledged modes a producer slot is reserved before any database work, so
+     * an overloaded producer rejects the request with 503 instead of queueing it. If the event is
+     * not acknowledged in time the future fails with {@link OrderEventDeliveryException}; the order
+     * is committed either way and the outbox relay keeps retrying the event.
+     * <p>
+     * A client-supplied order number that is already taken is rejected with 409. A generated one is
+     * replaced and the insert retried, in a new transaction since a failed insert rolls back its own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<OrderResponse> createOrder(OrderRequest orderRequest, DeliveryMode deliveryMode,
+                                                        Duration ackTimeout) {
         log.info("Creating new order for customer: {}", orderRequest.getCustomerId());
         
-        Order order = orderMapper.toEntityFromRequest(orderRequest);
+        boolean awaitAck = deliveryMode != DeliveryMode.FIRE_AND_FORGET;
+        if (awaitAck && !orderEventProducer.tryReserve()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Order event producer is at capacity, retry later");
+        }
+        // Set once the relay owns the reservation, which it releases itself if the transaction rolls back
+        AtomicBoolean dispatched = new AtomicBoolean();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                Order order = orderMapper.toEntityFromRequest(orderRequest);
+                boolean generatedNumber = order.getOrderNumber() == null || order.getOrderNumber().isEmpty();
+                if (generatedNumber) {
+                    order.setOrderNumber(generateOrderNumber());
+                }
+                
+                if (order.getStatus() == null) {
+                    order.setStatus(Order.OrderStatus.PENDING);
+                }
+                
+                // The unique constraint on order_number is the only duplicate check
+                try {
+                    return transactionTemplate.execute(status -> insertOrder(order, deliveryMode, ackTimeout, dispatched));
+                } catch (DataIntegrityViolationException e) {
+                    if (!isOrderNumberConflict(e)) {
+                        throw e;
+                    }
+                    if (!generatedNumber) {
+                        throw new ResponseStatusException(HttpStatus.CONFLICT,
+                                "Order with number " + order.getOrderNumber() + " already exists");
+                    }
+                    if (attempt >= ORDER_NUMBER_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.warn("Generated order number {} is already taken, generating another", order.getOrderNumber());
+                }
+            }
+        } finally {
+            if (awaitAck && !dispatched.get()) {
+                orderEventProducer.releaseReservation();
+            }
+        }
+    }
+    
+    private CompletableFuture<OrderResponse> insertOrder(Order order, DeliveryMode deliveryMode, Duration ackTimeout,
+                                                         AtomicBoolean dispatched) {
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        log.info("Order created successfully with ID: {}", savedOrder.getId());
+        
+        // Queue order created event; the outbox relay publishes it once this transaction commits
+        OrderOutboxEvent outboxEvent = orderOutboxWriter.enqueue(savedOrder, OrderEventType.ORDER_CREATED);
+        orderStatePublisher.publishAfterCommit(savedOrder, OrderEventType.ORDER_CREATED);
+        orderCache.putAfterCommit(orderMapper.toResponse(savedOrder), null);
         
-        if (orderRepository.existsByOrderNumber(order.getOrderNumber())) {
-            throw new IllegalArgumentException("Order with number " + order.getOrderNumber() + " already exists");
+        OrderResponse response = orderMapper.toResponse(savedOrder, "Order created successfully");
+        if (deliveryMode == DeliveryMode.FIRE_AND_FORGET) {
+            return CompletableFuture.completedFuture(response);
         }
         
-        if (order.getOrderNumber() == null || order.getOrderNumber().isEmpty()) {
-            order.setOrderNumber(generateOrderNumber());
+        CompletableFuture<?> acknowledgement = orderOutboxRelay.dispatchAfterCommit(outboxEvent);
+        dispatched.set(true);
+        if (deliveryMode == DeliveryMode.AWAIT_ACK_WITH_TIMEOUT) {
+            acknowledgement = acknowledgement.orTimeout(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return acknowledgement.handle((result, failure) -> {
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                log.warn("Event for order {} not acknowledged: {}", response.getOrderNumber(), cause.toString());
+                throw new OrderEventDeliveryException(response, cause);
+            }
+            return response;
+        });
+    }
+    
+    // Only a duplicate order number is the client's conflict; other violations stay server errors
+    private static boolean isOrderNumberConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Order.ORDER_NUMBER_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+    
+    public BatchOrderResponse createOrders(List<OrderRequest> orderRequests) {
+        log.info("Creating batch of {} orders", orderRequests.size());
+        if (orderRequests.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch size " + orderRequests.size() + " exceeds the maximum of " + maxBatchSize);
+        }
+        
+        BatchOrderItemResult[] results = new BatchOrderItemResult[orderRequests.size()];
+        List<Order> orders = new ArrayList<>(orderRequests.size());
+        List<Integer> orderIndexes = new ArrayList<>(orderRequests.size());
+        Set<String> batchOrderNumbers = new HashSet<>();
+        Set<String> suppliedOrderNumbers = new HashSet<>();
+        
+        for (int i = 0; i < orderRequests.size(); i++) {
+            OrderRequest orderRequest = orderRequests.get(i);
+            String error = validate(orderRequest);
+            Order order = null;
+            if (error == null) {
+                try {
+                    order = orderMapper.toEntityFromRequest(orderRequest);
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (order != null) {
+                if (order.getOrderNumber() == null || order.getOrderNumber().isEmpty()) {
+                    order.setOrderNumber(generateOrderNumber());
+                } else {
+                    suppliedOrderNumbers.add(order.getOrderNumber());
+                }
+            }
+            if (order != null && !batchOrderNumbers.add(order.getOrderNumber())) {
+                error = "Duplicate order number in batch: " + order.getOrderNumber();
+            }
+            if (error == null) {
+                orders.add(order);
+                orderIndexes.add(i);
+            }
+            if (error != null) {
+                results[i] = failedItem(i, error);
+            }
         }
         
-        if (order.getStatus() == null) {
-            order.setStatus(Order.OrderStatus.PENDING);
+        // Generated numbers cannot collide; client-supplied ones are checked with a single lookup so
+        // that a duplicate fails its own item rather than the whole batch
+        if (!suppliedOrderNumbers.isEmpty()) {
+            Set<String> existing = new HashSet<>(orderRepository.findExistingOrderNumbers(suppliedOrderNumbers));
+            for (int i = orders.size() - 1; i >= 0; i--) {
+                String orderNumber = orders.get(i).getOrderNumber();
+                if (existing.contains(orderNumber)) {
+                    int index = orderIndexes.remove(i);
+                    orders.remove(i);
+                    results[index] = failedItem(index, "Order with number " + orderNumber + " already exists");
+                }
+            }
         }
         
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created successfully with ID: {}", savedOrder.getId());
+        for (Order order : orders) {
+            if (order.getStatus() == null) {
+                order.setStatus(Order.OrderStatus.PENDING);
+            }
+        }
+        
+        // Sequence-generated IDs let these inserts, and the outbox rows below, go out as JDBC batches
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        orderOutboxWriter.enqueueAll(savedOrders, OrderEventType.ORDER_CREATED);
+        orderStatePublisher.publishAfterCommit(savedOrders, OrderEventType.ORDER_CREATED);
         
-        // Publish order created event
-        orderEventProducer.sendOrderCreatedEvent(savedOrder);
+        for (int i = 0; i < savedOrders.size(); i++) {
+            int index = orderIndexes.get(i);
+            results[index] = BatchOrderItemResult.builder()
+                    .index(index)
+                    .success(true)
+                    .order(orderMapper.toResponse(savedOrders.get(i), "Order created successfully"))
+                    .build();
+        }
         
-        return orderMapper.toResponse(savedOrder, "Order created successfully");
+        int failed = orderRequests.size() - savedOrders.size();
+        log.info("Batch created {} orders, {} failed", savedOrders.size(), failed);
+        return BatchOrderResponse.builder()
+                .totalOrders(orderRequests.size())
+                .createdOrders(savedOrders.size())
+                .failedOrders(failed)
+                .results(Arrays.asList(results))
+                .message(String.format("Processed %d orders: %d created, %d failed",
+                        orderRequests.size(), savedOrders.size(), failed))
+                .build();
     }
     
-    @Transactional(readOnly = true)
+    // No surrounding transaction: cache hits must not borrow a connection; misses load in
+    // the repository's own read-only transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<OrderResponse> getOrderById(Long id) {
         log.debug("Fetching order by ID: {}", id);
-        return orderRepository.findById(id)
-                .map(orderMapper::toResponse);
+        return orderCache.getById(id, key -> orderRepository.findSummaryById(key)
+                .map(OrderSummary::toResponse));
     }
     
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<OrderResponse> getOrderByOrderNumber(String orderNumber) {
         log.debug("Fetching order by order number: {}", orderNumber);
-        return orderRepository.findByOrderNumber(orderNumber)
-                .map(orderMapper::toResponse);
+        return orderCache.getByOrderNumber(orderNumber, key -> orderRepository.findSummaryByOrderNumber(key)
+                .map(OrderSummary::toResponse));
+    }
+    
+    public OrderCacheStatsResponse getCacheStats() {
+        return orderCache.stats();
+    }
+    
+    public OrderPartitioningStatsResponse getPartitioningStats() {
+        return orderPartitionKeys.stats();
     }
     
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByCustomerId(String customerId) {
+    public OrderPageResponse getOrdersByCustomerId(String customerId, String cursor, int size) {
         log.debug("Fetching orders for customer: {}", customerId);
-        return orderRepository.findByCustomerId(customerId).stream()
-                .map(orderMapper::toResponse)
-                .collect(Collectors.toList());
+        return toPage(orderRepository.findByCustomerIdOrderByCreatedAtDescIdDesc(
+                customerId, OrderPageCursor.decode(cursor), pageLimit(size), OrderSummary.class));
     }
     
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByStatus(Order.OrderStatus status) {
+    public OrderPageResponse getOrdersByStatus(Order.OrderStatus status, String cursor, int size) {
         log.debug("Fetching orders with status: {}", status);
-        return orderRepository.findByStatus(status).stream()
-                .map(orderMapper::toResponse)
-                .collect(Collectors.toList());
+        return toPage(orderRepository.findByStatusOrderByCreatedAtDescIdDesc(
+                status, OrderPageCursor.decode(cursor), pageLimit(size), OrderSummary.class));
     }
     
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByCustomerIdAndStatus(String customerId, Order.OrderStatus status) {
+    public OrderPageResponse getOrdersByCustomerIdAndStatus(String customerId, Order.OrderStatus status,
+                                                            String cursor, int size) {
         log.debug("Fetching orders for customer: {} with status: {}", customerId, status);
-        return orderRepository.findByCustomerIdAndStatus(customerId, status).stream()
-                .map(orderMapper::toResponse)
-                .collect(Collectors.toList());
+        return toPage(orderRepository.findByCustomerIdAndStatusOrderByCreatedAtDescIdDesc(
+                customerId, status, OrderPageCursor.decode(cursor), pageLimit(size), OrderSummary.class));
     }
     
     @Transactional(readOnly = true)
-    public List<OrderResponse> getAllOrders() {
+    public OrderPageResponse getAllOrders(String cursor, int size) {
         log.debug("Fetching all orders");
-        return orderRepository.findAll().stream()
-                .map(orderMapper::toResponse)
-                .collect(Collectors.toList());
-
+        return toPage(orderRepository.findAllByOrderByCreatedAtDescIdDesc(
+                OrderPageCursor.decode(cursor), pageLimit(size), OrderSummary.class));
     }
     
     public OrderResponse updateOrderStatus(Long id, Order.OrderStatus status) {
@@ -116,18 +345,21 @@ public class OrderService {
                 .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + id));
         
         order.setStatus(status);
-        Order updatedOrder = orderRepository.save(order);
+        // Flush so updatedAt is current in the response, the event and the cache entry
+        Order updatedOrder = orderRepository.saveAndFlush(order);
         log.info("Order status updated successfully for ID: {}", id);
         
         // Publish order status update event
-        String eventType = switch (status) {
+        OrderEventType eventType = switch (status) {
             case CONFIRMED -> OrderEventType.ORDER_CONFIRMED;
             case SHIPPED -> OrderEventType.ORDER_SHIPPED;
             case DELIVERED -> OrderEventType.ORDER_DELIVERED;
             case CANCELLED -> OrderEventType.ORDER_CANCELLED;
             default -> OrderEventType.ORDER_UPDATED;
         };
-        orderEventProducer.sendOrderCreatedEvent(updatedOrder);
+        orderOutboxWriter.enqueue(updatedOrder, eventType);
+        orderStatePublisher.publishAfterCommit(updatedOrder, eventType);
+        orderCache.putAfterCommit(orderMapper.toResponse(updatedOrder), null);
         
         return orderMapper.toResponse(updatedOrder, "Order status updated successfully");
     }
@@ -138,13 +370,20 @@ public class OrderService {
         Order existingOrder = orderRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + id));
         
+        String previousOrderNumber = existingOrder.getOrderNumber();
         orderMapper.updateEntityFromRequest(orderRequest, existingOrder);
         
-        Order updatedOrder = orderRepository.save(existingOrder);
+        Order updatedOrder = orderRepository.saveAndFlush(existingOrder);
         log.info("Order updated successfully for ID: {}", id);
         
-        // Publish order updated event
-        orderEventProducer.sendOrderCreatedEvent(updatedOrder);
+        // Queue order updated event
+        orderOutboxWriter.enqueue(updatedOrder, OrderEventType.ORDER_UPDATED);
+        // Renaming an order moves its state to a new key, so the old key is tombstoned
+        if (!previousOrderNumber.equals(updatedOrder.getOrderNumber())) {
+            orderStatePublisher.tombstoneAfterCommit(previousOrderNumber);
+        }
+        orderStatePublisher.publishAfterCommit(updatedOrder, OrderEventType.ORDER_UPDATED);
+        orderCache.putAfterCommit(orderMapper.toResponse(updatedOrder), previousOrderNumber);
         
         return orderMapper.toResponse(updatedOrder, "Order updated successfully");
     }
@@ -152,51 +391,54 @@ public class OrderService {
     public void deleteOrder(Long id) {
         log.info("Deleting order with ID: {}", id);
         
-        if (!orderRepository.existsById(id)) {
-            throw new IllegalArgumentException("Order not found with ID: " + id);
-        }
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + id));
         
-        orderRepository.deleteById(id);
+        orderRepository.delete(order);
+        orderCache.evictAfterCommit(id);
+        orderStatePublisher.tombstoneAfterCommit(order.getOrderNumber());
         log.info("Order deleted successfully with ID: {}", id);
     }
     
-    public BulkOrderSendResponse sendAllOrdersToPaymentService() {
-        log.info("Sending all orders to Payment Service");
-        
-        List<Order> allOrders = orderRepository.findAll();
-        List<OrderResponse> successfulOrders = new ArrayList<>();
-        List<OrderErrorInfo> failedOrders = new ArrayList<>();
-        
-        for (Order order : allOrders) {
-            try {
-                orderEventProducer.sendOrderCreatedEvent(order);
-                successfulOrders.add(orderMapper.toResponse(order));
-                log.debug("Sent order {} to Payment Service", order.getOrderNumber());
-            } catch (Exception e) {
-                log.error("Failed to send order {} to Payment Service", order.getOrderNumber(), e);
-                failedOrders.add(OrderErrorInfo.builder()
-                        .orderId(order.getId())
-                        .orderNumber(order.getOrderNumber())
-                        .errorMessage(e.getMessage())
-                        .build());
-            }
+    private String validate(OrderRequest orderRequest) {
+        if (orderRequest == null) {
+            return "Order request is required";
         }
-        
-        BulkOrderSendResponse response = BulkOrderSendResponse.builder()
-                .totalOrders(allOrders.size())
-                .successfulSends(successfulOrders.size())
-                .failedSends(failedOrders.size())
-                .successfulOrders(successfulOrders)
-                .failedOrders(failedOrders)
-                .message(String.format("Processed %d orders: %d successful, %d failed", 
-                        allOrders.size(), successfulOrders.size(), failedOrders.size()))
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(orderRequest);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    private static BatchOrderItemResult failedItem(int index, String errorMessage) {
+        return BatchOrderItemResult.builder()
+                .index(index)
+                .success(false)
+                .errorMessage(errorMessage)
+                .build();
+    }
+    
+    private Limit pageLimit(int size) {
+        return Limit.of(Math.max(1, Math.min(size, maxPageSize)));
+    }
+    
+    private OrderPageResponse toPage(Window<OrderSummary> window) {
+        List<OrderResponse> orders = window.stream()
+                .map(OrderSummary::toResponse)
+                .collect(Collectors.toList());
+        return OrderPageResponse.builder()
+                .orders(orders)
+                .size(orders.size())
+                .hasNext(window.hasNext())
+                .nextCursor(window.hasNext() ? OrderPageCursor.encode(window.positionAt(window.size() - 1)) : null)
                 .build();
-        
-        log.info("Bulk send completed: {}", response.getMessage());
-        return response;
     }
     
     private String generateOrderNumber() {
-        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return idGenerator.nextId("ORD-");
     }
 }
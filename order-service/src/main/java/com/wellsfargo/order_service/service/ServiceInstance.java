@@ -0,0 +1,29 @@
+package com.wellsfargo.order_service.service;
+
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * Names this running instance in lease owner columns: the host name plus a random suffix, so a
+ * restarted instance does not inherit the leases of its previous run.
+ */
+@Component
+public class ServiceInstance {
+
+    private final String id = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    public String id() {
+        return id;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
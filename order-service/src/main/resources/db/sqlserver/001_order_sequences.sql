@@ -0,0 +1,31 @@
+-- Moves orders from IDENTITY to sequence-generated IDs so Hibernate can batch inserts.
+-- Run once against an existing database before deploying; new databases are created
+-- correctly by hibernate.ddl-auto. Sequences step by the entity allocationSize (50).
+
+BEGIN TRANSACTION;
+
+DECLARE @next_order_id BIGINT = (SELECT ISNULL(MAX(id), 0) + 1 FROM orders WITH (TABLOCKX));
+EXEC('CREATE SEQUENCE orders_seq AS BIGINT START WITH ' + @next_order_id + ' INCREMENT BY 50');
+
+-- IDENTITY cannot be dropped in place: switch the rows into an identical table without it
+CREATE TABLE orders_new (
+    id           BIGINT        NOT NULL,
+    created_at   DATETIME2(6)  NOT NULL,
+    customer_id  VARCHAR(255)  NOT NULL,
+    order_number VARCHAR(255)  NOT NULL,
+    status       VARCHAR(255)  NOT NULL,
+    total_amount FLOAT         NOT NULL,
+    updated_at   DATETIME2(6)  NULL,
+    CONSTRAINT pk_orders_new PRIMARY KEY (id)
+);
+
+ALTER TABLE orders SWITCH TO orders_new;
+DROP TABLE orders;
+EXEC sp_rename 'orders_new', 'orders';
+EXEC sp_rename 'pk_orders_new', 'pk_orders', 'OBJECT';
+
+-- The outbox only holds in-flight events; drain it before running this script
+IF OBJECT_ID('order_outbox') IS NOT NULL AND NOT EXISTS (SELECT 1 FROM order_outbox WHERE sent_at IS NULL)
+    DROP TABLE order_outbox;
+
+COMMIT TRANSACTION;
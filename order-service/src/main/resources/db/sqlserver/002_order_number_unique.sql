@@ -0,0 +1,3 @@
+-- Order numbers are now only guarded by this constraint; the application no longer
+-- checks for an existing number before inserting.
+ALTER TABLE orders ADD CONSTRAINT uk_orders_order_number UNIQUE (order_number);
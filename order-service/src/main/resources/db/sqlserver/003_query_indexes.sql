@@ -0,0 +1,36 @@
+-- Secondary indexes backing the keyset-paged finders and the outbox relay. They mirror the
+-- @Index declarations on Order and OrderOutboxEvent; run once against an existing database.
+-- The indexes build offline, which Express supports; apply the script outside peak hours.
+
+-- findByCustomerIdAndStatusOrderByCreatedAtDescIdDesc
+CREATE INDEX ix_orders_customer_status_created
+    ON orders (customer_id, status, created_at DESC, id DESC)
+    INCLUDE (order_number, total_amount, updated_at);
+
+-- findByCustomerIdOrderByCreatedAtDescIdDesc
+CREATE INDEX ix_orders_customer_created
+    ON orders (customer_id, created_at DESC, id DESC)
+    INCLUDE (order_number, status, total_amount, updated_at);
+
+-- findByStatusOrderByCreatedAtDescIdDesc
+CREATE INDEX ix_orders_status_created
+    ON orders (status, created_at DESC, id DESC);
+
+-- findAllByOrderByCreatedAtDescIdDesc
+CREATE INDEX ix_orders_created
+    ON orders (created_at DESC, id DESC);
+
+-- Relay polling only ever reads unsent rows, so a filtered index stays small as sent rows
+-- accumulate until the retention purge. Hibernate creates the unfiltered ix_order_outbox_sent_at
+-- on fresh schemas; replace it here.
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_order_outbox_sent_at')
+    DROP INDEX ix_order_outbox_sent_at ON order_outbox;
+CREATE INDEX ix_order_outbox_sent_at
+    ON order_outbox (id)
+    INCLUDE (sent_at)
+    WHERE sent_at IS NULL;
+
+-- purgeSentEvents deletes by sent_at
+CREATE INDEX ix_order_outbox_sent_at_purge
+    ON order_outbox (sent_at)
+    WHERE sent_at IS NOT NULL;
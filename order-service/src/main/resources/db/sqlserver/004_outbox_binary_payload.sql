@@ -0,0 +1,15 @@
+-- Outbox payloads are now the encoded record value (JSON or binary) rather than text.
+-- ddl-auto=update does not change column types; run once against an existing database.
+-- Pending JSON rows are converted to their UTF-8 bytes so the relay sends them unchanged.
+ALTER TABLE order_outbox ADD payload_bytes varbinary(max) NULL;
+GO
+
+UPDATE order_outbox
+SET payload_bytes = CAST(CAST(CAST(payload AS nvarchar(max)) COLLATE Latin1_General_100_CI_AS_SC_UTF8
+                             AS varchar(max)) AS varbinary(max));
+GO
+
+ALTER TABLE order_outbox DROP COLUMN payload;
+EXEC sp_rename 'order_outbox.payload_bytes', 'payload', 'COLUMN';
+ALTER TABLE order_outbox ALTER COLUMN payload varbinary(max) NOT NULL;
+GO
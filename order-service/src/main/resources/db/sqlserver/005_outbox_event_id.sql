@@ -0,0 +1,3 @@
+-- The relay sets an event-id header from this column instead of decoding the payload.
+-- Rows queued before it existed are sent without the header.
+ALTER TABLE order_outbox ADD event_id varchar(36) NULL;
@@ -0,0 +1,6 @@
+-- An order created with delivery=AWAIT_ACK is only published straight after commit when no earlier
+-- row for its message key is still unsent (OrderOutboxRepository.existsUnsentBefore). Mirrors the
+-- @Index on OrderOutboxEvent; filtered so it only holds rows waiting for the relay.
+CREATE INDEX ix_order_outbox_key_unsent
+    ON order_outbox (message_key, id)
+    WHERE sent_at IS NULL;
@@ -0,0 +1,17 @@
+-- Retry backoff and parking for the outbox relay. Run once against an existing database before
+-- deploying; new databases get the columns from hibernate.ddl-auto.
+ALTER TABLE order_outbox ADD next_attempt_at DATETIME2(6) NULL, failed_at DATETIME2(6) NULL;
+GO
+
+-- Parked rows are never polled again, so they drop out of the relay's index
+DROP INDEX ix_order_outbox_sent_at ON order_outbox;
+CREATE INDEX ix_order_outbox_sent_at
+    ON order_outbox (id)
+    INCLUDE (next_attempt_at, message_key)
+    WHERE sent_at IS NULL AND failed_at IS NULL;
+
+DROP INDEX ix_order_outbox_key_unsent ON order_outbox;
+CREATE INDEX ix_order_outbox_key_unsent
+    ON order_outbox (message_key, id)
+    WHERE sent_at IS NULL AND failed_at IS NULL;
+GO
@@ -0,0 +1,15 @@
+-- Replay jobs are claimed with an owner and lease, and only one can hold the running slot.
+-- Run once against an existing database before deploying; new databases are created by
+-- hibernate.ddl-auto. Jobs left RUNNING get an expired lease and are resumed by the first instance.
+ALTER TABLE order_replay_jobs ADD active_key VARCHAR(36) NULL, owner VARCHAR(100) NULL, lease_expires_at DATETIME2(6) NULL;
+GO
+
+UPDATE order_replay_jobs SET active_key = CASE WHEN status = 'RUNNING' THEN 'RUNNING' ELSE job_id END;
+-- Only the most recent of several RUNNING jobs keeps the slot; the others are marked failed
+UPDATE order_replay_jobs
+SET status = 'FAILED', active_key = job_id, completed_at = SYSDATETIME(), last_error = 'Superseded by a concurrent replay job'
+WHERE status = 'RUNNING'
+  AND job_id <> (SELECT TOP 1 job_id FROM order_replay_jobs WHERE status = 'RUNNING' ORDER BY started_at DESC);
+ALTER TABLE order_replay_jobs ALTER COLUMN active_key VARCHAR(36) NOT NULL;
+ALTER TABLE order_replay_jobs ADD CONSTRAINT uk_order_replay_jobs_active UNIQUE (active_key);
+GO
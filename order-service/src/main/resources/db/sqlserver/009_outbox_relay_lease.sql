@@ -0,0 +1,10 @@
+-- Only the instance holding this lease polls the outbox (OrderOutboxRelay). Run once against an
+-- existing database before deploying; new databases get the table from hibernate.ddl-auto, and the
+-- first relay to find the row missing inserts it.
+CREATE TABLE order_outbox_relay_lease (
+    name             VARCHAR(50)  NOT NULL PRIMARY KEY,
+    owner            VARCHAR(100) NULL,
+    lease_expires_at DATETIME2(6) NULL
+);
+INSERT INTO order_outbox_relay_lease (name) VALUES ('outbox-relay');
+GO
@@ -3,7 +3,7 @@ package com.wellsfargo.order_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.id-generator.node-id=1")
 class OrderServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,64 @@
+package com.wellsfargo.order_service.benchmark;
+
+import com.wellsfargo.order_service.OrderServiceApplication;
+import com.wellsfargo.service_support.benchmark.HttpLoadSupport;
+import com.wellsfargo.service_support.benchmark.HttpLoadSupport.LoadResult;
+import com.wellsfargo.service_support.benchmark.QueryIndexBenchmarkSupport;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs POST and GET /api/orders against the service started once with platform request threads and
+ * once with virtual threads, and reports throughput, latency, peak platform threads and pinning.
+ * Run with {@code mvn test -Pbenchmark}; the report is written to target/benchmarks.
+ */
+@Tag("benchmark")
+class OrderEndpointThreadingBenchmark {
+
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 20_000;
+    private static final int CONCURRENCY = 400;
+
+    // The relay polls once at startup and then stays idle, so no Kafka broker is needed
+    private static final Map<String, Object> PROPERTIES = Map.of(
+            "order.outbox.relay.poll-interval", "1h",
+            "order.outbox.cleanup-interval", "1h");
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        List<LoadResult> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context =
+                         HttpLoadSupport.start(OrderServiceApplication.class, virtualThreads, PROPERTIES)) {
+                String baseUrl = HttpLoadSupport.baseUrl(context);
+                HttpClient client = HttpLoadSupport.client();
+
+                HttpLoadSupport.run(context, client, "warmup", WARMUP_REQUESTS, CONCURRENCY,
+                        i -> createOrder(baseUrl, i));
+                results.add(HttpLoadSupport.run(context, client, "POST /api/orders", REQUESTS, CONCURRENCY,
+                        i -> createOrder(baseUrl, i)));
+                results.add(HttpLoadSupport.run(context, client, "GET /api/orders?size=50", REQUESTS, CONCURRENCY,
+                        i -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders?size=50")).GET().build()));
+            }
+        }
+        QueryIndexBenchmarkSupport.write("order-endpoint-threading.txt",
+                HttpLoadSupport.report("Order endpoints, platform vs virtual request threads", results));
+    }
+
+    private static HttpRequest createOrder(String baseUrl, int i) {
+        String body = "{\"customerId\":\"CUST-" + (i % 500) + "\",\"totalAmount\":" + (10 + i % 990)
+                + ",\"status\":\"PENDING\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.wellsfargo.order_service.benchmark;
+
+import com.wellsfargo.order_service.dto.OrderSummary;
+import com.wellsfargo.order_service.entity.Order;
+import com.wellsfargo.order_service.repository.OrderRepository;
+import com.wellsfargo.service_support.benchmark.QueryIndexBenchmarkSupport;
+import com.wellsfargo.service_support.benchmark.QueryIndexBenchmarkSupport.FinderCase;
+import com.wellsfargo.service_support.benchmark.QueryIndexBenchmarkSupport.IndexDefinition;
+import com.wellsfargo.service_support.benchmark.QueryIndexBenchmarkSupport.Measurement;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Runs every OrderRepository finder against a seeded H2 database, first with the entity-declared
+ * secondary indexes dropped and then with them recreated, and reports latency and query plans.
+ * Run with {@code mvn test -Pbenchmark}; the report is written to target/benchmarks.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "app.id-generator.node-id=1",
+        "spring.jpa.database-platform=",
+        "spring.jpa.properties.hibernate.dialect=",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderQueryIndexBenchmark {
+
+    private static final int ORDERS = 200_000;
+    private static final int CUSTOMERS = 5_000;
+    private static final int PAGE_SIZE = 50;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void finderLatencyWithAndWithoutIndexes() throws Exception {
+        seedOrders();
+
+        String customerId = customerId(10);
+        Map<String, Object> deepRow = jdbc.queryForMap(
+                "SELECT created_at, id FROM orders WHERE status = 'PENDING' ORDER BY created_at DESC, id DESC "
+                        + "OFFSET 20000 ROWS FETCH NEXT 1 ROWS ONLY");
+        LocalDateTime deepCreatedAt = ((Timestamp) deepRow.get("CREATED_AT")).toLocalDateTime();
+        long deepId = ((Number) deepRow.get("ID")).longValue();
+        ScrollPosition deepPosition = ScrollPosition.forward(Map.of("createdAt", deepCreatedAt, "id", deepId));
+        List<String> orderNumbers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            orderNumbers.add(orderNumber(i * 1_999L + 1));
+        }
+
+        List<FinderCase> cases = List.of(
+                new FinderCase("findByOrderNumber",
+                        () -> orderRepository.findByOrderNumber(orderNumber(123_456)),
+                        "SELECT * FROM orders WHERE order_number = '" + orderNumber(123_456) + "'"),
+                new FinderCase("findExistingOrderNumbers (100)",
+                        () -> orderRepository.findExistingOrderNumbers(orderNumbers),
+                        "SELECT order_number FROM orders WHERE order_number IN ("
+                                + QueryIndexBenchmarkSupport.inList(orderNumbers) + ")"),
+                new FinderCase("findAllByOrderByCreatedAtDescIdDesc",
+                        () -> orderRepository.findAllByOrderByCreatedAtDescIdDesc(
+                                ScrollPosition.keyset(), Limit.of(PAGE_SIZE), OrderSummary.class),
+                        "SELECT * FROM orders ORDER BY created_at DESC, id DESC FETCH FIRST 50 ROWS ONLY"),
+                new FinderCase("findByCustomerId... (first page)",
+                        () -> orderRepository.findByCustomerIdOrderByCreatedAtDescIdDesc(
+                                customerId, ScrollPosition.keyset(), Limit.of(PAGE_SIZE), OrderSummary.class),
+                        "SELECT * FROM orders WHERE customer_id = '" + customerId + "' "
+                                + "ORDER BY created_at DESC, id DESC FETCH FIRST 50 ROWS ONLY"),
+                new FinderCase("findByStatus... (first page)",
+                        () -> orderRepository.findByStatusOrderByCreatedAtDescIdDesc(
+                                Order.OrderStatus.PENDING, ScrollPosition.keyset(), Limit.of(PAGE_SIZE), OrderSummary.class),
+                        "SELECT * FROM orders WHERE status = 'PENDING' "
+                                + "ORDER BY created_at DESC, id DESC FETCH FIRST 50 ROWS ONLY"),
+                new FinderCase("findByStatus... (page at row 20000)",
+                        () -> orderRepository.findByStatusOrderByCreatedAtDescIdDesc(
+                                Order.OrderStatus.PENDING, deepPosition, Limit.of(PAGE_SIZE), OrderSummary.class),
+                        "SELECT * FROM orders WHERE status = 'PENDING' AND (created_at < TIMESTAMP '" + deepCreatedAt
+                                + "' OR created_at = TIMESTAMP '" + deepCreatedAt + "' AND id < " + deepId + ") "
+                                + "ORDER BY created_at DESC, id DESC FETCH FIRST 50 ROWS ONLY"),
+                new FinderCase("findByCustomerIdAndStatus... (first page)",
+                        () -> orderRepository.findByCustomerIdAndStatusOrderByCreatedAtDescIdDesc(
+                                customerId, Order.OrderStatus.SHIPPED, ScrollPosition.keyset(), Limit.of(PAGE_SIZE),
+                                OrderSummary.class),
+                        "SELECT * FROM orders WHERE customer_id = '" + customerId + "' AND status = 'SHIPPED' "
+                                + "ORDER BY created_at DESC, id DESC FETCH FIRST 50 ROWS ONLY")
+        );
+
+        List<IndexDefinition> indexes = QueryIndexBenchmarkSupport.secondaryIndexes(jdbc, "orders");
+        indexes.forEach(index -> jdbc.execute(index.dropSql()));
+        Map<String, Measurement> before = QueryIndexBenchmarkSupport.measure(jdbc, cases);
+
+        indexes.forEach(index -> jdbc.execute(index.createSql()));
+        jdbc.execute("ANALYZE");
+        Map<String, Measurement> after = QueryIndexBenchmarkSupport.measure(jdbc, cases);
+
+        QueryIndexBenchmarkSupport.write("order-query-indexes.txt",
+                QueryIndexBenchmarkSupport.report("OrderRepository finders", ORDERS, indexes, before, after));
+    }
+
+    private void seedOrders() {
+        Random random = new Random(42);
+        Order.OrderStatus[] statuses = Order.OrderStatus.values();
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= ORDERS; id++) {
+            // Log-uniform customer rank: a few customers own most of the orders
+            int customerRank = (int) Math.pow(CUSTOMERS, random.nextDouble());
+            Timestamp createdAt = Timestamp.valueOf(START.plusSeconds(id * 10 + random.nextInt(10)));
+            batch.add(new Object[]{id, orderNumber(id), customerId(customerRank), 10 + random.nextInt(990),
+                    statuses[random.nextInt(statuses.length)].name(), createdAt, createdAt});
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbc.batchUpdate("INSERT INTO orders (id, order_number, customer_id, total_amount, status, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private static String orderNumber(long id) {
+        return String.format("ORD-%013d", id);
+    }
+
+    private static String customerId(int rank) {
+        return String.format("CUST-%05d", rank);
+    }
+}
@@ -0,0 +1,164 @@
+package com.wellsfargo.order_service.benchmark;
+
+import com.wellsfargo.order_service.dto.OrderResponse;
+import com.wellsfargo.order_service.dto.OrderSummary;
+import com.wellsfargo.order_service.entity.Order;
+import com.wellsfargo.order_service.mapper.OrderMapper;
+import com.wellsfargo.order_service.mapper.OrderMapperImpl;
+import com.wellsfargo.order_service.repository.OrderRepository;
+import com.wellsfargo.service_support.benchmark.QueryIndexBenchmarkSupport;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the old read path (managed Order entities mapped through OrderMapper) with the
+ * OrderSummary projection on a findByStatus that returns 100k rows. Reports latency and the bytes
+ * allocated by the calling thread per query. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "app.id-generator.node-id=1",
+        "spring.jpa.database-platform=",
+        "spring.jpa.properties.hibernate.dialect=",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Import(OrderMapperImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderReadPathBenchmark {
+
+    private static final int MATCHING_ORDERS = 100_000;
+    private static final int OTHER_ORDERS = 20_000;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 10;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private record Result(double p50Millis, double p95Millis, double allocatedMegabytes) {
+    }
+
+    @Test
+    void entityVersusProjectionReadPath() throws Exception {
+        seedOrders();
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Supplier<List<OrderResponse>> entities = () -> orderRepository.findByStatusOrderByCreatedAtDescIdDesc(
+                        Order.OrderStatus.PENDING, ScrollPosition.keyset(), Limit.of(MATCHING_ORDERS), Order.class)
+                .stream()
+                .map(orderMapper::toResponse)
+                .collect(Collectors.toList());
+        Supplier<List<OrderResponse>> projections = () -> orderRepository.findByStatusOrderByCreatedAtDescIdDesc(
+                        Order.OrderStatus.PENDING, ScrollPosition.keyset(), Limit.of(MATCHING_ORDERS), OrderSummary.class)
+                .stream()
+                .map(OrderSummary::toResponse)
+                .collect(Collectors.toList());
+
+        List<OrderResponse> expected = readOnly.execute(status -> entities.get());
+        assertEquals(MATCHING_ORDERS, expected.size());
+        assertEquals(expected, readOnly.execute(status -> projections.get()));
+        assertSameNextPage(readOnly);
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        results.put("entities + OrderMapper (read-write tx)", measure(() -> readWrite.execute(status -> entities.get())));
+        results.put("entities + OrderMapper (read-only tx)", measure(() -> readOnly.execute(status -> entities.get())));
+        results.put("OrderSummary projection (read-only tx)", measure(() -> readOnly.execute(status -> projections.get())));
+
+        StringBuilder report = new StringBuilder();
+        report.append("# findByStatus read path (").append(MATCHING_ORDERS).append(" matching rows of ")
+                .append(MATCHING_ORDERS + OTHER_ORDERS).append(", H2 in-memory)\n\n");
+        report.append(String.format("%-42s %10s %10s %16s%n", "path", "p50", "p95", "allocated/query"));
+        results.forEach((name, result) -> report.append(String.format("%-42s %8.1fms %8.1fms %13.1f MB%n",
+                name, result.p50Millis(), result.p95Millis(), result.allocatedMegabytes())));
+        QueryIndexBenchmarkSupport.write("order-read-path.txt", report.toString());
+    }
+
+    // The projection must carry the keyset so the next-page cursor is the same as with entities
+    private void assertSameNextPage(TransactionTemplate readOnly) {
+        readOnly.executeWithoutResult(status -> {
+            Window<Order> entityPage = orderRepository.findByStatusOrderByCreatedAtDescIdDesc(
+                    Order.OrderStatus.PENDING, ScrollPosition.keyset(), Limit.of(50), Order.class);
+            Window<OrderSummary> summaryPage = orderRepository.findByStatusOrderByCreatedAtDescIdDesc(
+                    Order.OrderStatus.PENDING, ScrollPosition.keyset(), Limit.of(50), OrderSummary.class);
+            assertEquals(entityPage.positionAt(49), summaryPage.positionAt(49));
+        });
+    }
+
+    private static Result measure(Runnable query) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            query.run();
+        }
+        double[] samples = new double[MEASURED_ITERATIONS];
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        Arrays.sort(samples);
+        return new Result(samples[samples.length / 2], samples[(int) Math.ceil(samples.length * 0.95) - 1],
+                allocated / (double) MEASURED_ITERATIONS / (1024 * 1024));
+    }
+
+    private void seedOrders() {
+        Order.OrderStatus[] others = {Order.OrderStatus.CONFIRMED, Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED};
+        List<Object[]> batch = new ArrayList<>(10_000);
+        // Every sixth order is not PENDING: 100k of the 120k rows match
+        for (long id = 1; id <= MATCHING_ORDERS + OTHER_ORDERS; id++) {
+            Order.OrderStatus status = id % 6 == 0 ? others[(int) (id % others.length)] : Order.OrderStatus.PENDING;
+            Timestamp createdAt = Timestamp.valueOf(START.plusSeconds(id * 10));
+            batch.add(new Object[]{id, String.format("ORD-%013d", id), String.format("CUST-%05d", id % 5_000),
+                    10.0 + id % 990, status.name(), createdAt, createdAt});
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbc.batchUpdate("INSERT INTO orders (id, order_number, customer_id, total_amount, status, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,223 @@
+package com.wellsfargo.order_service.kafka.outbox;
+
+import com.wellsfargo.order_event_contract.OrderEventHeaders;
+import com.wellsfargo.order_event_contract.OrderEventType;
+import com.wellsfargo.order_service.entity.OrderOutboxEvent;
+import com.wellsfargo.order_service.entity.OrderOutboxRelayLease;
+import com.wellsfargo.order_service.kafka.producer.OrderEventProducer;
+import com.wellsfargo.order_service.repository.OrderOutboxRelayLeaseRepository;
+import com.wellsfargo.order_service.repository.OrderOutboxRepository;
+import com.wellsfargo.order_service.service.ServiceInstance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.support.SendResult;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OrderOutboxRelayTest {
+
+    // The outbox table, by id
+    private final Map<Long, OrderOutboxEvent> rows = new TreeMap<>();
+    // The relay lease table, by name
+    private final Map<String, OrderOutboxRelayLease> leases = new HashMap<>();
+    private final RecordingProducer producer = new RecordingProducer();
+    private final OrderOutboxRelay relay = relay();
+
+    @Test
+    void fullProducerIsNotCountedAsAnAttempt() {
+        insert(1, "ORD-1");
+        insert(2, "ORD-2");
+
+        producer.full = true;
+        for (int poll = 0; poll < 5; poll++) {
+            relay.relayPendingEvents();
+        }
+        for (OrderOutboxEvent row : rows.values()) {
+            assertEquals(0, row.getAttempts());
+            assertNull(row.getNextAttemptAt());
+            assertNull(row.getFailedAt());
+        }
+
+        producer.full = false;
+        relay.relayPendingEvents();
+        assertEquals(List.of("event-1", "event-2"), producer.sentEventIds());
+        rows.values().forEach(row -> assertNotNull(row.getSentAt()));
+    }
+
+    @Test
+    void keySendsNothingAfterItsFailedRow() {
+        insert(1, "ORD-1");
+        insert(2, "ORD-1");
+        insert(3, "ORD-2");
+        insert(4, "ORD-2");
+
+        producer.failing = "event-1";
+        relay.relayPendingEvents();
+        assertEquals(List.of("event-1", "event-3", "event-4"), producer.sentEventIds());
+        assertNotNull(rows.get(1L).getNextAttemptAt());
+        assertNull(rows.get(2L).getSentAt());
+        assertEquals(0, rows.get(2L).getAttempts());
+
+        // ORD-1 is held back while its first row waits out the backoff
+        producer.failing = null;
+        relay.relayPendingEvents();
+        assertEquals(3, producer.records.size());
+        rows.get(1L).setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        relay.relayPendingEvents();
+        assertEquals(List.of("event-1", "event-3", "event-4", "event-1", "event-2"), producer.sentEventIds());
+    }
+
+    @Test
+    void onlyTheLeaseHolderPolls() {
+        OrderOutboxRelay standby = relay();
+        insert(1, "ORD-1");
+        relay.relayPendingEvents();
+        insert(2, "ORD-2");
+        standby.relayPendingEvents();
+        assertEquals(List.of("event-1"), producer.sentEventIds());
+
+        // The holder shuts down; the next instance to check the lease takes it over
+        relay.releaseLease();
+        OrderOutboxRelay successor = relay();
+        successor.relayPendingEvents();
+        assertEquals(List.of("event-1", "event-2"), producer.sentEventIds());
+    }
+
+    private OrderOutboxRelay relay() {
+        return new OrderOutboxRelay(outboxRepository(), leaseRepository(), producer, new ServiceInstance(), 500, 100,
+                Duration.ofMillis(10), Duration.ofHours(24), 3, Duration.ofSeconds(1), Duration.ofMinutes(5),
+                Duration.ofMinutes(2));
+    }
+
+    private void insert(long id, String key) {
+        OrderOutboxEvent row = new OrderOutboxEvent();
+        row.setId(id);
+        row.setOrderId(id);
+        row.setEventType(OrderEventType.ORDER_CREATED);
+        row.setEventId("event-" + id);
+        row.setTopic(OrderEventProducer.ORDER_TOPIC);
+        row.setMessageKey(key);
+        row.setPayload(new byte[0]);
+        row.setCreatedAt(LocalDateTime.now());
+        rows.put(id, row);
+    }
+
+    private boolean unsent(OrderOutboxEvent row) {
+        return row.getSentAt() == null && row.getFailedAt() == null;
+    }
+
+    // The queries the relay runs, answered from the rows above
+    @SuppressWarnings("unchecked")
+    private OrderOutboxRepository outboxRepository() {
+        return (OrderOutboxRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{OrderOutboxRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findDue" -> rows.values().stream()
+                            .filter(row -> unsent(row) && (row.getNextAttemptAt() == null
+                                    || !row.getNextAttemptAt().isAfter((LocalDateTime) args[0])))
+                            .sorted(Comparator.comparing(OrderOutboxEvent::getId))
+                            .limit(((Limit) args[1]).max())
+                            .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+                    case "findKeysBackingOff" -> rows.values().stream()
+                            .filter(row -> unsent(row) && row.getNextAttemptAt() != null
+                                    && row.getNextAttemptAt().isAfter((LocalDateTime) args[0]))
+                            .map(OrderOutboxEvent::getMessageKey).distinct().toList();
+                    case "markSent" -> update((Collection<Long>) args[0], row -> row.setSentAt((LocalDateTime) args[1]));
+                    case "markFailed" -> update((Collection<Long>) args[0], row -> {
+                        row.setLastError((String) args[1]);
+                        row.setNextAttemptAt((LocalDateTime) args[2]);
+                    });
+                    case "markParked" -> update((Collection<Long>) args[0], row -> {
+                        row.setLastError((String) args[1]);
+                        row.setFailedAt((LocalDateTime) args[2]);
+                    });
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // The lease updates, applied to the lease rows above as the conditional updates would
+    private OrderOutboxRelayLeaseRepository leaseRepository() {
+        return (OrderOutboxRelayLeaseRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{OrderOutboxRelayLeaseRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "claim" -> {
+                        OrderOutboxRelayLease lease = leases.get((String) args[0]);
+                        if (lease == null || !(args[1].equals(lease.getOwner()) || lease.getLeaseExpiresAt() == null
+                                || lease.getLeaseExpiresAt().isBefore((LocalDateTime) args[2]))) {
+                            yield 0;
+                        }
+                        lease.setOwner((String) args[1]);
+                        lease.setLeaseExpiresAt((LocalDateTime) args[3]);
+                        yield 1;
+                    }
+                    case "release" -> {
+                        OrderOutboxRelayLease lease = leases.get((String) args[0]);
+                        if (lease == null || !args[1].equals(lease.getOwner())) {
+                            yield 0;
+                        }
+                        lease.setLeaseExpiresAt(null);
+                        yield 1;
+                    }
+                    case "existsById" -> leases.containsKey((String) args[0]);
+                    case "saveAndFlush" -> {
+                        OrderOutboxRelayLease lease = (OrderOutboxRelayLease) args[0];
+                        leases.put(lease.getName(), lease);
+                        yield lease;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private int update(Collection<Long> ids, Consumer<OrderOutboxEvent> change) {
+        for (Long id : ids) {
+            OrderOutboxEvent row = rows.get(id);
+            row.setAttempts(row.getAttempts() + 1);
+            change.accept(row);
+        }
+        return ids.size();
+    }
+
+    private static final class RecordingProducer extends OrderEventProducer {
+
+        private final List<ProducerRecord<String, Object>> records = new ArrayList<>();
+        private boolean full;
+        // Event ID whose sends the broker rejects
+        private String failing;
+
+        private RecordingProducer() {
+            super(null, null, new SimpleMeterRegistry(), 1, Duration.ZERO);
+        }
+
+        @Override
+        public boolean tryReserve(Duration timeout) {
+            return !full;
+        }
+
+        @Override
+        public CompletableFuture<SendResult<String, Object>> sendReserved(ProducerRecord<String, Object> record) {
+            records.add(record);
+            return OrderEventHeaders.eventId(record.headers()).equals(failing)
+                    ? CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+                    : CompletableFuture.completedFuture(new SendResult<>(record, null));
+        }
+
+        private List<String> sentEventIds() {
+            return records.stream().map(record -> OrderEventHeaders.eventId(record.headers())).toList();
+        }
+    }
+}
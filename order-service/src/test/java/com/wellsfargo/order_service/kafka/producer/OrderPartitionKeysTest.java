@@ -0,0 +1,106 @@
+package com.wellsfargo.order_service.kafka.producer;
+
+import com.wellsfargo.order_service.entity.Order;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderPartitionKeysTest {
+
+    private static final int PARTITIONS = 12;
+    private static final int CUSTOMERS = 10_000;
+    private static final double ZIPF_EXPONENT = 1.2;
+    private static final int EVENTS = 200_000;
+
+    @Test
+    void customerKeysOverloadOnePartitionUnderZipfianLoad() {
+        double skew = measureSkew(PartitioningStrategy.CUSTOMER_ID);
+        assertTrue(skew > 2.0, () -> "expected the top customer to overload its partition, skew " + skew);
+    }
+
+    @Test
+    void spreadingHotCustomersBalancesPartitionsUnderZipfianLoad() {
+        double orderIdSkew = measureSkew(PartitioningStrategy.ORDER_ID);
+        double spreadSkew = measureSkew(PartitioningStrategy.CUSTOMER_ID_SPREAD_HOT);
+        assertTrue(spreadSkew < 1.4,
+                () -> "expected near-even partitions, skew " + spreadSkew + " (ORDER_ID skew " + orderIdSkew + ")");
+    }
+
+    @Test
+    void eventsOfOneOrderKeepTheirKeyWhileCustomerIsHot() {
+        OrderPartitionKeys keys = keys(PartitioningStrategy.CUSTOMER_ID_SPREAD_HOT);
+        for (long id = 0; id < 1_000; id++) {
+            keys.keyFor(order(id, id % 2 == 0 ? "HOT" : "C-" + id));
+        }
+        keys.rotateWindow();
+        assertTrue(keys.hotCustomers().containsKey("HOT"));
+        assertEquals("COLD", keys.keyFor(order(1, "COLD")));
+
+        Order order = order(42, "HOT");
+        String key = keys.keyFor(order);
+        assertTrue(key.startsWith("HOT#"));
+        assertEquals(key, keys.keyFor(order));
+    }
+
+    private static double measureSkew(PartitioningStrategy strategy) {
+        OrderPartitionKeys keys = keys(strategy);
+        Random random = new Random(7);
+        double[] cdf = zipfCdf(CUSTOMERS, ZIPF_EXPONENT);
+        // One detection window of warm-up so hot customers are known before load is measured
+        for (long id = 0; id < EVENTS / 4; id++) {
+            keys.keyFor(order(id, customer(cdf, random)));
+        }
+        keys.rotateWindow();
+
+        long[] load = new long[PARTITIONS];
+        for (long id = EVENTS; id < 2L * EVENTS; id++) {
+            String key = keys.keyFor(order(id, customer(cdf, random)));
+            load[partition(key)]++;
+        }
+        List<Long> counts = new ArrayList<>();
+        Arrays.stream(load).forEach(counts::add);
+        return OrderPartitionKeys.skew(counts);
+    }
+
+    private static OrderPartitionKeys keys(PartitioningStrategy strategy) {
+        return new OrderPartitionKeys(strategy, 0.01, 100, 32, 100_000);
+    }
+
+    // Same key hashing as Kafka's default partitioner
+    private static int partition(String key) {
+        return Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % PARTITIONS;
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cdf[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static String customer(double[] cdf, Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return "CUST-" + (index >= 0 ? index : -index - 1);
+    }
+
+    private static Order order(long id, String customerId) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(customerId);
+        return order;
+    }
+}
@@ -0,0 +1,128 @@
+package com.wellsfargo.order_service.kafka.producer;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventHeaders;
+import com.wellsfargo.order_event_contract.OrderEventType;
+import com.wellsfargo.order_service.entity.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStatePublisherTest {
+
+    @Test
+    void burstOfUpdatesIsPublishedAsTheFinalStateOnly() {
+        RecordingProducer producer = new RecordingProducer();
+        OrderStatePublisher publisher = new OrderStatePublisher(producer, "order-state", true);
+
+        Order order = order("ORD-1", Order.OrderStatus.PENDING);
+        publisher.publishAfterCommit(order, OrderEventType.ORDER_CREATED);
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        publisher.publishAfterCommit(order, OrderEventType.ORDER_CONFIRMED);
+        order.setStatus(Order.OrderStatus.SHIPPED);
+        publisher.publishAfterCommit(order, OrderEventType.ORDER_SHIPPED);
+        publisher.publishAfterCommit(order("ORD-2", Order.OrderStatus.PENDING), OrderEventType.ORDER_CREATED);
+        publisher.flush();
+
+        assertEquals(2, producer.records.size());
+        ProducerRecord<String, Object> first = producer.recordFor("ORD-1");
+        assertEquals("order-state", first.topic());
+        assertEquals("SHIPPED", ((OrderEvent) first.value()).getStatus());
+        assertEquals(OrderEventType.ORDER_SHIPPED, OrderEventHeaders.eventType(first.headers()));
+
+        publisher.flush();
+        assertEquals(2, producer.records.size());
+    }
+
+    @Test
+    void deleteReplacesPendingStateWithTombstone() {
+        RecordingProducer producer = new RecordingProducer();
+        OrderStatePublisher publisher = new OrderStatePublisher(producer, "order-state", true);
+
+        publisher.publishAfterCommit(order("ORD-1", Order.OrderStatus.PENDING), OrderEventType.ORDER_UPDATED);
+        publisher.tombstoneAfterCommit("ORD-1");
+        publisher.flush();
+
+        assertEquals(1, producer.records.size());
+        assertNull(producer.recordFor("ORD-1").value());
+    }
+
+    @Test
+    void failedSendIsRetriedUnlessNewerStateWasSent() {
+        RecordingProducer producer = new RecordingProducer();
+        OrderStatePublisher publisher = new OrderStatePublisher(producer, "order-state", true);
+        Order order = order("ORD-1", Order.OrderStatus.PENDING);
+
+        producer.fail = true;
+        publisher.publishAfterCommit(order, OrderEventType.ORDER_CREATED);
+        publisher.flush();
+        producer.fail = false;
+        publisher.flush();
+        assertEquals(2, producer.records.size());
+
+        // A send that fails after a newer state already went out must not be retried
+        producer.hold = true;
+        publisher.publishAfterCommit(order, OrderEventType.ORDER_UPDATED);
+        publisher.flush();
+        producer.hold = false;
+        order.setStatus(Order.OrderStatus.CANCELLED);
+        publisher.publishAfterCommit(order, OrderEventType.ORDER_CANCELLED);
+        publisher.flush();
+        producer.held.completeExceptionally(new IllegalStateException("broker unavailable"));
+        publisher.flush();
+
+        assertEquals(4, producer.records.size());
+        assertTrue(producer.records.getLast().value() instanceof OrderEvent last
+                && "CANCELLED".equals(last.getStatus()));
+    }
+
+    private static Order order(String orderNumber, Order.OrderStatus status) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setOrderNumber(orderNumber);
+        order.setCustomerId("CUST-1");
+        order.setTotalAmount(10.0);
+        order.setStatus(status);
+        order.setCreatedAt(LocalDateTime.now());
+        return order;
+    }
+
+    private static final class RecordingProducer extends OrderEventProducer {
+
+        private final List<ProducerRecord<String, Object>> records = new ArrayList<>();
+        private boolean fail;
+        private boolean hold;
+        private CompletableFuture<SendResult<String, Object>> held;
+
+        private RecordingProducer() {
+            super(null, null, new SimpleMeterRegistry(), 1, Duration.ZERO);
+        }
+
+        @Override
+        public CompletableFuture<SendResult<String, Object>> send(ProducerRecord<String, Object> record) {
+            records.add(record);
+            if (hold) {
+                held = new CompletableFuture<>();
+                return held;
+            }
+            return fail
+                    ? CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+                    : CompletableFuture.completedFuture(new SendResult<>(record, null));
+        }
+
+        private ProducerRecord<String, Object> recordFor(String key) {
+            return records.stream().filter(record -> key.equals(record.key())).findFirst().orElseThrow();
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.wellsfargo.payment_service;
 
+import com.wellsfargo.service_support.SnowflakeIdGenerator;
+import com.wellsfargo.service_support.diagnostics.VirtualThreadPinningMonitor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import({SnowflakeIdGenerator.class, VirtualThreadPinningMonitor.class})
 public class PaymentServiceApplication {
 
 	public static void main(String[] args) {
@@ -1,6 +1,14 @@
 package com.wellsfargo.payment_service.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventDeserializer;
+import com.wellsfargo.payment_service.kafka.consumer.ByteBufferErrorHandlingDeserializer;
+import com.wellsfargo.payment_service.kafka.consumer.OrderEventConsumer;
+import com.wellsfargo.payment_service.kafka.retry.OrderEventRetryTopics;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,13 +17,16 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.listener.ContainerProperties;
-import org.springframework.kafka.listener.CommonErrorHandler;
-import org.apache.kafka.clients.consumer.Consumer;
-
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Configuration
 @EnableKafka
@@ -26,16 +37,37 @@ public class KafkaConsumerConfig {
     
     @Value("${spring.kafka.consumer.group-id:payment-service-group}")
     private String consumerGroupId;
+    
+    @Value("${spring.kafka.listener.auto-startup:true}")
+    private boolean autoStartup;
+    
+    // Consumers (poll threads) in the order listener; more than the orders topic's partition count leaves
+    // some idle. Processing parallelism is payment.processing.max-concurrency
+    @Value("${payment.kafka.listener.concurrency:3}")
+    private int concurrency;
+    
+    // Which of the two order listeners runs; the other is created but never started
+    @Value("${payment.kafka.listener.mode:BATCH}")
+    private ListenerMode listenerMode;
+    
+    // Consumers per retry tier; retried records are few, so one usually keeps up
+    @Value("${payment.retry.concurrency:1}")
+    private int retryConcurrency;
+    
+    public enum ListenerMode {
+        // One record per listener call, processed on the KeyOrderedRecordProcessor workers
+        RECORD,
+        // One poll per listener call, applied in a single transaction
+        BATCH
+    }
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, OrderEvent> consumerFactory(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         Map<String, Object> configProps = new HashMap<>();
         
         // Basic configuration
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, consumerGroupId);
-        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         
         // Auto offset management
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
@@ -54,33 +86,130 @@ public class KafkaConsumerConfig {
         // Client identification
         configProps.put(ConsumerConfig.CLIENT_ID_CONFIG, "payment-service-consumer");
         
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        // Values are parsed in place from the fetch buffer; malformed ones go to the error handler.
+        // Types this service does not handle are left unparsed (null value) and skipped by the listener
+        DefaultKafkaConsumerFactory<String, OrderEvent> factory = new DefaultKafkaConsumerFactory<>(configProps,
+                new StringDeserializer(), new ByteBufferErrorHandlingDeserializer<>(
+                        new OrderEventDeserializer(objectMapper, OrderEventConsumer.HANDLED_TYPES)));
+        // Binds the client's fetch metrics, including per-partition records-lag and records-consumed-rate
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    // Forwards a failed record to the next retry tier or the dead-letter topic, with the original topic,
+    // partition, offset and the exception in kafka_dlt-* headers. The failed record is only committed once
+    // the forward is acknowledged; if it cannot be sent, the record is redelivered
+    @Bean
+    public DeadLetterPublishingRecoverer orderEventRecoverer(KafkaTemplate<String, Object> kafkaTemplate,
+                                                             OrderEventRetryTopics retryTopics) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                retryTopics::destinationFor);
+        recoverer.setHeadersFunction(retryTopics::headersFor);
+        return recoverer;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = 
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> kafkaListenerContainerFactory(
+            ConsumerFactory<String, OrderEvent> consumerFactory, DeadLetterPublishingRecoverer orderEventRecoverer) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory = 
             new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
         
         // Concurrency settings
-        factory.setConcurrency(3);
+        factory.setConcurrency(concurrency);
         
         // Auto-startup
-        factory.setAutoStartup(true);
+        factory.setAutoStartup(autoStartup && listenerMode == ListenerMode.RECORD);
         
-        // Acknowledgment mode
+        // Acknowledgment mode. Records are finished on worker threads (see KeyOrderedRecordProcessor),
+        // whose acknowledgments the container commits on its next pass through the poll loop; the short
+        // poll timeout bounds that delay while the container is paused or idle. Unhandled event types
+        // reach the listener too, so their offsets are committed in order with the rest
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setPollTimeout(1000);
         
-        // Error handling
-       /* factory.setCommonErrorHandler(new CommonErrorHandler() {
-            @Override
-            public void handle(Exception thrownException, org.springframework.kafka.listener.ConsumerRecord<?, ?> record, 
-                              Consumer<?, ?> consumer) {
-                System.err.println("Error processing message: " + thrownException.getMessage());
-            }
-        });*/
+        // Only malformed records reach the error handler here; they go to the dead-letter topic. Their offset
+        // must not commit past records still in progress on the workers, so it is committed along with the
+        // next finished record after it
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(orderEventRecoverer, new FixedBackOff(0, 0));
+        errorHandler.setAckAfterHandle(false);
+        factory.setCommonErrorHandler(errorHandler);
         
         return factory;
     }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> orderEventBatchListenerContainerFactory(
+            ConsumerFactory<String, OrderEvent> consumerFactory, DeadLetterPublishingRecoverer orderEventRecoverer) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.setAutoStartup(autoStartup && listenerMode == ListenerMode.BATCH);
+        // Offsets are committed once per poll, after the listener returns
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        // The listener names the failing record (BatchListenerFailedException): the records before it are
+        // committed, it is forwarded to the first retry tier at once, and the poll resumes after it
+        factory.setCommonErrorHandler(new DefaultErrorHandler(orderEventRecoverer, new FixedBackOff(0, 0)));
+        return factory;
+    }
+
+    // Retry tier containers (see OrderEventRetryListener). A record that is not yet due is nacked, which
+    // pauses the consumer until it is, so the ack mode must be manual. A failure moves the record on to
+    // the next tier straight away
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> orderEventRetryListenerContainerFactory(
+            ConsumerFactory<String, OrderEvent> consumerFactory, DeadLetterPublishingRecoverer orderEventRecoverer) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(retryConcurrency);
+        factory.setAutoStartup(autoStartup);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(orderEventRecoverer, new FixedBackOff(0, 0)));
+        return factory;
+    }
+
+    // Reads the dead-letter topic for inspection and re-drive: raw bytes, assigned partitions, no group
+    @Bean
+    public ConsumerFactory<String, byte[]> deadLetterConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        configProps.put(ConsumerConfig.CLIENT_ID_CONFIG, "payment-service-dead-letters");
+        return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    // Order view consumer: a group of its own per instance, so each instance reads every partition of
+    // order-state. Positions come from the view's local checkpoint and are never committed to Kafka
+    @Bean
+    public ConsumerFactory<String, OrderEvent> orderViewConsumerFactory(ObjectMapper objectMapper,
+                                                                        MeterRegistry meterRegistry) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "payment-order-view-" + UUID.randomUUID());
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 2000);
+        configProps.put(ConsumerConfig.CLIENT_ID_CONFIG, "payment-service-order-view");
+        DefaultKafkaConsumerFactory<String, OrderEvent> factory = new DefaultKafkaConsumerFactory<>(configProps,
+                new StringDeserializer(), new ByteBufferErrorHandlingDeserializer<>(new OrderEventDeserializer(objectMapper)));
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> orderViewListenerContainerFactory(
+            ConsumerFactory<String, OrderEvent> orderViewConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(orderViewConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setAutoStartup(autoStartup);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
 }
@@ -0,0 +1,51 @@
+package com.wellsfargo.payment_service.config;
+
+import com.wellsfargo.payment_service.kafka.retry.OrderEventRetryTopics;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${payment.retry.partitions:3}")
+    private int partitions;
+
+    @Value("${payment.retry.replicas:1}")
+    private int replicas;
+
+    // Dead letters wait for someone to inspect or re-drive them, so they are kept longer than retries
+    @Value("${payment.retry.dead-letter-retention:14d}")
+    private Duration deadLetterRetention;
+
+    // Creates the topics below at startup if missing; an unreachable broker is logged, not fatal
+    @Bean
+    public KafkaAdmin kafkaAdmin() {
+        return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics orderEventRetryTopicDefinitions(OrderEventRetryTopics retryTopics) {
+        NewTopic[] topics = retryTopics.topics().stream()
+                .map(topic -> {
+                    TopicBuilder builder = TopicBuilder.name(topic).partitions(partitions).replicas(replicas);
+                    if (topic.equals(OrderEventRetryTopics.DEAD_LETTER_TOPIC)) {
+                        builder.config(TopicConfig.RETENTION_MS_CONFIG, Long.toString(deadLetterRetention.toMillis()));
+                    }
+                    return builder.build();
+                })
+                .toArray(NewTopic[]::new);
+        return new KafkaAdmin.NewTopics(topics);
+    }
+}
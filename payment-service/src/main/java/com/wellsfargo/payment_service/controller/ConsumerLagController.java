@@ -0,0 +1,28 @@
+package com.wellsfargo.payment_service.controller;
+
+import com.wellsfargo.payment_service.dto.ConsumerLagResponse;
+import com.wellsfargo.payment_service.metrics.ConsumerLagReporter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/payments/consumer-lag")
+@CrossOrigin(origins = "*")
+public class ConsumerLagController {
+
+    private final ConsumerLagReporter consumerLagReporter;
+
+    public ConsumerLagController(ConsumerLagReporter consumerLagReporter) {
+        this.consumerLagReporter = consumerLagReporter;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ConsumerLagResponse>> getConsumerLag() {
+        return ResponseEntity.ok(consumerLagReporter.currentLag());
+    }
+}
@@ -0,0 +1,55 @@
+package com.wellsfargo.payment_service.controller;
+
+import com.wellsfargo.payment_service.dto.DeadLetterResponse;
+import com.wellsfargo.payment_service.dto.RedriveResponse;
+import com.wellsfargo.payment_service.service.DeadLetterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/payments/dead-letters")
+@CrossOrigin(origins = "*")
+public class DeadLetterController {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterController.class);
+    private final DeadLetterService deadLetterService;
+
+    public DeadLetterController(DeadLetterService deadLetterService) {
+        this.deadLetterService = deadLetterService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<DeadLetterResponse>> getDeadLetters(@RequestParam(required = false) Integer partition,
+                                                                   @RequestParam(required = false) Long offset,
+                                                                   @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(deadLetterService.list(partition, offset, limit));
+    }
+
+    @GetMapping("/{partition}/{offset}")
+    public ResponseEntity<DeadLetterResponse> getDeadLetter(@PathVariable int partition, @PathVariable long offset) {
+        return ResponseEntity.ok(deadLetterService.get(partition, offset));
+    }
+
+    @PostMapping("/{partition}/{offset}/redrive")
+    public ResponseEntity<RedriveResponse> redrive(@PathVariable int partition, @PathVariable long offset) {
+        log.info("REST request to re-drive dead letter {}@{}", partition, offset);
+        return ResponseEntity.ok(deadLetterService.redrive(partition, offset));
+    }
+
+    @PostMapping("/redrive")
+    public ResponseEntity<RedriveResponse> redriveRange(@RequestParam int partition, @RequestParam long from,
+                                                        @RequestParam long to) {
+        log.info("REST request to re-drive dead letters {}@{}-{}", partition, from, to);
+        return ResponseEntity.ok(deadLetterService.redrive(partition, from, to));
+    }
+}
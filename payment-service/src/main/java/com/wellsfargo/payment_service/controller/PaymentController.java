@@ -2,6 +2,7 @@ package com.wellsfargo.payment_service.controller;
 
 import com.wellsfargo.payment_service.entity.Payment;
 import com.wellsfargo.payment_service.service.PaymentService;
+import com.wellsfargo.payment_service.view.OrderView;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +58,14 @@ public class PaymentController {
         return ResponseEntity.ok(payments);
     }
     
+    @GetMapping("/order-view/{orderNumber}")
+    public ResponseEntity<OrderView> getOrderView(@PathVariable String orderNumber) {
+        log.info("REST request to get local order view for order: {}", orderNumber);
+        return paymentService.getOrderView(orderNumber)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/customer/{customerId}")
     public ResponseEntity<List<Payment>> getPaymentsByCustomerId(@PathVariable String customerId) {
         log.info("REST request to get payments for customer: {}", customerId);
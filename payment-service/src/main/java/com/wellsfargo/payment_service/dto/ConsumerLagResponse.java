@@ -0,0 +1,32 @@
+package com.wellsfargo.payment_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumerLagResponse {
+
+    private String listenerId;
+    private String groupId;
+    private boolean running;
+    // Sum over the partitions whose lag is known
+    private long totalLag;
+    private List<PartitionLag> partitions;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PartitionLag {
+        private String topic;
+        private int partition;
+        // Records between the consumer's position and the partition's high watermark; null until first fetch
+        private Long lag;
+    }
+}
@@ -0,0 +1,33 @@
+package com.wellsfargo.payment_service.dto;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterResponse {
+
+    private int partition;
+    private long offset;
+    private Instant timestamp;
+    private String key;
+    private String eventType;
+    private String eventId;
+    // Null if the record could not be read, which is what sent it here
+    private OrderEvent event;
+    // Where the record was first consumed from, before any retry tier
+    private String originalTopic;
+    private Integer originalPartition;
+    private Long originalOffset;
+    private int attempts;
+    private String exceptionClass;
+    private String exceptionCause;
+    private String exceptionMessage;
+}
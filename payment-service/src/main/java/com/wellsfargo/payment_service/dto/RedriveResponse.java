@@ -0,0 +1,19 @@
+package com.wellsfargo.payment_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RedriveResponse {
+
+    private int partition;
+    // Inclusive range of dead-letter offsets that were re-driven
+    private long fromOffset;
+    private long toOffset;
+    private int redriven;
+}
@@ -8,25 +8,34 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payments_payment_number", columnNames = "payment_number")
+}, indexes = {
+        @Index(name = "ix_payments_order_status", columnList = "order_number, status"),
+        @Index(name = "ix_payments_customer_status", columnList = "customer_id, status"),
+        @Index(name = "ix_payments_status", columnList = "status"),
+        @Index(name = "ix_payments_method", columnList = "payment_method")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Payment {
     
+    // Pooled sequence so the batch listener's inserts go out in JDBC batches (002_payment_sequence.sql)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     private Long id;
     
-    @Column(nullable = false, unique = true)
-    @NotBlank(message = "Payment number is required")
+    // Optional on create: a time-ordered PAY- number is generated when omitted
+    @Column(name = "payment_number", nullable = false)
     private String paymentNumber;
     
-    @Column(nullable = false)
+    @Column(name = "order_number", nullable = false)
     @NotBlank(message = "Order number is required")
     private String orderNumber;
     
-    @Column(nullable = false)
+    @Column(name = "customer_id", nullable = false)
     @NotBlank(message = "Customer ID is required")
     private String customerId;
     
@@ -41,7 +50,7 @@ public class Payment {
     private PaymentStatus status;
     
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Column(name = "payment_method", nullable = false)
     @NotNull(message = "Payment method is required")
     private PaymentMethod paymentMethod;
     
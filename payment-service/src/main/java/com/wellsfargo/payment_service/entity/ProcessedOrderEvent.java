@@ -0,0 +1,62 @@
+package com.wellsfargo.payment_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order event this service has applied, written in the same transaction as its payment changes.
+ * The primary key is the event's dedupe key, so a second transaction applying the same event fails
+ * on the insert. Rows older than payment.idempotency.ttl are compacted away.
+ */
+@Entity
+@Table(name = "processed_order_events", indexes = {
+        @Index(name = "ix_processed_order_events_processed_at", columnList = "processed_at")
+})
+@Getter
+@NoArgsConstructor
+public class ProcessedOrderEvent implements Persistable<String> {
+
+    @Id
+    @Column(name = "dedupe_key", length = 100)
+    private String dedupeKey;
+
+    @Column(name = "event_id")
+    private String eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    // Assigned IDs would otherwise make save() select the row before inserting it
+    @Transient
+    private boolean isNew = true;
+
+    public ProcessedOrderEvent(String dedupeKey, String eventId) {
+        this.dedupeKey = dedupeKey;
+        this.eventId = eventId;
+    }
+
+    @Override
+    public String getId() {
+        return dedupeKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        processedAt = LocalDateTime.now();
+    }
+
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,225 @@
+package com.wellsfargo.payment_service.idempotency;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventType;
+import com.wellsfargo.payment_service.repository.ProcessedOrderEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Tells order events already applied from new ones. The processed_order_events table is the record
+ * of truth: its rows are written in the transaction that applies the event, and its primary key
+ * rejects a second one. In front of it, checks are answered in memory where possible:
+ * <ul>
+ *   <li>an LRU of recently applied keys answers the common duplicates, redeliveries after a retry
+ *       or rebalance, without any lookup;</li>
+ *   <li>a Bloom filter over every stored key answers "new" for most first-time events, again
+ *       without a lookup. Only when it answers "maybe" is the table queried.</li>
+ * </ul>
+ * The filter only knows the keys this instance has applied or loaded, so a key another instance
+ * applied since the last rebuild can slip past as new. The primary key still rejects it, and
+ * {@link #confirmDuplicate} settles it with a lookup. Until the first rebuild after startup, every
+ * check goes to the table.
+ * <p>
+ * Rows older than {@code ttl} are deleted every {@code compaction-interval}, and the filter is then
+ * rebuilt from the rows left. An event redelivered after its row was compacted is applied again.
+ */
+@Component
+@Slf4j
+public class OrderEventDeduplicator {
+
+    private final ProcessedOrderEventRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+    private final Duration ttl;
+    private final Map<String, Boolean> recent;
+    private volatile BloomFilter filter;
+    // While a rebuild runs, keys applied meanwhile go to the new filter too
+    private volatile BloomFilter rebuilding;
+    private volatile boolean warm;
+
+    private final Counter newEvents;
+    private final Counter duplicateEvents;
+    private final Counter filterNegatives;
+    private final Counter filterFalsePositives;
+    private final Counter filterTruePositives;
+
+    public OrderEventDeduplicator(ProcessedOrderEventRepository repository, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${payment.idempotency.expected-events:1000000}") long expectedKeys,
+                                  @Value("${payment.idempotency.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${payment.idempotency.lru-size:10000}") int lruSize,
+                                  @Value("${payment.idempotency.ttl:7d}") Duration ttl) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveRate = falsePositiveRate;
+        this.ttl = ttl;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > lruSize;
+            }
+        };
+        this.filter = new BloomFilter(expectedKeys, falsePositiveRate);
+
+        this.newEvents = events(meterRegistry, "new");
+        this.duplicateEvents = events(meterRegistry, "duplicate");
+        this.filterNegatives = filterChecks(meterRegistry, "negative");
+        this.filterFalsePositives = filterChecks(meterRegistry, "false-positive");
+        this.filterTruePositives = filterChecks(meterRegistry, "true-positive");
+        Gauge.builder("payment.idempotency.filter.expected-fpp", this, d -> d.filter.expectedFalsePositiveRate())
+                .description("False positive probability of the Bloom filter at its current fill")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The key an event is deduplicated on. Each order is created and cancelled at most once, so the
+     * type and order number identify the event even when it was published twice under two event IDs.
+     */
+    public static String keyFor(OrderEventType type, OrderEvent event) {
+        return type.name() + ":" + event.getOrderNumber();
+    }
+
+    public boolean isDuplicate(String key) {
+        return !duplicates(List.of(key)).isEmpty();
+    }
+
+    /**
+     * The given keys that were already applied, found with at most one query. A key repeated in
+     * {@code keys} counts as a duplicate in the metrics, but callers drop the repeats themselves.
+     */
+    public Set<String> duplicates(List<String> keys) {
+        Set<String> duplicates = new HashSet<>();
+        Set<String> unique = new HashSet<>();
+        List<String> lookups = new ArrayList<>();
+        boolean filtered = warm;
+        for (String key : keys) {
+            if (!unique.add(key)) {
+                duplicateEvents.increment();
+            } else if (recentlyApplied(key)) {
+                duplicates.add(key);
+            } else if (!filtered || filter.mightContain(key)) {
+                lookups.add(key);
+            } else {
+                filterNegatives.increment();
+            }
+        }
+        if (!lookups.isEmpty()) {
+            Set<String> found = new HashSet<>(repository.findExistingKeys(lookups));
+            if (filtered) {
+                filterTruePositives.increment(found.size());
+                filterFalsePositives.increment(lookups.size() - found.size());
+            }
+            found.forEach(this::remember);
+            duplicates.addAll(found);
+        }
+        duplicateEvents.increment(duplicates.size());
+        newEvents.increment(unique.size() - duplicates.size());
+        return duplicates;
+    }
+
+    /**
+     * After an insert into processed_order_events failed, checks whether it was because the key is
+     * already there. If so the event is a duplicate that slipped past the filter.
+     */
+    public boolean confirmDuplicate(String key) {
+        if (repository.existsById(key)) {
+            log.debug("Order event {} was applied elsewhere since the last filter rebuild", key);
+            remember(key);
+            // The earlier check counted it as new
+            duplicateEvents.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /** Call once the transaction that stored the keys has committed. */
+    public void remember(Collection<String> keys) {
+        keys.forEach(this::remember);
+    }
+
+    public void remember(String key) {
+        filter.put(key);
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(key);
+        }
+        synchronized (recent) {
+            recent.put(key, Boolean.TRUE);
+        }
+    }
+
+    // Also runs once at startup, which loads the filter
+    @Scheduled(fixedDelayString = "${payment.idempotency.compaction-interval:1h}")
+    public void compactAndRebuild() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        Integer deleted = transactionTemplate.execute(status -> repository.deleteProcessedBefore(cutoff));
+        long started = System.nanoTime();
+        BloomFilter next = new BloomFilter(expectedKeys, falsePositiveRate);
+        rebuilding = next;
+        long loaded;
+        try {
+            loaded = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<String> keys = repository.streamAllKeys()) {
+                    for (String key : (Iterable<String>) keys::iterator) {
+                        next.put(key);
+                        count++;
+                    }
+                }
+                return count;
+            });
+        } finally {
+            rebuilding = null;
+        }
+        filter = next;
+        warm = true;
+        log.info("Compacted {} processed order events older than {}; filter rebuilt from {} keys in {} ms",
+                deleted, ttl, loaded, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        if (loaded > expectedKeys) {
+            log.warn("{} processed order events exceed payment.idempotency.expected-events={}; filter false "
+                    + "positive rate is now {}", loaded, expectedKeys, next.expectedFalsePositiveRate());
+        }
+    }
+
+    private boolean recentlyApplied(String key) {
+        synchronized (recent) {
+            return recent.get(key) != null;
+        }
+    }
+
+    private static Counter events(MeterRegistry registry, String result) {
+        return Counter.builder("payment.idempotency.events")
+                .description("Order events checked for duplicates, by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    // Only checks the LRU did not answer; false-positive / (negative + false-positive) is the observed rate
+    private static Counter filterChecks(MeterRegistry registry, String result) {
+        return Counter.builder("payment.idempotency.filter")
+                .description("Bloom filter answers, by whether the processed event store agreed")
+                .tag("result", result)
+                .register(registry);
+    }
+}
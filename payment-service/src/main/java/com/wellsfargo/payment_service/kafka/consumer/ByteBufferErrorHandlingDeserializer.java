@@ -0,0 +1,33 @@
+package com.wellsfargo.payment_service.kafka.consumer;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link ErrorHandlingDeserializer} that passes the consumer's ByteBuffer straight to the delegate.
+ * The base class only implements the byte[] variants, so every record would be copied out of the
+ * fetch buffer first. Failed records are re-run through the base class so they still reach the
+ * container's error handler as a DeserializationException.
+ */
+public class ByteBufferErrorHandlingDeserializer<T> extends ErrorHandlingDeserializer<T> {
+    
+    private final Deserializer<T> delegate;
+    
+    public ByteBufferErrorHandlingDeserializer(Deserializer<T> delegate) {
+        super(delegate);
+        this.delegate = delegate;
+    }
+    
+    @Override
+    public T deserialize(String topic, Headers headers, ByteBuffer data) {
+        try {
+            return delegate.deserialize(topic, headers, data == null ? null : data.duplicate());
+        } catch (Exception e) {
+            return super.deserialize(topic, headers, data == null ? null : Utils.toArray(data));
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.wellsfargo.payment_service.kafka.consumer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs order event records off the listener threads on a bounded worker pool. Records with the same
+ * key run one at a time in offset order; records with different keys run in parallel, so throughput
+ * follows the number of distinct keys rather than the number of partitions.
+ * <p>
+ * Each partition's offsets are committed only up to its lowest record still in progress (see
+ * {@link PartitionOffsetTracker}). When more than {@code max-in-flight} records are waiting or
+ * running, the listener container is paused, and it resumes once half of them have finished.
+ * A record that fails every attempt is handed to the recoverer, which forwards it to the first retry
+ * tier (see {@code OrderEventRetryTopics}); only the record's own key waits out the in-place attempts.
+ * If the recoverer itself fails, forwarding is retried with backoff until it succeeds or the
+ * partition is revoked, holding back the partition's commits meanwhile.
+ * Delivery is at least once: records in progress when their partition is revoked, or when the
+ * service stops, are delivered again to the next owner.
+ */
+@Component
+@Slf4j
+public class KeyOrderedRecordProcessor {
+
+    private static final CompletableFuture<Void> IDLE = CompletableFuture.completedFuture(null);
+    private static final Duration MIN_FORWARD_BACKOFF = Duration.ofMillis(100);
+    private static final Duration MAX_FORWARD_BACKOFF = Duration.ofSeconds(30);
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final ConsumerRecordRecoverer recoverer;
+    private final ExecutorService workers;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    // Last task queued per record key; a new record for the key runs after it
+    private final Map<String, CompletableFuture<Void>> keyTails = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionOffsetTracker> partitions = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean paused;
+
+    public KeyOrderedRecordProcessor(KafkaListenerEndpointRegistry registry, ConsumerRecordRecoverer recoverer,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${payment.processing.max-concurrency:64}") int maxConcurrency,
+                                     @Value("${payment.processing.max-in-flight:2000}") int maxInFlight,
+                                     @Value("${payment.processing.max-attempts:3}") int maxAttempts,
+                                     @Value("${payment.processing.retry-backoff:1s}") Duration retryBackoff,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.registry = registry;
+        this.recoverer = recoverer;
+        ThreadFactory threads = virtualThreads
+                ? Thread.ofVirtual().name("payment-worker-", 0).factory()
+                : Thread.ofPlatform().name("payment-worker-", 0).daemon().factory();
+        this.workers = Executors.newFixedThreadPool(maxConcurrency, threads);
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        Gauge.builder("payment.processing.in-flight", inFlight, AtomicInteger::get)
+                .description("Order event records handed to the worker pool and not yet finished")
+                .register(meterRegistry);
+        Gauge.builder("payment.processing.active-keys", keyTails, Map::size)
+                .description("Record keys with a record waiting or running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues {@code work} behind any earlier record with the same key. It is retried up to
+     * {@code max-attempts} times; a record that still fails counts as finished once the recoverer
+     * has taken it.
+     */
+    public void submit(ConsumerRecord<String, ?> record, Acknowledgment acknowledgment, Runnable work) {
+        PartitionOffsetTracker tracker = track(record);
+        String key = record.key() != null ? record.key() : "partition-" + record.partition();
+        Runnable task = () -> {
+            boolean done = false;
+            try {
+                done = runWithRetries(tracker, record, work);
+            } finally {
+                finish(tracker, record, done ? acknowledgment : null);
+            }
+        };
+        CompletableFuture<Void> next = keyTails.compute(key,
+                (k, tail) -> (tail == null ? IDLE : tail).thenRunAsync(task, workers));
+        // Attached outside compute: a task that has already finished runs this inline, and the map must
+        // not be updated from within its own compute
+        next.whenComplete((result, failure) -> keyTails.remove(key, next));
+        pauseIfFull();
+    }
+
+    /** Records that need no work still take their place in the commit order. */
+    public void skip(ConsumerRecord<String, ?> record, Acknowledgment acknowledgment) {
+        finish(track(record), record, acknowledgment);
+    }
+
+    // Called on the consumer thread during a rebalance; work already queued still runs, but its offsets
+    // are no longer acknowledged
+    public void onPartitionsRevoked(Collection<TopicPartition> revoked) {
+        for (TopicPartition partition : revoked) {
+            PartitionOffsetTracker tracker = partitions.remove(partition);
+            if (tracker != null) {
+                log.info("Partition {} revoked with {} records in progress", partition, tracker.inProgress());
+                tracker.revoke();
+            }
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("{} order event records still in progress at shutdown; they will be redelivered", inFlight.get());
+            workers.shutdownNow();
+        }
+    }
+
+    private PartitionOffsetTracker track(ConsumerRecord<String, ?> record) {
+        PartitionOffsetTracker tracker = partitions.computeIfAbsent(
+                new TopicPartition(record.topic(), record.partition()), partition -> new PartitionOffsetTracker());
+        tracker.register(record.offset());
+        inFlight.incrementAndGet();
+        return tracker;
+    }
+
+    // A null acknowledgment leaves the record in progress, holding back its partition's commits
+    private void finish(PartitionOffsetTracker tracker, ConsumerRecord<String, ?> record, Acknowledgment acknowledgment) {
+        if (acknowledgment != null) {
+            tracker.complete(record.offset(), acknowledgment);
+        }
+        inFlight.decrementAndGet();
+        resumeIfDrained();
+    }
+
+    // False if interrupted by shutdown, or if the partition was revoked before the recoverer took the record,
+    // when the record must not be acknowledged as finished
+    private boolean runWithRetries(PartitionOffsetTracker tracker, ConsumerRecord<String, ?> record, Runnable work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                work.run();
+                return !Thread.currentThread().isInterrupted();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    return recover(tracker, record, e, attempt);
+                }
+                log.warn("Attempt {} for order event {}-{}@{} failed, retrying in {}: {}",
+                        attempt, record.topic(), record.partition(), record.offset(), retryBackoff, e.toString());
+                try {
+                    Thread.sleep(retryBackoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    // Skipping a record that was not forwarded would lose it, so forwarding is retried until it succeeds
+    private boolean recover(PartitionOffsetTracker tracker, ConsumerRecord<String, ?> record,
+                            RuntimeException failure, int attempts) {
+        log.warn("Order event {}-{}@{} failed {} attempts, forwarding it for retry: {}",
+                record.topic(), record.partition(), record.offset(), attempts, failure.toString());
+        Duration backoff = retryBackoff.compareTo(MIN_FORWARD_BACKOFF) > 0 ? retryBackoff : MIN_FORWARD_BACKOFF;
+        while (true) {
+            try {
+                recoverer.accept(record, failure);
+                return true;
+            } catch (RuntimeException e) {
+                if (tracker.isRevoked()) {
+                    log.warn("Could not forward order event {}-{}@{}; its partition was revoked and the new owner "
+                            + "will redeliver it", record.topic(), record.partition(), record.offset(), e);
+                    return false;
+                }
+                log.error("Could not forward order event {}-{}@{}, retrying in {}",
+                        record.topic(), record.partition(), record.offset(), backoff, e);
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoff = backoff.multipliedBy(2).compareTo(MAX_FORWARD_BACKOFF) < 0
+                    ? backoff.multipliedBy(2) : MAX_FORWARD_BACKOFF;
+        }
+    }
+
+    private synchronized void pauseIfFull() {
+        if (!paused && inFlight.get() >= maxInFlight) {
+            paused = true;
+            log.debug("Pausing order event listener with {} records in flight", inFlight.get());
+            container().ifPresent(MessageListenerContainer::pause);
+        }
+    }
+
+    private void resumeIfDrained() {
+        if (paused && inFlight.get() <= maxInFlight / 2) {
+            synchronized (this) {
+                if (paused && inFlight.get() <= maxInFlight / 2) {
+                    paused = false;
+                    log.debug("Resuming order event listener with {} records in flight", inFlight.get());
+                    container().ifPresent(MessageListenerContainer::resume);
+                }
+            }
+        }
+    }
+
+    private Optional<MessageListenerContainer> container() {
+        return Optional.ofNullable(registry.getListenerContainer(OrderEventConsumer.LISTENER_ID));
+    }
+}
@@ -1,87 +1,235 @@
 package com.wellsfargo.payment_service.kafka.consumer;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.wellsfargo.payment_service.kafka.event.OrderCreatedEvent;
-import lombok.RequiredArgsConstructor;
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventHeaders;
+import com.wellsfargo.order_event_contract.OrderEventType;
+import com.wellsfargo.payment_service.entity.ProcessedOrderEvent;
+import com.wellsfargo.payment_service.idempotency.OrderEventDeduplicator;
+import com.wellsfargo.payment_service.metrics.OrderEventMetrics;
+import com.wellsfargo.payment_service.service.PaymentService;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.support.KafkaUtils;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class OrderEventConsumer {
-    
-    private final ObjectMapper objectMapper;
+public class OrderEventConsumer implements ConsumerSeekAware {
     
+    public static final String LISTENER_ID = "order-events";
+    public static final String BATCH_LISTENER_ID = "order-events-batch";
     private static final String ORDER_TOPIC = "orders";
     private static final String CONSUMER_GROUP = "payment-service-group";
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(OrderEventConsumer.class);
+    
+    // Every other type (updates, confirmation, shipping) is left unparsed and skipped by header
+    public static final Set<OrderEventType> HANDLED_TYPES =
+            EnumSet.of(OrderEventType.ORDER_CREATED, OrderEventType.ORDER_CANCELLED);
+    
+    private final PaymentService paymentService;
+    private final OrderEventMetrics metrics;
+    private final KeyOrderedRecordProcessor processor;
+    private final OrderEventDeduplicator deduplicator;
+    
+    public OrderEventConsumer(PaymentService paymentService, OrderEventMetrics metrics,
+                              KeyOrderedRecordProcessor processor, OrderEventDeduplicator deduplicator) {
+        this.paymentService = paymentService;
+        this.metrics = metrics;
+        this.processor = processor;
+        this.deduplicator = deduplicator;
+    }
     
+    // Record mode (payment.kafka.listener.mode=RECORD). Runs on a listener thread and only hands the
+    // record to the processor, so the poll loop is never held up by payment work. Values arrive already
+    // deserialized by OrderEventDeserializer; malformed ones are sent to the dead-letter topic by the
+    // container's error handler before reaching this listener, and unhandled types arrive unparsed with a
+    // null value. A record that fails every in-place attempt moves to the retry topics
     @KafkaListener(
+        id = LISTENER_ID,
         topics = ORDER_TOPIC,
         groupId = CONSUMER_GROUP,
         containerFactory = "kafkaListenerContainerFactory"
     )
-    public void handleOrderCreatedEvent(
-            @Payload String message,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
+    public void handleOrderEvent(ConsumerRecord<String, OrderEvent> record, Acknowledgment acknowledgment) {
+        OrderEventType type = OrderEventHeaders.eventType(record.headers());
+        OrderEvent orderEvent = record.value();
+        if (!HANDLED_TYPES.contains(type) || orderEvent == null) {
+            log.debug("Ignoring {} event at {}-{}@{}", type, record.topic(), record.partition(), record.offset());
+            processor.skip(record, acknowledgment);
+            return;
+        }
+        log.debug("Received {} event for order {} from {}-{}@{}", type, orderEvent.getOrderNumber(),
+                record.topic(), record.partition(), record.offset());
+        processor.submit(record, acknowledgment, () -> process(type, orderEvent));
+    }
+    
+    // Batch mode (payment.kafka.listener.mode=BATCH): the whole poll is applied in one transaction, with
+    // the new payments inserted in JDBC batches, and its offsets committed once when the listener returns.
+    // Events already applied, and repeats within the poll, are dropped first. If the batch transaction
+    // fails, the records are applied again one at a time, each in a transaction of its own, so one bad
+    // record does not hold back the rest: the error handler commits the records before it, forwards it to
+    // the retry topics and carries on after it. An unreadable record ends the batch the same way
+    @KafkaListener(
+        id = BATCH_LISTENER_ID,
+        topics = ORDER_TOPIC,
+        groupId = CONSUMER_GROUP,
+        containerFactory = "orderEventBatchListenerContainerFactory"
+    )
+    public void handleOrderEvents(List<ConsumerRecord<String, OrderEvent>> records) {
+        long start = System.nanoTime();
+        List<ConsumerRecord<String, OrderEvent>> handled = new ArrayList<>(records.size());
+        List<String> keys = new ArrayList<>(records.size());
+        ConsumerRecord<String, OrderEvent> unreadable = null;
+        for (ConsumerRecord<String, OrderEvent> record : records) {
+            if (record.headers().lastHeader(KafkaUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+                unreadable = record;
+                break;
+            }
+            OrderEventType type = OrderEventHeaders.eventType(record.headers());
+            OrderEvent orderEvent = record.value();
+            if (!HANDLED_TYPES.contains(type) || orderEvent == null) {
+                continue;
+            }
+            handled.add(record);
+            keys.add(OrderEventDeduplicator.keyFor(type, orderEvent));
+        }
         
+        // Keys applied before start out seen; a repeat within this poll is seen once its first copy is
+        Set<String> seen = handled.isEmpty() ? new HashSet<>() : deduplicator.duplicates(keys);
+        List<ConsumerRecord<String, OrderEvent>> applied = new ArrayList<>(handled.size());
+        List<OrderEvent> created = new ArrayList<>();
+        Set<String> cancelled = new LinkedHashSet<>();
+        List<ProcessedOrderEvent> processed = new ArrayList<>();
+        for (int i = 0; i < handled.size(); i++) {
+            ConsumerRecord<String, OrderEvent> record = handled.get(i);
+            String key = keys.get(i);
+            if (!seen.add(key)) {
+                log.info("Skipping duplicate order event {} at {}-{}@{}", key, record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            applied.add(record);
+            processed.add(new ProcessedOrderEvent(key, record.value().getEventId()));
+            if (OrderEventHeaders.eventType(record.headers()) == OrderEventType.ORDER_CREATED) {
+                created.add(record.value());
+            } else {
+                cancelled.add(record.value().getOrderNumber());
+            }
+        }
+        if (applied.isEmpty()) {
+            log.debug("Ignoring batch of {} records without new payment events", records.size());
+            metrics.recordBatch(records.size(), applied, start);
+        } else {
+            try {
+                int payments = paymentService.applyOrderEvents(created, cancelled, processed);
+                deduplicator.remember(processed.stream().map(ProcessedOrderEvent::getDedupeKey).toList());
+                metrics.recordBatch(records.size(), applied, start);
+                log.debug("Applied {} order events from a batch of {}: {} payments created, {} orders cancelled",
+                        applied.size(), records.size(), payments, cancelled.size());
+            } catch (RuntimeException e) {
+                log.warn("Batch of {} order events failed, applying them one at a time: {}", applied.size(), e.toString());
+                processOneByOne(applied);
+            }
+        }
+        if (unreadable != null) {
+            throw unreadable(unreadable);
+        }
+    }
+    
+    // Retry tiers (see OrderEventRetryListener): the record has passed its retry delay and is applied on
+    // the tier's listener thread. A thrown exception forwards it to the next tier or the dead-letter topic
+    public void handleRetry(ConsumerRecord<String, OrderEvent> record) {
+        OrderEventType type = OrderEventHeaders.eventType(record.headers());
+        OrderEvent orderEvent = record.value();
+        if (!HANDLED_TYPES.contains(type) || orderEvent == null) {
+            log.warn("Ignoring {} event at {}-{}@{} on a retry topic", type, record.topic(), record.partition(), record.offset());
+            return;
+        }
+        log.info("Retrying {} event for order {} from {}-{}@{}", type, orderEvent.getOrderNumber(),
+                record.topic(), record.partition(), record.offset());
+        process(type, orderEvent);
+    }
+    
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        processor.onPartitionsRevoked(partitions);
+    }
+    
+    // Carries the deserializer's exception so the record goes straight to the dead-letter topic, as bytes
+    private BatchListenerFailedException unreadable(ConsumerRecord<String, OrderEvent> record) {
+        String message = "Unreadable order event " + record.topic() + "-" + record.partition() + "@" + record.offset();
+        log.warn(message);
+        Exception cause = SerializationUtils.getExceptionFromHeader(record,
+                KafkaUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+        return new BatchListenerFailedException(message, cause != null ? cause : new IllegalStateException(message), record);
+    }
+    
+    private void processOneByOne(List<ConsumerRecord<String, OrderEvent>> records) {
+        for (ConsumerRecord<String, OrderEvent> record : records) {
+            try {
+                process(OrderEventHeaders.eventType(record.headers()), record.value());
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Order event " + record.topic() + "-" + record.partition()
+                        + "@" + record.offset() + " failed", e, record);
+            }
+        }
+    }
+    
+    // Runs on a worker thread in record mode, where a thrown exception is retried by the processor, on
+    // the listener thread when a failed batch is replayed record by record, and on a retry tier's thread
+    private void process(OrderEventType type, OrderEvent orderEvent) {
+        String key = OrderEventDeduplicator.keyFor(type, orderEvent);
+        if (deduplicator.isDuplicate(key)) {
+            log.info("Skipping duplicate order event {}", key);
+            return;
+        }
+        long start = System.nanoTime();
         try {
-            log.info("Received order event from topic: {}, partition: {}, offset: {}", topic, partition, offset);
+            log.debug("Processing {} event for order: {}, customer: {}, amount: {}", 
+                    type,
+                    orderEvent.getOrderNumber(), 
+                    orderEvent.getCustomerId(), 
+                    orderEvent.getTotalAmount());
             
-            OrderCreatedEvent orderCreatedEvent = objectMapper.readValue(message, OrderCreatedEvent.class);
+            // A created order gets a PENDING payment; the gateway round trip is PaymentService.processPayment
+            List<ProcessedOrderEvent> processed = List.of(new ProcessedOrderEvent(key, orderEvent.getEventId()));
+            switch (type) {
+                case ORDER_CREATED -> paymentService.applyOrderEvents(List.of(orderEvent), List.of(), processed);
+                case ORDER_CANCELLED -> paymentService.applyOrderEvents(List.of(), List.of(orderEvent.getOrderNumber()), processed);
+                default -> log.debug("Ignoring {} event for order: {}", type, orderEvent.getOrderNumber());
+            }
+            deduplicator.remember(key);
             
-            log.info("Processing order created event for order: {}, customer: {}, amount: {}", 
-                    orderCreatedEvent.getOrderNumber(), 
-                    orderCreatedEvent.getCustomerId(), 
-                    orderCreatedEvent.getTotalAmount());
+            metrics.recordProcessed(type, orderEvent, start, true);
+            log.debug("Successfully processed order event for order: {}", orderEvent.getOrderNumber());
             
-            // Process the order event (e.g., initiate payment)
-            processOrderPayment(orderCreatedEvent);
-            
-            // Acknowledge the message
-            acknowledgment.acknowledge();
-            log.info("Successfully processed and acknowledged order event for order: {}", 
-                    orderCreatedEvent.getOrderNumber());
-            
-        } catch (JsonProcessingException e) {
-            log.error("Error deserializing order event message: {}", message, e);
-            // In a real application, you might want to move this to a dead-letter topic
-            acknowledgment.acknowledge();
+        } catch (DataIntegrityViolationException e) {
+            if (deduplicator.confirmDuplicate(key)) {
+                log.info("Skipping duplicate order event {}", key);
+                return;
+            }
+            metrics.recordProcessed(type, orderEvent, start, false);
+            log.error("Error processing order event for order: {}", orderEvent.getOrderNumber(), e);
+            throw e;
         } catch (Exception e) {
-            log.error("Error processing order event", e);
-            // Don't acknowledge so the message can be retried
+            metrics.recordProcessed(type, orderEvent, start, false);
+            log.error("Error processing order event for order: {}", orderEvent.getOrderNumber(), e);
             throw e;
         }
     }
-    
-    private void processOrderPayment(OrderCreatedEvent orderCreatedEvent) {
-        // TODO: Implement payment processing logic
-        // This is where you would:
-        // 1. Create a payment record
-        // 2. Initiate payment gateway integration
-        // 3. Update payment status
-        // 4. Publish payment events
-        
-        log.info("Initiating payment processing for order: {}, amount: {}", 
-                orderCreatedEvent.getOrderNumber(), 
-                orderCreatedEvent.getTotalAmount());
-        
-        // Simulate payment processing
-        try {
-            Thread.sleep(1000); // Simulate processing time
-            log.info("Payment processing completed for order: {}", orderCreatedEvent.getOrderNumber());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Payment processing interrupted for order: {}", orderCreatedEvent.getOrderNumber());
-        }
-    }
 }
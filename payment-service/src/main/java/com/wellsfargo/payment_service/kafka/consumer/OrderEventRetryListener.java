@@ -0,0 +1,87 @@
+package com.wellsfargo.payment_service.kafka.consumer;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.payment_service.kafka.retry.OrderEventRetryTopics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One listener container per retry tier. A record is applied once its {@code retry-not-before}
+ * time has passed; until then it is nacked, which pauses that tier's consumer for the rest of the
+ * delay and delivers the record again. Records in a tier share its delay and arrive in the order
+ * they failed, so the head of a partition is always the next one due. A tier with its own
+ * consumer never holds up the orders topic or the other tiers. The containers are built here
+ * rather than through {@code @KafkaListener}, so they are not in the listener endpoint registry.
+ */
+@Component
+@Slf4j
+public class OrderEventRetryListener implements SmartLifecycle {
+
+    private static final String CONSUMER_GROUP = "payment-service-retry";
+
+    private final List<ConcurrentMessageListenerContainer<String, OrderEvent>> containers = new ArrayList<>();
+    private volatile boolean running;
+
+    public OrderEventRetryListener(OrderEventRetryTopics retryTopics, OrderEventConsumer consumer,
+                                   @Qualifier("orderEventRetryListenerContainerFactory")
+                                   ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory) {
+        for (OrderEventRetryTopics.Tier tier : retryTopics.tiers()) {
+            ConcurrentMessageListenerContainer<String, OrderEvent> container = factory.createContainer(tier.topic());
+            container.getContainerProperties().setGroupId(CONSUMER_GROUP);
+            container.getContainerProperties().setClientId("payment-service-" + tier.topic());
+            container.setBeanName(tier.topic());
+            container.setupMessageListener((AcknowledgingMessageListener<String, OrderEvent>) (record, acknowledgment) -> {
+                long wait = OrderEventRetryTopics.notBeforeOf(record) - System.currentTimeMillis();
+                if (wait > 0) {
+                    acknowledgment.nack(Duration.ofMillis(wait));
+                    return;
+                }
+                consumer.handleRetry(record);
+                acknowledgment.acknowledge();
+            });
+            containers.add(container);
+        }
+    }
+
+    public List<ConcurrentMessageListenerContainer<String, OrderEvent>> containers() {
+        return Collections.unmodifiableList(containers);
+    }
+
+    @Override
+    public void start() {
+        for (ConcurrentMessageListenerContainer<String, OrderEvent> container : containers) {
+            if (container.isAutoStartup()) {
+                container.start();
+            }
+        }
+        running = true;
+        log.info("Listening on {} order event retry topics", containers.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        containers.forEach(ConcurrentMessageListenerContainer::stop);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Started after, and stopped before, the orders listener containers
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 50;
+    }
+}
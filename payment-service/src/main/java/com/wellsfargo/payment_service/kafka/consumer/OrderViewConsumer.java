@@ -0,0 +1,63 @@
+package com.wellsfargo.payment_service.kafka.consumer;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.payment_service.view.OrderViewStore;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.KafkaUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Feeds the compacted {@code order-state} topic into {@link OrderViewStore}. On assignment each
+ * partition is positioned at the offset the store last checkpointed, or at the beginning if the
+ * store has never seen it.
+ */
+@Service
+@Slf4j
+public class OrderViewConsumer implements ConsumerSeekAware {
+
+    private final OrderViewStore orderViewStore;
+
+    public OrderViewConsumer(OrderViewStore orderViewStore) {
+        this.orderViewStore = orderViewStore;
+    }
+
+    @KafkaListener(
+        id = "order-view",
+        idIsGroup = false,
+        topics = "${payment.order-view.topic:order-state}",
+        containerFactory = "orderViewListenerContainerFactory",
+        autoStartup = "${payment.order-view.enabled:true}"
+    )
+    public void applyOrderStates(List<ConsumerRecord<String, OrderEvent>> records) {
+        for (ConsumerRecord<String, OrderEvent> record : records) {
+            // A value that failed to parse also arrives as null; it must not be mistaken for a tombstone
+            if (record.headers().lastHeader(KafkaUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+                log.warn("Skipping unreadable order state at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                orderViewStore.apply(record.partition(), record.offset(), null, null);
+                continue;
+            }
+            orderViewStore.apply(record.partition(), record.offset(), record.key(), record.value());
+        }
+        log.debug("Applied {} order state records, view holds {} orders", records.size(), orderViewStore.size());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        for (TopicPartition partition : assignments.keySet()) {
+            OptionalLong next = orderViewStore.nextOffset(partition.partition());
+            if (next.isPresent()) {
+                callback.seek(partition.topic(), partition.partition(), next.getAsLong());
+            } else {
+                callback.seekToBeginning(List.of(partition));
+            }
+        }
+    }
+}
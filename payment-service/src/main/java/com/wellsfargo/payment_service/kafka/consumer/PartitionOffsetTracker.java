@@ -0,0 +1,72 @@
+package com.wellsfargo.payment_service.kafka.consumer;
+
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Offsets of one assigned partition whose records are being processed out of order. The committed
+ * position only ever advances to the lowest offset still in progress, so a crash can repeat
+ * finished work but never skip unfinished work. Each advance acknowledges the highest finished
+ * record below the new position, under this tracker's lock, so a partition's acknowledgments reach
+ * the container in offset order.
+ */
+class PartitionOffsetTracker {
+
+    private final NavigableSet<Long> inProgress = new TreeSet<>();
+    // Finished records at or above the committed position, by offset
+    private final TreeMap<Long, Acknowledgment> finished = new TreeMap<>();
+    private long highestRegistered = -1;
+    // Next offset to consume as last acknowledged; -1 until the first acknowledgment
+    private long committed = -1;
+    private boolean revoked;
+
+    synchronized void register(long offset) {
+        inProgress.add(offset);
+        highestRegistered = Math.max(highestRegistered, offset);
+    }
+
+    /**
+     * Marks a registered record finished and acknowledges the new committable prefix, if any.
+     * Returns false if the partition was revoked meanwhile, in which case nothing is acknowledged:
+     * its new owner resumes from the last commit.
+     */
+    synchronized boolean complete(long offset, Acknowledgment acknowledgment) {
+        if (revoked) {
+            return false;
+        }
+        inProgress.remove(offset);
+        finished.put(offset, acknowledgment);
+        long next = inProgress.isEmpty() ? highestRegistered + 1 : inProgress.first();
+        if (next > committed) {
+            Map.Entry<Long, Acknowledgment> last = finished.floorEntry(next - 1);
+            if (last != null) {
+                last.getValue().acknowledge();
+                committed = last.getKey() + 1;
+                finished.headMap(next).clear();
+            }
+        }
+        return true;
+    }
+
+    synchronized void revoke() {
+        revoked = true;
+        inProgress.clear();
+        finished.clear();
+    }
+
+    synchronized boolean isRevoked() {
+        return revoked;
+    }
+
+    synchronized int inProgress() {
+        return inProgress.size();
+    }
+
+    synchronized long committed() {
+        return committed;
+    }
+}
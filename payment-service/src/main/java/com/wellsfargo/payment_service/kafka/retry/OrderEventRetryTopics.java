@@ -0,0 +1,116 @@
+package com.wellsfargo.payment_service.kafka.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.KafkaUtils;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where an order event goes when processing it fails: the orders topic feeds retry tier 1, each
+ * tier feeds the next, and the last tier feeds the dead-letter topic. Tier n holds records for
+ * {@code payment.retry.delays[n-1]} before they are processed again, so a failing order waits on
+ * the side while the records behind it keep flowing. Records that cannot be deserialized go
+ * straight to the dead-letter topic, as no retry could read them.
+ * <p>
+ * Each forwarded record carries the {@link #ATTEMPT} and {@link #NOT_BEFORE} headers on top of the
+ * original and exception headers added by the dead-letter publisher.
+ */
+@Component
+public class OrderEventRetryTopics {
+
+    public static final String MAIN_TOPIC = "orders";
+    public static final String DEAD_LETTER_TOPIC = MAIN_TOPIC + "-dlt";
+    /** Failed attempts so far, including the one that forwarded the record. */
+    public static final String ATTEMPT = "retry-attempt";
+    /** Epoch millis before which a retry tier does not process the record. */
+    public static final String NOT_BEFORE = "retry-not-before";
+
+    private final List<Tier> tiers = new ArrayList<>();
+    private final Map<String, Counter> forwarded = new HashMap<>();
+
+    /** @param attempt the attempt this tier makes, counting the first one on the orders topic as 1 */
+    public record Tier(int attempt, String topic, Duration delay) {
+    }
+
+    public OrderEventRetryTopics(@Value("${payment.retry.delays:1s,10s,1m}") List<Duration> delays,
+                                 MeterRegistry meterRegistry) {
+        for (int i = 0; i < delays.size(); i++) {
+            tiers.add(new Tier(i + 2, MAIN_TOPIC + "-retry-" + (i + 1), delays.get(i)));
+        }
+        for (String topic : topics()) {
+            forwarded.put(topic, Counter.builder("payment.order-event.forwarded")
+                    .description("Failed order event records forwarded to a retry or dead-letter topic")
+                    .tag("topic", topic)
+                    .register(meterRegistry));
+        }
+    }
+
+    public List<Tier> tiers() {
+        return tiers;
+    }
+
+    /** The retry topics in order, then the dead-letter topic. */
+    public List<String> topics() {
+        List<String> topics = new ArrayList<>(tiers.stream().map(Tier::topic).toList());
+        topics.add(DEAD_LETTER_TOPIC);
+        return topics;
+    }
+
+    // Partition -1: the producer partitions by key, so a retried order keeps its key's ordering
+    public TopicPartition destinationFor(ConsumerRecord<?, ?> record, Exception exception) {
+        int failed = attemptsOf(record) + 1;
+        String topic = isDeserializationFailure(record, exception) || failed > tiers.size()
+                ? DEAD_LETTER_TOPIC
+                : tiers.get(failed - 1).topic();
+        forwarded.get(topic).increment();
+        return new TopicPartition(topic, -1);
+    }
+
+    public Headers headersFor(ConsumerRecord<?, ?> record, Exception exception) {
+        int failed = attemptsOf(record) + 1;
+        Headers headers = new RecordHeaders();
+        headers.add(ATTEMPT, Integer.toString(failed).getBytes(StandardCharsets.UTF_8));
+        if (!isDeserializationFailure(record, exception) && failed <= tiers.size()) {
+            long notBefore = System.currentTimeMillis() + tiers.get(failed - 1).delay().toMillis();
+            headers.add(NOT_BEFORE, Long.toString(notBefore).getBytes(StandardCharsets.UTF_8));
+        }
+        return headers;
+    }
+
+    /** Failed attempts recorded on the record; 0 for a record from the orders topic. */
+    public static int attemptsOf(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(ATTEMPT);
+        return header == null ? 0 : Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    public static long notBeforeOf(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(NOT_BEFORE);
+        return header == null ? 0 : Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    private static boolean isDeserializationFailure(ConsumerRecord<?, ?> record, Throwable exception) {
+        if (record.headers().lastHeader(KafkaUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+            return true;
+        }
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeserializationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
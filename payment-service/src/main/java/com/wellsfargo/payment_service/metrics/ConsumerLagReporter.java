@@ -0,0 +1,70 @@
+package com.wellsfargo.payment_service.metrics;
+
+import com.wellsfargo.payment_service.dto.ConsumerLagResponse;
+import com.wellsfargo.payment_service.dto.ConsumerLagResponse.PartitionLag;
+import com.wellsfargo.payment_service.kafka.consumer.OrderEventRetryListener;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports per-partition lag for each listener container from the consumers' own fetch metrics
+ * ({@code records-lag}), so a lag query never makes a broker round trip. Covers the registered
+ * {@code @KafkaListener} containers and the retry tier containers.
+ */
+@Component
+public class ConsumerLagReporter {
+
+    private static final String FETCH_METRICS_GROUP = "consumer-fetch-manager-metrics";
+    private static final String RECORDS_LAG = "records-lag";
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final OrderEventRetryListener retryListener;
+
+    public ConsumerLagReporter(KafkaListenerEndpointRegistry registry, OrderEventRetryListener retryListener) {
+        this.registry = registry;
+        this.retryListener = retryListener;
+    }
+
+    public List<ConsumerLagResponse> currentLag() {
+        List<MessageListenerContainer> containers = new ArrayList<>(registry.getListenerContainers());
+        containers.addAll(retryListener.containers());
+        List<ConsumerLagResponse> listeners = new ArrayList<>();
+        for (MessageListenerContainer container : containers) {
+            List<PartitionLag> partitions = new ArrayList<>();
+            long total = 0;
+            for (Map<MetricName, ? extends Metric> clientMetrics : container.metrics().values()) {
+                for (Map.Entry<MetricName, ? extends Metric> metric : clientMetrics.entrySet()) {
+                    MetricName name = metric.getKey();
+                    if (!RECORDS_LAG.equals(name.name()) || !FETCH_METRICS_GROUP.equals(name.group())
+                            || !name.tags().containsKey("partition")) {
+                        continue;
+                    }
+                    Object value = metric.getValue().metricValue();
+                    Long lag = value instanceof Double d && !d.isNaN() ? d.longValue() : null;
+                    if (lag != null) {
+                        total += lag;
+                    }
+                    partitions.add(new PartitionLag(name.tags().get("topic"),
+                            Integer.parseInt(name.tags().get("partition")), lag));
+                }
+            }
+            partitions.sort(Comparator.comparing(PartitionLag::getTopic).thenComparingInt(PartitionLag::getPartition));
+            listeners.add(ConsumerLagResponse.builder()
+                    .listenerId(container.getListenerId())
+                    .groupId(container.getGroupId())
+                    .running(container.isRunning())
+                    .totalLag(total)
+                    .partitions(partitions)
+                    .build());
+        }
+        return listeners;
+    }
+}
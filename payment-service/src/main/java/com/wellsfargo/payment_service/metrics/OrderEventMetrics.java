@@ -0,0 +1,104 @@
+package com.wellsfargo.payment_service.metrics;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventHeaders;
+import com.wellsfargo.order_event_contract.OrderEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record telemetry for the order event listener: processing time, end-to-end latency from the
+ * event's creation in order-service to the end of its processing here, and a record counter whose
+ * rate is the listener's throughput. All meters are registered up front, one set per event type,
+ * plus the size and time of each poll in batch mode.
+ */
+@Component
+public class OrderEventMetrics {
+
+    private final Map<OrderEventType, Meters> meters = new EnumMap<>(OrderEventType.class);
+    private final Meters untyped;
+    private final DistributionSummary batchSize;
+    private final Timer batchTime;
+    // eventTimestamp is a local date-time written by order-service; both services run in the same zone
+    private final ZoneId eventZone = ZoneId.systemDefault();
+
+    public OrderEventMetrics(MeterRegistry registry) {
+        for (OrderEventType type : OrderEventType.values()) {
+            meters.put(type, new Meters(registry, type.name()));
+        }
+        this.untyped = new Meters(registry, "UNKNOWN");
+        this.batchSize = DistributionSummary.builder("payment.order-event.batch.size")
+                .description("Records per poll delivered to the batch listener")
+                .register(registry);
+        this.batchTime = Timer.builder("payment.order-event.batch.processing")
+                .description("Batch listener time per poll, including the payment transaction")
+                .register(registry);
+    }
+
+    public void recordProcessed(OrderEventType type, OrderEvent event, long startNanos, boolean success) {
+        record(type, event, System.nanoTime() - startNanos, success);
+    }
+
+    /**
+     * A batch applied in one transaction. Each handled record is charged an equal share of the batch
+     * time, so the per-record processing timer stays comparable with record mode; polled counts every
+     * record the batch delivered, including those skipped.
+     */
+    public void recordBatch(int polled, List<ConsumerRecord<String, OrderEvent>> handled, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        batchSize.record(polled);
+        batchTime.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        long shareNanos = handled.isEmpty() ? 0 : elapsedNanos / handled.size();
+        for (ConsumerRecord<String, OrderEvent> record : handled) {
+            record(OrderEventHeaders.eventType(record.headers()), record.value(), shareNanos, true);
+        }
+    }
+
+    private void record(OrderEventType type, OrderEvent event, long elapsedNanos, boolean success) {
+        Meters typed = type == null ? untyped : meters.get(type);
+        (success ? typed.processed : typed.failed).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        typed.records.increment();
+        if (success && event != null && event.getEventTimestamp() != null) {
+            long createdMillis = event.getEventTimestamp().atZone(eventZone).toInstant().toEpochMilli();
+            typed.endToEnd.record(Math.max(0, System.currentTimeMillis() - createdMillis), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final class Meters {
+        private final Timer processed;
+        private final Timer failed;
+        private final Timer endToEnd;
+        private final Counter records;
+
+        private Meters(MeterRegistry registry, String type) {
+            this.processed = processing(registry, type, "success");
+            this.failed = processing(registry, type, "failure");
+            this.endToEnd = Timer.builder("payment.order-event.end-to-end")
+                    .description("Time from event creation in order-service to the end of its processing")
+                    .tag("type", type)
+                    .register(registry);
+            this.records = Counter.builder("payment.order-event.records")
+                    .description("Order event records processed by the listener")
+                    .tag("type", type)
+                    .register(registry);
+        }
+
+        private static Timer processing(MeterRegistry registry, String type, String outcome) {
+            return Timer.builder("payment.order-event.processing")
+                    .description("Listener time per order event record")
+                    .tag("type", type)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
@@ -2,8 +2,13 @@ package com.wellsfargo.payment_service.repository;
 
 import com.wellsfargo.payment_service.entity.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,5 +29,13 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     List<Payment> findByOrderNumberAndStatus(String orderNumber, Payment.PaymentStatus status);
     
-    boolean existsByPaymentNumber(String paymentNumber);
+    List<Payment> findByOrderNumberInAndStatus(Collection<String> orderNumbers, Payment.PaymentStatus status);
+    
+    // Changes the status only while the payment is still in the expected one; 0 if another change got there first
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :status, p.transactionId = COALESCE(:transactionId, p.transactionId),"
+            + " p.updatedAt = :now WHERE p.id = :id AND p.status = :expected")
+    int updateStatusIf(@Param("id") Long id, @Param("expected") Payment.PaymentStatus expected,
+                       @Param("status") Payment.PaymentStatus status, @Param("transactionId") String transactionId,
+                       @Param("now") LocalDateTime now);
 }
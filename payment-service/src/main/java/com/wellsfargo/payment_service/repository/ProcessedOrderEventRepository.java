@@ -0,0 +1,32 @@
+package com.wellsfargo.payment_service.repository;
+
+import com.wellsfargo.payment_service.entity.ProcessedOrderEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ProcessedOrderEventRepository extends JpaRepository<ProcessedOrderEvent, String> {
+
+    @Query("select e.dedupeKey from ProcessedOrderEvent e where e.dedupeKey in :keys")
+    List<String> findExistingKeys(@Param("keys") Collection<String> keys);
+
+    // Streams every stored key to rebuild the Bloom filter; needs an open transaction
+    @Query("select e.dedupeKey from ProcessedOrderEvent e")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    Stream<String> streamAllKeys();
+
+    @Modifying
+    @Query("delete from ProcessedOrderEvent e where e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,223 @@
+package com.wellsfargo.payment_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventDeserializer;
+import com.wellsfargo.order_event_contract.OrderEventHeaders;
+import com.wellsfargo.payment_service.dto.DeadLetterResponse;
+import com.wellsfargo.payment_service.dto.RedriveResponse;
+import com.wellsfargo.payment_service.kafka.retry.OrderEventRetryTopics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Reads the order event dead-letter topic and re-drives records from it to the topic they were first
+ * consumed from. A re-driven record is a new record there and goes through the normal listener, so
+ * one that fails again comes back through the retry tiers. Re-driving an event that was already
+ * applied is harmless: the processed-event store drops it.
+ */
+@Service
+@Slf4j
+public class DeadLetterService {
+
+    private static final String DEAD_LETTER_TOPIC = OrderEventRetryTopics.DEAD_LETTER_TOPIC;
+    private static final int MAX_LIMIT = 500;
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+    // Headers that describe the event itself; the retry and failure headers are left behind
+    private static final List<String> EVENT_HEADERS =
+            List.of(OrderEventHeaders.EVENT_TYPE, OrderEventHeaders.SCHEMA_VERSION, OrderEventHeaders.EVENT_ID);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OrderEventDeserializer deserializer;
+
+    public DeadLetterService(@Qualifier("deadLetterConsumerFactory") ConsumerFactory<String, byte[]> consumerFactory,
+                             KafkaTemplate<String, Object> kafkaTemplate, ObjectMapper objectMapper) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.deserializer = new OrderEventDeserializer(objectMapper);
+    }
+
+    /** Up to {@code limit} dead letters from {@code fromOffset} on, in one partition or all of them. */
+    public List<DeadLetterResponse> list(Integer partition, Long fromOffset, int limit) {
+        int max = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        List<DeadLetterResponse> deadLetters = new ArrayList<>();
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            List<Integer> partitions = partition != null ? List.of(partition) : partitions(consumer);
+            for (int p : partitions) {
+                long from = fromOffset != null ? fromOffset : 0;
+                for (ConsumerRecord<String, byte[]> record : read(consumer, p, from, Long.MAX_VALUE, max - deadLetters.size())) {
+                    deadLetters.add(toResponse(record));
+                }
+                if (deadLetters.size() >= max) {
+                    break;
+                }
+            }
+        }
+        return deadLetters;
+    }
+
+    public DeadLetterResponse get(int partition, long offset) {
+        return toResponse(readOne(partition, offset));
+    }
+
+    public RedriveResponse redrive(int partition, long offset) {
+        ConsumerRecord<String, byte[]> record = readOne(partition, offset);
+        send(record);
+        return RedriveResponse.builder().partition(partition).fromOffset(offset).toOffset(offset).redriven(1).build();
+    }
+
+    /** Re-drives the dead letters at offsets {@code from} to {@code to}, both inclusive, in offset order. */
+    public RedriveResponse redrive(int partition, long from, long to) {
+        if (to < from) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Offset range " + from + "-" + to + " is empty");
+        }
+        if (to - from >= MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_LIMIT + " dead letters can be re-driven at once");
+        }
+        List<ConsumerRecord<String, byte[]>> records;
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            records = read(consumer, partition, from, to + 1, MAX_LIMIT);
+        }
+        records.forEach(this::send);
+        log.info("Re-drove {} dead letters from {}-{} offsets {}-{}", records.size(), DEAD_LETTER_TOPIC, partition, from, to);
+        return RedriveResponse.builder().partition(partition).fromOffset(from).toOffset(to).redriven(records.size()).build();
+    }
+
+    private ConsumerRecord<String, byte[]> readOne(int partition, long offset) {
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            List<ConsumerRecord<String, byte[]>> records = read(consumer, partition, offset, offset + 1, 1);
+            if (records.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "No dead letter at " + DEAD_LETTER_TOPIC + "-" + partition + "@" + offset);
+            }
+            return records.get(0);
+        }
+    }
+
+    private List<Integer> partitions(Consumer<String, byte[]> consumer) {
+        List<PartitionInfo> partitions = consumer.partitionsFor(DEAD_LETTER_TOPIC, READ_TIMEOUT);
+        return partitions == null ? List.of() : partitions.stream().map(PartitionInfo::partition).sorted().toList();
+    }
+
+    // Records with offsets in [from, to), read from the partition's log start if it has moved past from
+    private List<ConsumerRecord<String, byte[]>> read(Consumer<String, byte[]> consumer, int partition,
+                                                      long from, long to, int limit) {
+        if (!partitions(consumer).contains(partition)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "No partition " + partition + " in " + DEAD_LETTER_TOPIC);
+        }
+        TopicPartition topicPartition = new TopicPartition(DEAD_LETTER_TOPIC, partition);
+        consumer.assign(List.of(topicPartition));
+        long start = Math.max(from, consumer.beginningOffsets(List.of(topicPartition), READ_TIMEOUT).get(topicPartition));
+        long end = Math.min(to, consumer.endOffsets(List.of(topicPartition), READ_TIMEOUT).get(topicPartition));
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        if (start >= end) {
+            return records;
+        }
+        consumer.seek(topicPartition, start);
+        long deadline = System.nanoTime() + READ_TIMEOUT.toNanos();
+        while (records.size() < limit && consumer.position(topicPartition) < end && System.nanoTime() < deadline) {
+            for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT).records(topicPartition)) {
+                if (record.offset() >= end || records.size() >= limit) {
+                    break;
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private void send(ConsumerRecord<String, byte[]> record) {
+        String topic = firstString(record.headers(), KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        ProducerRecord<String, Object> redriven = new ProducerRecord<>(topic != null ? topic : OrderEventRetryTopics.MAIN_TOPIC,
+                record.key(), record.value());
+        for (String name : EVENT_HEADERS) {
+            Header header = record.headers().lastHeader(name);
+            if (header != null) {
+                redriven.headers().add(header);
+            }
+        }
+        try {
+            kafkaTemplate.send(redriven).get(READ_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while re-driving", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Could not re-drive " + DEAD_LETTER_TOPIC + "-" + record.partition() + "@" + record.offset(), e);
+        }
+    }
+
+    private DeadLetterResponse toResponse(ConsumerRecord<String, byte[]> record) {
+        Headers headers = record.headers();
+        return DeadLetterResponse.builder()
+                .partition(record.partition())
+                .offset(record.offset())
+                .timestamp(Instant.ofEpochMilli(record.timestamp()))
+                .key(record.key())
+                .eventType(lastString(headers, OrderEventHeaders.EVENT_TYPE))
+                .eventId(lastString(headers, OrderEventHeaders.EVENT_ID))
+                .event(decode(record))
+                .originalTopic(firstString(headers, KafkaHeaders.DLT_ORIGINAL_TOPIC))
+                .originalPartition(first(headers, KafkaHeaders.DLT_ORIGINAL_PARTITION, value -> ByteBuffer.wrap(value).getInt()))
+                .originalOffset(first(headers, KafkaHeaders.DLT_ORIGINAL_OFFSET, value -> ByteBuffer.wrap(value).getLong()))
+                .attempts(OrderEventRetryTopics.attemptsOf(record))
+                .exceptionClass(lastString(headers, KafkaHeaders.DLT_EXCEPTION_FQCN))
+                .exceptionCause(lastString(headers, KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN))
+                .exceptionMessage(lastString(headers, KafkaHeaders.DLT_EXCEPTION_MESSAGE))
+                .build();
+    }
+
+    private OrderEvent decode(ConsumerRecord<String, byte[]> record) {
+        try {
+            return deserializer.deserialize(record.topic(), record.headers(), record.value());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // The original-* headers of the first forward, from the orders topic, come first
+    private static <T> T first(Headers headers, String name, Function<byte[], T> parse) {
+        for (Header header : headers.headers(name)) {
+            return parse.apply(header.value());
+        }
+        return null;
+    }
+
+    private static String firstString(Headers headers, String name) {
+        return first(headers, name, value -> new String(value, StandardCharsets.UTF_8));
+    }
+
+    // The exception headers of the last failure
+    private static String lastString(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -1,13 +1,29 @@
 package com.wellsfargo.payment_service.service;
 
+import com.wellsfargo.order_event_contract.OrderEvent;
 import com.wellsfargo.payment_service.entity.Payment;
+import com.wellsfargo.payment_service.entity.ProcessedOrderEvent;
 import com.wellsfargo.payment_service.repository.PaymentRepository;
+import com.wellsfargo.payment_service.repository.ProcessedOrderEventRepository;
+import com.wellsfargo.payment_service.view.OrderView;
+import com.wellsfargo.payment_service.view.OrderViewStore;
+import com.wellsfargo.service_support.SnowflakeIdGenerator;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,17 +36,29 @@ public class PaymentService {
     
     private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
     private final PaymentRepository paymentRepository;
+    private final SnowflakeIdGenerator idGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderViewStore orderViewStore;
+    private final ProcessedOrderEventRepository processedOrderEventRepository;
+    private final Payment.PaymentMethod orderEventPaymentMethod;
 
-    public PaymentService(PaymentRepository paymentRepository) {
+    public PaymentService(PaymentRepository paymentRepository, SnowflakeIdGenerator idGenerator,
+                          PlatformTransactionManager transactionManager, OrderViewStore orderViewStore,
+                          ProcessedOrderEventRepository processedOrderEventRepository,
+                          @Value("${payment.order-events.payment-method:CREDIT_CARD}") Payment.PaymentMethod orderEventPaymentMethod) {
         this.paymentRepository = paymentRepository;
+        this.processedOrderEventRepository = processedOrderEventRepository;
+        this.idGenerator = idGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderViewStore = orderViewStore;
+        this.orderEventPaymentMethod = orderEventPaymentMethod;
     }
 
     public Payment createPayment(Payment payment) {
         log.info("Creating new payment for order: {}", payment.getOrderNumber());
         
-        if (paymentRepository.existsByPaymentNumber(payment.getPaymentNumber())) {
-            throw new IllegalArgumentException("Payment with number " + payment.getPaymentNumber() + " already exists");
-        }
+        // Checked against the local order view; an order it has not seen yet is allowed through
+        orderViewStore.get(payment.getOrderNumber()).ifPresent(order -> validateAgainstOrder(payment, order));
         
         if (payment.getPaymentNumber() == null || payment.getPaymentNumber().isEmpty()) {
             payment.setPaymentNumber(generatePaymentNumber());
@@ -40,11 +68,49 @@ public class PaymentService {
             payment.setStatus(Payment.PaymentStatus.PENDING);
         }
         
-        Payment savedPayment = paymentRepository.save(payment);
+        // The unique constraint on payment_number is the only duplicate check
+        Payment savedPayment;
+        try {
+            savedPayment = paymentRepository.saveAndFlush(payment);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Payment with number " + payment.getPaymentNumber() + " already exists");
+        }
         log.info("Payment created successfully with ID: {}", savedPayment.getId());
         return savedPayment;
     }
     
+    /**
+     * Applies order events in a single transaction: a PENDING payment for each created order, inserted
+     * in JDBC batches, then cancellation of the pending payments of each cancelled order. Cancellations
+     * run after the inserts, so an order created and cancelled within the same batch ends up with a
+     * cancelled payment. The events are recorded as processed in the same transaction; one applied
+     * before fails it with a DataIntegrityViolationException. Returns the number of payments created.
+     */
+    public int applyOrderEvents(List<OrderEvent> createdOrders, Collection<String> cancelledOrderNumbers,
+                                List<ProcessedOrderEvent> processedEvents) {
+        processedOrderEventRepository.saveAll(processedEvents);
+        List<Payment> payments = new ArrayList<>(createdOrders.size());
+        for (OrderEvent order : createdOrders) {
+            payments.add(pendingPaymentFor(order));
+        }
+        paymentRepository.saveAll(payments);
+        if (!cancelledOrderNumbers.isEmpty()) {
+            List<Payment> pending = paymentRepository.findByOrderNumberInAndStatus(cancelledOrderNumbers,
+                    Payment.PaymentStatus.PENDING);
+            pending.forEach(payment -> payment.setStatus(Payment.PaymentStatus.CANCELLED));
+            paymentRepository.saveAll(pending);
+            log.debug("Cancelled {} pending payments for {} cancelled orders", pending.size(), cancelledOrderNumbers.size());
+        }
+        return payments.size();
+    }
+    
+    // Served from memory; no transaction or connection needed
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<OrderView> getOrderView(String orderNumber) {
+        return orderViewStore.get(orderNumber);
+    }
+    
     @Transactional(readOnly = true)
     public Optional<Payment> getPaymentById(Long id) {
         log.debug("Fetching payment by ID: {}", id);
@@ -111,22 +177,36 @@ public class PaymentService {
         return updatedPayment;
     }
     
+    // Two short transactions around the gateway call, so the one-second wait holds neither a JDBC
+    // connection nor (with virtual threads) a platform thread. Both are conditional updates on the
+    // status, so a concurrent process, cancel or status change is never overwritten
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Payment processPayment(Long id) {
         log.info("Processing payment with ID: {}", id);
         
-        Payment payment = paymentRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Payment not found with ID: " + id));
-        
-        if (payment.getStatus() != Payment.PaymentStatus.PENDING) {
-            throw new IllegalStateException("Payment cannot be processed. Current status: " + payment.getStatus());
-        }
-        
-        payment.setStatus(Payment.PaymentStatus.PROCESSING);
-        Payment updatedPayment = paymentRepository.save(payment);
+        Payment payment = transactionTemplate.execute(status -> {
+            if (paymentRepository.updateStatusIf(id, Payment.PaymentStatus.PENDING, Payment.PaymentStatus.PROCESSING,
+                    null, LocalDateTime.now()) == 0) {
+                Payment current = paymentRepository.findById(id)
+                        .orElseThrow(() -> new IllegalArgumentException("Payment not found with ID: " + id));
+                throw new IllegalStateException("Payment cannot be processed. Current status: " + current.getStatus());
+            }
+            return paymentRepository.findById(id).orElseThrow();
+        });
         
         // Simulate payment processing
-        simulatePaymentProcessing(updatedPayment);
+        simulatePaymentProcessing(payment);
         
+        Payment updatedPayment = transactionTemplate.execute(status -> {
+            if (paymentRepository.updateStatusIf(id, Payment.PaymentStatus.PROCESSING, payment.getStatus(),
+                    payment.getTransactionId(), LocalDateTime.now()) == 0) {
+                log.warn("Payment {} changed while it was being processed; gateway result {} not recorded",
+                        id, payment.getStatus());
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Payment " + id + " changed while it was being processed");
+            }
+            return paymentRepository.findById(id).orElseThrow();
+        });
         log.info("Payment processed successfully for ID: {}", id);
         return updatedPayment;
     }
@@ -207,8 +287,20 @@ public class PaymentService {
         log.info("Payment deleted successfully with ID: {}", id);
     }
     
+    // Order events carry no payment method; the customer's choice replaces the default on update
+    private Payment pendingPaymentFor(OrderEvent order) {
+        Payment payment = new Payment();
+        payment.setPaymentNumber(generatePaymentNumber());
+        payment.setOrderNumber(order.getOrderNumber());
+        payment.setCustomerId(order.getCustomerId());
+        payment.setAmount(order.getTotalAmount());
+        payment.setStatus(Payment.PaymentStatus.PENDING);
+        payment.setPaymentMethod(orderEventPaymentMethod);
+        return payment;
+    }
+    
     private String generatePaymentNumber() {
-        return "PAY-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return idGenerator.nextId("PAY-");
     }
     
     private void simulatePaymentProcessing(Payment payment) {
@@ -223,11 +315,20 @@ public class PaymentService {
             } else {
                 payment.setStatus(Payment.PaymentStatus.FAILED);
             }
-            paymentRepository.save(payment);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             payment.setStatus(Payment.PaymentStatus.FAILED);
-            paymentRepository.save(payment);
+        }
+    }
+
+    private static void validateAgainstOrder(Payment payment, OrderView order) {
+        if (order.isCancelled()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Order " + order.orderNumber() + " is cancelled");
+        }
+        if (payment.getAmount() != null && payment.getAmount() > order.totalAmount() + 0.005) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Payment amount " + payment.getAmount() + " exceeds order total " + order.totalAmount());
         }
     }
 }
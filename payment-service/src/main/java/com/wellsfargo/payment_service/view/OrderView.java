@@ -0,0 +1,15 @@
+package com.wellsfargo.payment_service.view;
+
+import com.wellsfargo.order_event_contract.OrderEventStatus;
+
+/**
+ * The latest known state of an order as seen by payment-service. Held in {@link OrderViewStore}; only
+ * the fields payment validation needs are kept.
+ */
+public record OrderView(String orderNumber, String customerId, double totalAmount, OrderEventStatus status,
+                        long updatedAtMillis) {
+
+    public boolean isCancelled() {
+        return status == OrderEventStatus.CANCELLED;
+    }
+}
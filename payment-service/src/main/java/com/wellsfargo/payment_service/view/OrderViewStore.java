@@ -0,0 +1,200 @@
+package com.wellsfargo.payment_service.view;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local key-value view of order state, built from the compacted {@code order-state} topic, which acts
+ * as its changelog. Lookups are plain hash map reads with no network hop.
+ * <p>
+ * The view and the next offset to read for each partition are checkpointed together to a single
+ * snapshot file, replaced atomically. On start the snapshot is loaded and consumption resumes from
+ * the checkpointed offsets, so a restart only replays what arrived since the last checkpoint. With
+ * no snapshot the view is rebuilt from the beginning of the topic, which compaction keeps to one
+ * record per order.
+ */
+@Component
+@Slf4j
+public class OrderViewStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x4F565331; // "OVS1"
+    private static final String SNAPSHOT_FILE = "order-view.snapshot";
+
+    private final Path directory;
+    private final String topic;
+    private final Map<String, OrderView> orders = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> nextOffsets = new ConcurrentHashMap<>();
+    // Guards against writing a snapshot whose offsets are ahead of its data or vice versa
+    private final Object checkpointLock = new Object();
+    private volatile boolean dirty;
+
+    public OrderViewStore(@Value("${payment.order-view.dir:data/order-view}") String directory,
+                          @Value("${payment.order-view.topic:order-state}") String topic) {
+        this.directory = Paths.get(directory);
+        this.topic = topic;
+    }
+
+    public Optional<OrderView> get(String orderNumber) {
+        return Optional.ofNullable(orders.get(orderNumber));
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    public String topic() {
+        return topic;
+    }
+
+    /** Offset to resume {@code partition} from, or empty if the view has never read it. */
+    public OptionalLong nextOffset(int partition) {
+        Long offset = nextOffsets.get(partition);
+        return offset == null ? OptionalLong.empty() : OptionalLong.of(offset);
+    }
+
+    /** Applies one changelog record; a null event is a tombstone for a deleted order. */
+    public void apply(int partition, long offset, String orderNumber, OrderEvent event) {
+        synchronized (checkpointLock) {
+            if (orderNumber != null) {
+                if (event == null) {
+                    orders.remove(orderNumber);
+                } else {
+                    orders.put(orderNumber, toView(orderNumber, event));
+                }
+            }
+            nextOffsets.put(partition, offset + 1);
+            dirty = true;
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) {
+            log.info("No order view snapshot in {}, rebuilding from the start of {}", directory, topic);
+            return;
+        }
+        long started = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || !topic.equals(in.readUTF())) {
+                log.warn("Ignoring order view snapshot {} written for another format or topic", snapshot);
+                return;
+            }
+            int partitions = in.readInt();
+            for (int i = 0; i < partitions; i++) {
+                nextOffsets.put(in.readInt(), in.readLong());
+            }
+            int entries = in.readInt();
+            OrderEventStatus[] statuses = OrderEventStatus.values();
+            for (int i = 0; i < entries; i++) {
+                String orderNumber = in.readUTF();
+                String customerId = in.readUTF();
+                double totalAmount = in.readDouble();
+                int status = in.readByte();
+                long updatedAt = in.readLong();
+                orders.put(orderNumber, new OrderView(orderNumber, customerId.isEmpty() ? null : customerId, totalAmount,
+                        status < 0 ? null : statuses[status], updatedAt));
+            }
+        } catch (IOException | RuntimeException e) {
+            // A damaged snapshot only costs a full rebuild from the topic
+            log.warn("Could not read order view snapshot {}, rebuilding from the start of {}", snapshot, topic, e);
+            orders.clear();
+            nextOffsets.clear();
+            return;
+        }
+        log.info("Loaded {} orders and offsets for {} partitions from {} in {} ms", orders.size(),
+                nextOffsets.size(), snapshot, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.order-view.checkpoint-interval:10s}")
+    public void checkpoint() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            int written;
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+                synchronized (checkpointLock) {
+                    written = writeSnapshot(out);
+                    dirty = false;
+                }
+                out.flush();
+                file.getFD().sync();
+            }
+            Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Checkpointed {} orders to {}", written, directory);
+        } catch (IOException e) {
+            dirty = true;
+            throw new UncheckedIOException("Failed to checkpoint order view to " + directory, e);
+        }
+    }
+
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        checkpoint();
+    }
+
+    private int writeSnapshot(DataOutputStream out) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeUTF(topic);
+        out.writeInt(nextOffsets.size());
+        for (Map.Entry<Integer, Long> entry : nextOffsets.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+        out.writeInt(orders.size());
+        for (OrderView order : orders.values()) {
+            out.writeUTF(order.orderNumber());
+            out.writeUTF(order.customerId() == null ? "" : order.customerId());
+            out.writeDouble(order.totalAmount());
+            out.writeByte(order.status() == null ? -1 : order.status().ordinal());
+            out.writeLong(order.updatedAtMillis());
+        }
+        return orders.size();
+    }
+
+    private static OrderView toView(String orderNumber, OrderEvent event) {
+        return new OrderView(orderNumber, event.getCustomerId(),
+                event.getTotalAmount() == null ? 0 : event.getTotalAmount(),
+                parseStatus(event.getStatus()),
+                event.getEventTimestamp() == null ? 0 : event.getEventTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    private static OrderEventStatus parseStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return OrderEventStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
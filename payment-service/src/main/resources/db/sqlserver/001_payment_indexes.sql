@@ -0,0 +1,29 @@
+-- Secondary indexes for the PaymentRepository finders. They mirror the @Index declarations on
+-- Payment; run once against an existing database.
+-- The indexes build offline, which Express supports; apply the script outside peak hours.
+
+-- findByOrderNumber, findByOrderNumberAndStatus
+CREATE INDEX ix_payments_order_status
+    ON payments (order_number, status);
+
+-- findByCustomerId, findByCustomerIdAndStatus
+CREATE INDEX ix_payments_customer_status
+    ON payments (customer_id, status);
+
+-- findByStatus, findByPaymentMethod: only selective for the rare values (FAILED, REFUNDED, ...)
+CREATE INDEX ix_payments_status
+    ON payments (status);
+
+CREATE INDEX ix_payments_method
+    ON payments (payment_method);
+
+-- Rename the unique constraint Hibernate generated for payment_number, if any, to the mapped name
+DECLARE @uk SYSNAME = (
+    SELECT kc.name FROM sys.key_constraints kc
+    JOIN sys.index_columns ic ON ic.object_id = kc.parent_object_id AND ic.index_id = kc.unique_index_id
+    JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+    WHERE kc.parent_object_id = OBJECT_ID('payments') AND kc.type = 'UQ' AND c.name = 'payment_number');
+IF @uk IS NULL
+    ALTER TABLE payments ADD CONSTRAINT uk_payments_payment_number UNIQUE (payment_number);
+ELSE IF @uk <> 'uk_payments_payment_number'
+    EXEC sp_rename @uk, 'uk_payments_payment_number', 'OBJECT';
@@ -0,0 +1,44 @@
+-- Moves payments from IDENTITY to sequence-generated IDs so Hibernate can batch the inserts of
+-- the order event batch listener. Run once against an existing database, after
+-- 001_payment_indexes.sql and with the service stopped; new databases are created correctly by
+-- hibernate.ddl-auto. The sequence steps by the entity allocationSize (50).
+
+BEGIN TRANSACTION;
+
+DECLARE @next_payment_id BIGINT = (SELECT ISNULL(MAX(id), 0) + 1 FROM payments WITH (TABLOCKX));
+EXEC('CREATE SEQUENCE payments_seq AS BIGINT START WITH ' + @next_payment_id + ' INCREMENT BY 50');
+
+-- IDENTITY cannot be dropped in place: switch the rows into an identical table without it. SWITCH
+-- needs the same indexes on both sides, so the new table gets those of 001_payment_indexes.sql
+CREATE TABLE payments_new (
+    id             BIGINT        NOT NULL,
+    amount         FLOAT         NOT NULL,
+    created_at     DATETIME2(6)  NOT NULL,
+    customer_id    VARCHAR(255)  NOT NULL,
+    order_number   VARCHAR(255)  NOT NULL,
+    payment_date   DATETIME2(6)  NULL,
+    payment_method VARCHAR(255)  NOT NULL,
+    payment_number VARCHAR(255)  NOT NULL,
+    status         VARCHAR(255)  NOT NULL,
+    transaction_id VARCHAR(255)  NULL,
+    updated_at     DATETIME2(6)  NULL,
+    CONSTRAINT pk_payments_new PRIMARY KEY (id),
+    CONSTRAINT uk_payments_new_payment_number UNIQUE (payment_number)
+);
+
+CREATE INDEX ix_payments_new_order_status ON payments_new (order_number, status);
+CREATE INDEX ix_payments_new_customer_status ON payments_new (customer_id, status);
+CREATE INDEX ix_payments_new_status ON payments_new (status);
+CREATE INDEX ix_payments_new_method ON payments_new (payment_method);
+
+ALTER TABLE payments SWITCH TO payments_new;
+DROP TABLE payments;
+EXEC sp_rename 'payments_new', 'payments';
+EXEC sp_rename 'pk_payments_new', 'pk_payments', 'OBJECT';
+EXEC sp_rename 'uk_payments_new_payment_number', 'uk_payments_payment_number', 'OBJECT';
+EXEC sp_rename 'payments.ix_payments_new_order_status', 'ix_payments_order_status', 'INDEX';
+EXEC sp_rename 'payments.ix_payments_new_customer_status', 'ix_payments_customer_status', 'INDEX';
+EXEC sp_rename 'payments.ix_payments_new_status', 'ix_payments_status', 'INDEX';
+EXEC sp_rename 'payments.ix_payments_new_method', 'ix_payments_method', 'INDEX';
+
+COMMIT TRANSACTION;
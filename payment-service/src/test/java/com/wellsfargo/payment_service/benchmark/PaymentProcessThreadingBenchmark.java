@@ -0,0 +1,76 @@
+package com.wellsfargo.payment_service.benchmark;
+
+import com.wellsfargo.payment_service.PaymentServiceApplication;
+import com.wellsfargo.payment_service.entity.Payment;
+import com.wellsfargo.payment_service.repository.PaymentRepository;
+import com.wellsfargo.service_support.benchmark.HttpLoadSupport;
+import com.wellsfargo.service_support.benchmark.HttpLoadSupport.LoadResult;
+import com.wellsfargo.service_support.benchmark.QueryIndexBenchmarkSupport;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs POST /api/payments/{id}/process, which waits a second on the simulated gateway, against the
+ * service started once with platform request threads and once with virtual threads, and reports
+ * throughput, latency, peak platform threads and pinning. Run with {@code mvn test -Pbenchmark};
+ * the report is written to target/benchmarks.
+ */
+@Tag("benchmark")
+class PaymentProcessThreadingBenchmark {
+
+    private static final int WARMUP_REQUESTS = 400;
+    private static final int REQUESTS = 2_000;
+    private static final int CONCURRENCY = 400;
+
+    private static final Map<String, Object> PROPERTIES = Map.of("spring.kafka.listener.auto-startup", "false");
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        List<LoadResult> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context =
+                         HttpLoadSupport.start(PaymentServiceApplication.class, virtualThreads, PROPERTIES)) {
+                String baseUrl = HttpLoadSupport.baseUrl(context);
+                HttpClient client = HttpLoadSupport.client();
+                List<Long> warmupIds = seedPendingPayments(context, WARMUP_REQUESTS);
+                List<Long> ids = seedPendingPayments(context, REQUESTS);
+
+                HttpLoadSupport.run(context, client, "warmup", WARMUP_REQUESTS, CONCURRENCY,
+                        i -> process(baseUrl, warmupIds.get(i)));
+                results.add(HttpLoadSupport.run(context, client, "POST /api/payments/{id}/process", REQUESTS,
+                        CONCURRENCY, i -> process(baseUrl, ids.get(i))));
+            }
+        }
+        QueryIndexBenchmarkSupport.write("payment-process-threading.txt",
+                HttpLoadSupport.report("Payment processing, platform vs virtual request threads", results));
+    }
+
+    private static List<Long> seedPendingPayments(ConfigurableApplicationContext context, int count) {
+        List<Payment> payments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Payment payment = new Payment();
+            payment.setPaymentNumber("PAY-BENCH-" + System.nanoTime() + "-" + i);
+            payment.setOrderNumber("ORD-BENCH-" + i);
+            payment.setCustomerId("CUST-" + (i % 500));
+            payment.setAmount(10.0 + i % 990);
+            payment.setStatus(Payment.PaymentStatus.PENDING);
+            payment.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+            payments.add(payment);
+        }
+        return context.getBean(PaymentRepository.class).saveAll(payments).stream().map(Payment::getId).toList();
+    }
+
+    private static HttpRequest process(String baseUrl, Long id) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/payments/" + id + "/process"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.wellsfargo.payment_service.benchmark;
+
+import com.wellsfargo.payment_service.entity.Payment;
+import com.wellsfargo.payment_service.repository.PaymentRepository;
+import com.wellsfargo.service_support.benchmark.QueryIndexBenchmarkSupport;
+import com.wellsfargo.service_support.benchmark.QueryIndexBenchmarkSupport.FinderCase;
+import com.wellsfargo.service_support.benchmark.QueryIndexBenchmarkSupport.IndexDefinition;
+import com.wellsfargo.service_support.benchmark.QueryIndexBenchmarkSupport.Measurement;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Runs every PaymentRepository finder against a seeded H2 database, first with the entity-declared
+ * secondary indexes dropped and then with them recreated, and reports latency and query plans.
+ * Run with {@code mvn test -Pbenchmark}; the report is written to target/benchmarks.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "app.id-generator.node-id=1",
+        "spring.jpa.database-platform=",
+        "spring.jpa.properties.hibernate.dialect=",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=OFF",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentQueryIndexBenchmark {
+
+    private static final int PAYMENTS = 200_000;
+    private static final int CUSTOMERS = 5_000;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void finderLatencyWithAndWithoutIndexes() throws Exception {
+        seedPayments();
+
+        String customerId = customerId(1_000);
+        String orderNumber = orderNumber(54_321);
+
+        List<FinderCase> cases = List.of(
+                new FinderCase("findByPaymentNumber",
+                        () -> paymentRepository.findByPaymentNumber(paymentNumber(123_456)),
+                        "SELECT * FROM payments WHERE payment_number = '" + paymentNumber(123_456) + "'"),
+                new FinderCase("findByOrderNumber",
+                        () -> paymentRepository.findByOrderNumber(orderNumber),
+                        "SELECT * FROM payments WHERE order_number = '" + orderNumber + "'"),
+                new FinderCase("findByOrderNumberAndStatus",
+                        () -> paymentRepository.findByOrderNumberAndStatus(orderNumber, Payment.PaymentStatus.COMPLETED),
+                        "SELECT * FROM payments WHERE order_number = '" + orderNumber + "' AND status = 'COMPLETED'"),
+                new FinderCase("findByCustomerId",
+                        () -> paymentRepository.findByCustomerId(customerId),
+                        "SELECT * FROM payments WHERE customer_id = '" + customerId + "'"),
+                new FinderCase("findByCustomerIdAndStatus",
+                        () -> paymentRepository.findByCustomerIdAndStatus(customerId, Payment.PaymentStatus.COMPLETED),
+                        "SELECT * FROM payments WHERE customer_id = '" + customerId + "' AND status = 'COMPLETED'"),
+                new FinderCase("findByStatus (FAILED, ~2%)",
+                        () -> paymentRepository.findByStatus(Payment.PaymentStatus.FAILED),
+                        "SELECT * FROM payments WHERE status = 'FAILED'"),
+                new FinderCase("findByPaymentMethod (COD, ~1%)",
+                        () -> paymentRepository.findByPaymentMethod(Payment.PaymentMethod.CASH_ON_DELIVERY),
+                        "SELECT * FROM payments WHERE payment_method = 'CASH_ON_DELIVERY'")
+        );
+
+        List<IndexDefinition> indexes = QueryIndexBenchmarkSupport.secondaryIndexes(jdbc, "payments");
+        indexes.forEach(index -> jdbc.execute(index.dropSql()));
+        Map<String, Measurement> before = QueryIndexBenchmarkSupport.measure(jdbc, cases);
+
+        indexes.forEach(index -> jdbc.execute(index.createSql()));
+        jdbc.execute("ANALYZE");
+        Map<String, Measurement> after = QueryIndexBenchmarkSupport.measure(jdbc, cases);
+
+        QueryIndexBenchmarkSupport.write("payment-query-indexes.txt",
+                QueryIndexBenchmarkSupport.report("PaymentRepository finders", PAYMENTS, indexes, before, after));
+    }
+
+    private void seedPayments() {
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= PAYMENTS; id++) {
+            // Log-uniform customer rank: a few customers own most of the payments
+            int customerRank = (int) Math.pow(CUSTOMERS, random.nextDouble());
+            Timestamp createdAt = Timestamp.valueOf(START.plusSeconds(id * 10));
+            batch.add(new Object[]{id, paymentNumber(id), orderNumber(id * 9 / 10), customerId(customerRank),
+                    10.0 + random.nextInt(990), status(random).name(), paymentMethod(random).name(),
+                    createdAt, createdAt});
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbc.batchUpdate("INSERT INTO payments (id, payment_number, order_number, customer_id, amount, status, "
+                + "payment_method, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    // Mostly COMPLETED, as in production; the other statuses are the rare values worth indexing
+    private static Payment.PaymentStatus status(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 90) {
+            return Payment.PaymentStatus.COMPLETED;
+        }
+        return switch (roll % 5) {
+            case 0 -> Payment.PaymentStatus.PENDING;
+            case 1 -> Payment.PaymentStatus.PROCESSING;
+            case 2 -> Payment.PaymentStatus.FAILED;
+            case 3 -> Payment.PaymentStatus.REFUNDED;
+            default -> Payment.PaymentStatus.CANCELLED;
+        };
+    }
+
+    private static Payment.PaymentMethod paymentMethod(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 50) {
+            return Payment.PaymentMethod.CREDIT_CARD;
+        } else if (roll < 75) {
+            return Payment.PaymentMethod.DEBIT_CARD;
+        } else if (roll < 90) {
+            return Payment.PaymentMethod.UPI;
+        } else if (roll < 95) {
+            return Payment.PaymentMethod.NET_BANKING;
+        } else if (roll < 99) {
+            return Payment.PaymentMethod.WALLET;
+        }
+        return Payment.PaymentMethod.CASH_ON_DELIVERY;
+    }
+
+    private static String paymentNumber(long id) {
+        return String.format("PAY-%013d", id);
+    }
+
+    private static String orderNumber(long id) {
+        return String.format("ORD-%013d", id);
+    }
+
+    private static String customerId(int rank) {
+        return String.format("CUST-%05d", rank);
+    }
+}
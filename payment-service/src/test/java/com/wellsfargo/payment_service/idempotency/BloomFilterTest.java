@@ -0,0 +1,38 @@
+package com.wellsfargo.payment_service.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAKeyThatWasPut() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("ORDER_CREATED:ORD-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("ORDER_CREATED:ORD-" + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTargetAtExpectedSize() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("ORDER_CREATED:ORD-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 100_000; i < 200_000; i++) {
+            if (filter.mightContain("ORDER_CREATED:ORD-" + i)) {
+                falsePositives++;
+            }
+        }
+        double observed = falsePositives / 100_000.0;
+        assertTrue(observed < 0.015, "observed false positive rate " + observed);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.003);
+        assertEquals(7, filter.hashCount());
+    }
+}
@@ -0,0 +1,221 @@
+package com.wellsfargo.payment_service.kafka.consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyOrderedRecordProcessorTest {
+
+    private static final String TOPIC = "orders";
+
+    // Records handed to the recoverer, as partition@offset
+    private final List<String> recovered = new CopyOnWriteArrayList<>();
+    private volatile boolean recovererDown;
+    private final KeyOrderedRecordProcessor processor = new KeyOrderedRecordProcessor(
+            new KafkaListenerEndpointRegistry(), (record, failure) -> {
+                if (recovererDown) {
+                    throw new IllegalStateException("broker unavailable");
+                }
+                recovered.add(record.partition() + "@" + record.offset());
+            }, new SimpleMeterRegistry(), 16, 1000, 2, Duration.ZERO, false);
+    // Acknowledged offsets per partition, in the order the container would have received them
+    private final Map<Integer, List<Long>> acknowledged = new ConcurrentHashMap<>();
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        processor.shutdown();
+    }
+
+    @Test
+    void keepsOrderPerKeyAndRunsKeysInParallel() throws InterruptedException {
+        Map<String, List<Long>> seen = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(400);
+        long started = System.nanoTime();
+        for (long offset = 0; offset < 400; offset++) {
+            ConsumerRecord<String, String> record = record(0, offset, "ORD-" + offset % 40);
+            processor.submit(record, ack(record), () -> {
+                sleep(10);
+                seen.computeIfAbsent(record.key(), key -> new CopyOnWriteArrayList<>()).add(record.offset());
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        // 40 keys of 10 records at 10ms each: about 100ms with 16 workers against 4s run one at a time
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 2000);
+        for (List<Long> offsets : seen.values()) {
+            List<Long> sorted = new ArrayList<>(offsets);
+            Collections.sort(sorted);
+            assertEquals(sorted, offsets);
+        }
+        awaitCommitted(0, 400);
+    }
+
+    @Test
+    void commitsOnlyTheFinishedPrefix() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch othersDone = new CountDownLatch(9);
+        for (long offset = 0; offset < 10; offset++) {
+            ConsumerRecord<String, String> record = record(1, offset, "ORD-" + offset);
+            boolean slow = offset == 3;
+            processor.submit(record, ack(record), () -> {
+                if (slow) {
+                    await(release);
+                } else {
+                    othersDone.countDown();
+                }
+            });
+        }
+        assertTrue(othersDone.await(5, TimeUnit.SECONDS));
+        awaitCommitted(1, 3);
+        Thread.sleep(100);
+        // Offsets 4-9 are finished but stay uncommitted behind offset 3
+        assertEquals(3, lastCommitted(1));
+
+        release.countDown();
+        awaitCommitted(1, 10);
+        List<Long> acks = acknowledged.get(1);
+        for (int i = 1; i < acks.size(); i++) {
+            assertTrue(acks.get(i) > acks.get(i - 1), "acknowledgments out of order: " + acks);
+        }
+    }
+
+    @Test
+    void skippedRecordsAndGapsDoNotHoldBackCommits() throws InterruptedException {
+        ConsumerRecord<String, String> first = record(2, 5, "ORD-1");
+        ConsumerRecord<String, String> skipped = record(2, 6, "ORD-2");
+        // Offset 7 never reaches the processor, as when the error handler skips a malformed record
+        ConsumerRecord<String, String> last = record(2, 8, "ORD-3");
+        processor.submit(first, ack(first), () -> { });
+        processor.skip(skipped, ack(skipped));
+        processor.submit(last, ack(last), () -> { });
+        awaitCommitted(2, 9);
+    }
+
+    @Test
+    void retriesFailedWorkThenForwardsIt() throws InterruptedException {
+        List<Integer> attempts = new CopyOnWriteArrayList<>();
+        ConsumerRecord<String, String> failing = record(3, 0, "ORD-1");
+        ConsumerRecord<String, String> next = record(3, 1, "ORD-1");
+        CountDownLatch nextRan = new CountDownLatch(1);
+        processor.submit(failing, ack(failing), () -> {
+            attempts.add(attempts.size() + 1);
+            throw new IllegalStateException("payment gateway unavailable");
+        });
+        processor.submit(next, ack(next), nextRan::countDown);
+        assertTrue(nextRan.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2), attempts);
+        awaitCommitted(3, 2);
+        assertEquals(List.of("3@0"), recovered);
+    }
+
+    @Test
+    void recordIsNotAcknowledgedUntilItCanBeForwarded() throws InterruptedException {
+        recovererDown = true;
+        ConsumerRecord<String, String> failing = record(6, 0, "ORD-1");
+        ConsumerRecord<String, String> next = record(6, 1, "ORD-2");
+        CountDownLatch nextRan = new CountDownLatch(1);
+        processor.submit(failing, ack(failing), () -> {
+            throw new IllegalStateException("payment gateway unavailable");
+        });
+        processor.submit(next, ack(next), nextRan::countDown);
+        assertTrue(nextRan.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(-1, lastCommitted(6));
+        recovererDown = false;
+        awaitCommitted(6, 2);
+        assertEquals(List.of("6@0"), recovered);
+    }
+
+    @Test
+    void recordThatCannotBeForwardedIsLeftForTheNewOwner() throws InterruptedException {
+        recovererDown = true;
+        ConsumerRecord<String, String> failing = record(7, 0, "ORD-1");
+        processor.submit(failing, ack(failing), () -> {
+            throw new IllegalStateException("payment gateway unavailable");
+        });
+        Thread.sleep(100);
+        processor.onPartitionsRevoked(List.of(new TopicPartition(TOPIC, 7)));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (processor.inFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, processor.inFlight());
+        assertEquals(-1, lastCommitted(7));
+        assertTrue(recovered.isEmpty());
+    }
+
+    @Test
+    void revokedPartitionIsNotAcknowledged() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        ConsumerRecord<String, String> record = record(4, 0, "ORD-1");
+        processor.submit(record, ack(record), () -> await(release));
+        processor.onPartitionsRevoked(List.of(new TopicPartition(TOPIC, 4)));
+        ConsumerRecord<String, String> after = record(5, 0, "ORD-1");
+        processor.submit(after, ack(after), finished::countDown);
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        awaitCommitted(5, 1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (processor.inFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, processor.inFlight());
+        assertEquals(-1, lastCommitted(4));
+    }
+
+    private ConsumerRecord<String, String> record(int partition, long offset, String key) {
+        return new ConsumerRecord<>(TOPIC, partition, offset, key, "value");
+    }
+
+    private Acknowledgment ack(ConsumerRecord<String, String> record) {
+        return () -> acknowledged.computeIfAbsent(record.partition(), partition -> new CopyOnWriteArrayList<>())
+                .add(record.offset() + 1);
+    }
+
+    private long lastCommitted(int partition) {
+        List<Long> acks = acknowledged.getOrDefault(partition, List.of());
+        return acks.isEmpty() ? -1 : acks.get(acks.size() - 1);
+    }
+
+    private void awaitCommitted(int partition, long offset) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lastCommitted(partition) < offset && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(offset, lastCommitted(partition));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
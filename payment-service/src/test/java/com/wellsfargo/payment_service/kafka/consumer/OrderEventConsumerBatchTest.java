@@ -0,0 +1,214 @@
+package com.wellsfargo.payment_service.kafka.consumer;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventHeaders;
+import com.wellsfargo.order_event_contract.OrderEventType;
+import com.wellsfargo.payment_service.entity.Payment;
+import com.wellsfargo.payment_service.entity.ProcessedOrderEvent;
+import com.wellsfargo.payment_service.idempotency.OrderEventDeduplicator;
+import com.wellsfargo.payment_service.metrics.OrderEventMetrics;
+import com.wellsfargo.payment_service.repository.ProcessedOrderEventRepository;
+import com.wellsfargo.payment_service.service.PaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.KafkaUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderEventConsumerBatchTest {
+
+    private static final String TOPIC = "orders";
+
+    // Dedupe keys in processed_order_events
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+    private final RecordingPaymentService payments = new RecordingPaymentService();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderEventDeduplicator deduplicator = new OrderEventDeduplicator(storeRepository(),
+            new NoOpTransactionManager(), meterRegistry, 1000, 0.01, 100, Duration.ofDays(7));
+    private final KeyOrderedRecordProcessor processor = new KeyOrderedRecordProcessor(
+            new KafkaListenerEndpointRegistry(), (record, failure) -> { }, meterRegistry, 1, 10, 1, Duration.ZERO, false);
+    private final OrderEventConsumer consumer = new OrderEventConsumer(payments, new OrderEventMetrics(meterRegistry),
+            processor, deduplicator);
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        processor.shutdown();
+    }
+
+    @Test
+    void appliesTheHandledEventsOfAPollInOneCall() {
+        consumer.handleOrderEvents(List.of(
+                record(0, OrderEventType.ORDER_CREATED, "ORD-1"),
+                record(1, OrderEventType.ORDER_UPDATED, null),
+                record(2, OrderEventType.ORDER_CREATED, "ORD-2"),
+                record(3, OrderEventType.ORDER_CANCELLED, "ORD-1")));
+
+        assertEquals(List.of("apply [ORD-1, ORD-2] cancel [ORD-1]"), payments.calls);
+        assertEquals(Set.of("ORDER_CREATED:ORD-1", "ORDER_CREATED:ORD-2", "ORDER_CANCELLED:ORD-1"), stored);
+        assertEquals(2, meterRegistry.get("payment.order-event.records").tag("type", "ORDER_CREATED").counter().count());
+        assertEquals(4, meterRegistry.get("payment.order-event.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void unreadableRecordEndsTheBatchAfterTheRecordsBeforeItAreApplied() {
+        ConsumerRecord<String, OrderEvent> unreadable = record(1, OrderEventType.ORDER_CREATED, null);
+        unreadable.headers().add(KafkaUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, new byte[0]);
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.handleOrderEvents(List.of(
+                        record(0, OrderEventType.ORDER_CREATED, "ORD-1"),
+                        unreadable,
+                        record(2, OrderEventType.ORDER_CREATED, "ORD-2"))));
+
+        assertSame(unreadable, failure.getRecord());
+        assertEquals(List.of("apply [ORD-1] cancel []"), payments.calls);
+        assertEquals(Set.of("ORDER_CREATED:ORD-1"), stored);
+    }
+
+    @Test
+    void retriedEventIsAppliedOnItsOwn() {
+        consumer.handleRetry(record(0, OrderEventType.ORDER_CANCELLED, "ORD-1"));
+        consumer.handleRetry(record(1, OrderEventType.ORDER_UPDATED, null));
+
+        assertEquals(List.of("apply [] cancel [ORD-1]"), payments.calls);
+        assertEquals(Set.of("ORDER_CANCELLED:ORD-1"), stored);
+    }
+
+    @Test
+    void failedBatchIsReplayedRecordByRecordUpToTheBadRecord() {
+        payments.failBatchesOver = 1;
+        payments.failingOrder = "ORD-2";
+        ConsumerRecord<String, OrderEvent> bad = record(1, OrderEventType.ORDER_CREATED, "ORD-2");
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.handleOrderEvents(List.of(
+                        record(0, OrderEventType.ORDER_CREATED, "ORD-1"),
+                        bad,
+                        record(2, OrderEventType.ORDER_CANCELLED, "ORD-3"))));
+
+        assertSame(bad, failure.getRecord());
+        assertEquals(List.of("apply [ORD-1, ORD-2] cancel [ORD-3]", "apply [ORD-1] cancel []", "apply [ORD-2] cancel []"),
+                payments.calls);
+        assertEquals(Set.of("ORDER_CREATED:ORD-1"), stored);
+    }
+
+    @Test
+    void redeliveredAndRepeatedEventsAreAppliedOnce() {
+        deduplicator.compactAndRebuild();
+        List<ConsumerRecord<String, OrderEvent>> poll = List.of(
+                record(0, OrderEventType.ORDER_CREATED, "ORD-1"),
+                record(1, OrderEventType.ORDER_CREATED, "ORD-1"),
+                record(2, OrderEventType.ORDER_CREATED, "ORD-2"));
+        consumer.handleOrderEvents(poll);
+        consumer.handleOrderEvents(poll);
+
+        assertEquals(List.of("apply [ORD-1, ORD-2] cancel []"), payments.calls);
+        assertEquals(2, meterRegistry.get("payment.idempotency.events").tag("result", "new").counter().count());
+        assertEquals(4, meterRegistry.get("payment.idempotency.events").tag("result", "duplicate").counter().count());
+    }
+
+    @Test
+    void eventAppliedByAnotherInstanceIsCaughtByTheStore() {
+        deduplicator.compactAndRebuild();
+        // Stored after this instance's filter was built, so the filter answers "new"
+        stored.add("ORDER_CREATED:ORD-1");
+
+        consumer.handleOrderEvents(List.of(
+                record(0, OrderEventType.ORDER_CREATED, "ORD-1"),
+                record(1, OrderEventType.ORDER_CREATED, "ORD-2")));
+
+        assertEquals(List.of("apply [ORD-1, ORD-2] cancel []", "apply [ORD-1] cancel []", "apply [ORD-2] cancel []"),
+                payments.calls);
+        assertEquals(Set.of("ORDER_CREATED:ORD-1", "ORDER_CREATED:ORD-2"), stored);
+        assertEquals(0, meterRegistry.get("payment.idempotency.filter").tag("result", "false-positive").counter().count());
+    }
+
+    private ConsumerRecord<String, OrderEvent> record(long offset, OrderEventType type, String orderNumber) {
+        OrderEvent event = orderNumber == null ? null : new OrderEvent("EVT-" + offset, orderNumber, "CUST-1", 25.0,
+                "PENDING", LocalDateTime.now(), LocalDateTime.now(), "order-service");
+        ConsumerRecord<String, OrderEvent> record = new ConsumerRecord<>(TOPIC, 0, offset, orderNumber, event);
+        OrderEventHeaders.write(record.headers(), type, "EVT-" + offset);
+        return record;
+    }
+
+    // The queries the deduplicator runs, answered from the stored set
+    @SuppressWarnings("unchecked")
+    private ProcessedOrderEventRepository storeRepository() {
+        return (ProcessedOrderEventRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ProcessedOrderEventRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findExistingKeys" -> ((Collection<String>) args[0]).stream().filter(stored::contains).toList();
+                    case "existsById" -> stored.contains((String) args[0]);
+                    case "streamAllKeys" -> List.copyOf(stored).stream();
+                    case "deleteProcessedBefore" -> 0;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // Records the calls the listener makes; the processed keys are stored as the primary key would
+    private final class RecordingPaymentService extends PaymentService {
+
+        private final List<String> calls = new ArrayList<>();
+        private int failBatchesOver = Integer.MAX_VALUE;
+        private String failingOrder;
+
+        private RecordingPaymentService() {
+            super(null, null, null, null, null, Payment.PaymentMethod.CREDIT_CARD);
+        }
+
+        @Override
+        public int applyOrderEvents(List<OrderEvent> createdOrders, Collection<String> cancelledOrderNumbers,
+                                    List<ProcessedOrderEvent> processedEvents) {
+            calls.add("apply " + createdOrders.stream().map(OrderEvent::getOrderNumber).toList()
+                    + " cancel " + cancelledOrderNumbers);
+            if (processedEvents.size() > failBatchesOver) {
+                throw new IllegalStateException("deadlock victim");
+            }
+            if (createdOrders.stream().anyMatch(order -> order.getOrderNumber().equals(failingOrder))) {
+                throw new IllegalStateException("amount must be positive");
+            }
+            for (ProcessedOrderEvent event : processedEvents) {
+                if (stored.contains(event.getDedupeKey())) {
+                    throw new DataIntegrityViolationException("duplicate key " + event.getDedupeKey());
+                }
+            }
+            processedEvents.forEach(event -> stored.add(event.getDedupeKey()));
+            return createdOrders.size();
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
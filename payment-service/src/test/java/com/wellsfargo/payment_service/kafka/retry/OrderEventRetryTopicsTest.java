@@ -0,0 +1,62 @@
+package com.wellsfargo.payment_service.kafka.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.DeserializationException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderEventRetryTopicsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderEventRetryTopics retryTopics = new OrderEventRetryTopics(
+            List.of(Duration.ofSeconds(1), Duration.ofSeconds(10)), meterRegistry);
+    private final Exception failure = new IllegalStateException("payment gateway unavailable");
+
+    @Test
+    void failedRecordMovesThroughEachTierToTheDeadLetterTopic() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("orders", 0, 0, "ORD-1", "value");
+        assertEquals(List.of("orders-retry-1", "orders-retry-2", "orders-dlt"), retryTopics.topics());
+
+        for (String expected : retryTopics.topics()) {
+            assertEquals(new TopicPartition(expected, -1), retryTopics.destinationFor(record, failure));
+            ConsumerRecord<String, String> forwarded = new ConsumerRecord<>(expected, 0, 0, "ORD-1", "value");
+            retryTopics.headersFor(record, failure).forEach(header -> forwarded.headers().add(header));
+            record = forwarded;
+        }
+        assertEquals(3, OrderEventRetryTopics.attemptsOf(record));
+        assertEquals(1, meterRegistry.get("payment.order-event.forwarded").tag("topic", "orders-dlt").counter().count());
+    }
+
+    @Test
+    void retryTierHoldsTheRecordForItsDelay() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("orders-retry-1", 0, 0, "ORD-1", "value");
+        record.headers().add(OrderEventRetryTopics.ATTEMPT, "1".getBytes());
+        long before = System.currentTimeMillis();
+
+        ConsumerRecord<String, String> forwarded = new ConsumerRecord<>("orders-retry-2", 0, 0, "ORD-1", "value");
+        retryTopics.headersFor(record, failure).forEach(header -> forwarded.headers().add(header));
+
+        assertEquals(2, OrderEventRetryTopics.attemptsOf(forwarded));
+        long notBefore = OrderEventRetryTopics.notBeforeOf(forwarded);
+        assertTrue(notBefore >= before + 10_000 && notBefore <= System.currentTimeMillis() + 10_000);
+    }
+
+    @Test
+    void unreadableRecordGoesStraightToTheDeadLetterTopic() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("orders", 0, 0, "ORD-1", null);
+        Exception unreadable = new DeserializationException("bad json", new byte[]{1}, false, failure);
+
+        assertEquals(new TopicPartition("orders-dlt", -1), retryTopics.destinationFor(record, unreadable));
+        Header notBefore = retryTopics.headersFor(record, unreadable).lastHeader(OrderEventRetryTopics.NOT_BEFORE);
+        assertNull(notBefore);
+    }
+}
@@ -0,0 +1,67 @@
+package com.wellsfargo.payment_service.view;
+
+import com.wellsfargo.order_event_contract.OrderEvent;
+import com.wellsfargo.order_event_contract.OrderEventStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderViewStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appliesUpdatesAndTombstones() {
+        OrderViewStore store = new OrderViewStore(dir.toString(), "order-state");
+        store.apply(0, 10, "ORD-1", event("ORD-1", "PENDING", 25.0));
+        store.apply(0, 11, "ORD-1", event("ORD-1", "CANCELLED", 25.0));
+        store.apply(1, 4, "ORD-2", event("ORD-2", "PENDING", 10.0));
+        store.apply(1, 5, "ORD-2", null);
+
+        OrderView order = store.get("ORD-1").orElseThrow();
+        assertTrue(order.isCancelled());
+        assertEquals(25.0, order.totalAmount());
+        assertFalse(store.get("ORD-2").isPresent());
+        assertEquals(12, store.nextOffset(0).getAsLong());
+        assertEquals(6, store.nextOffset(1).getAsLong());
+    }
+
+    @Test
+    void restartResumesFromCheckpoint() {
+        OrderViewStore store = new OrderViewStore(dir.toString(), "order-state");
+        store.apply(2, 41, "ORD-1", event("ORD-1", "SHIPPED", 99.5));
+        store.apply(2, 42, "ORD-2", event("ORD-2", "PENDING", 12.0));
+        store.checkpoint();
+
+        OrderViewStore restarted = new OrderViewStore(dir.toString(), "order-state");
+        restarted.load();
+        assertEquals(2, restarted.size());
+        assertEquals(OrderEventStatus.SHIPPED, restarted.get("ORD-1").orElseThrow().status());
+        assertEquals("CUST-ORD-2", restarted.get("ORD-2").orElseThrow().customerId());
+        assertEquals(43, restarted.nextOffset(2).getAsLong());
+        assertFalse(restarted.nextOffset(0).isPresent());
+    }
+
+    @Test
+    void damagedSnapshotFallsBackToFullRebuild() throws Exception {
+        Files.write(dir.resolve("order-view.snapshot"), new byte[] {1, 2, 3});
+
+        OrderViewStore store = new OrderViewStore(dir.toString(), "order-state");
+        store.load();
+        assertEquals(0, store.size());
+        assertFalse(store.nextOffset(0).isPresent());
+    }
+
+    private static OrderEvent event(String orderNumber, String status, double amount) {
+        return new OrderEvent("evt-" + orderNumber, orderNumber, "CUST-" + orderNumber, amount, status,
+                LocalDateTime.now(), LocalDateTime.now(), "order-service");
+    }
+}
@@ -0,0 +1,95 @@
+package com.wellsfargo.service_support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, Snowflake-style ID generator: 41 bits of milliseconds since 2024-01-01, 10 bits of
+ * node ID and a 12 bit per-millisecond sequence. IDs are strictly increasing per node, even if the
+ * wall clock steps backwards, and their fixed-width base-36 form sorts by creation time.
+ * <p>
+ * IDs are only unique across instances that have different node IDs, so {@code app.id-generator.node-id}
+ * must be set for every instance; startup fails without it. Under the {@code dev} profile an unset
+ * node ID falls back to one derived from the process ID.
+ */
+@Component
+public class SnowflakeIdGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SnowflakeIdGenerator.class);
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    // Long.MAX_VALUE is 13 digits in base 36; padding keeps lexical order equal to numeric order
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long nodeId;
+    // Packed (timestamp << SEQUENCE_BITS | sequence) of the last issued ID
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public SnowflakeIdGenerator(@Value("${app.id-generator.node-id:-1}") long configuredNodeId, Environment environment) {
+        this(configuredNodeId >= 0 ? configuredNodeId : devNodeId(environment));
+    }
+
+    public SnowflakeIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        log.info("ID generator using node ID {}", nodeId);
+    }
+
+    public long nextId() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            long previous = lastState.get();
+            long previousTimestamp = previous >>> SEQUENCE_BITS;
+            long next;
+            if (now > previousTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // Same millisecond or clock moved backwards: keep counting on the last timestamp,
+                // borrowing the next millisecond once the sequence is exhausted
+                next = previous + 1;
+            }
+            if (lastState.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public String nextId(String prefix) {
+        return prefix + encode(nextId());
+    }
+
+    static String encode(long id) {
+        String digits = Long.toString(id, 36).toUpperCase();
+        StringBuilder encoded = new StringBuilder(ENCODED_LENGTH);
+        for (int i = digits.length(); i < ENCODED_LENGTH; i++) {
+            encoded.append('0');
+        }
+        return encoded.append(digits).toString();
+    }
+
+    // Good enough for services sharing one development machine; nothing guarantees it across hosts
+    private static long devNodeId(Environment environment) {
+        if (!environment.matchesProfiles("dev")) {
+            throw new IllegalStateException("app.id-generator.node-id must be set to a node ID between 0 and "
+                    + MAX_NODE_ID + " that no other running instance uses");
+        }
+        long nodeId = ProcessHandle.current().pid() & MAX_NODE_ID;
+        log.warn("app.id-generator.node-id is not set; using node ID {} from the process ID (dev profile only)", nodeId);
+        return nodeId;
+    }
+}
@@ -0,0 +1,76 @@
+package com.wellsfargo.service_support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void idsAreStrictlyIncreasingAndSortAsStrings() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        long previous = generator.nextId();
+        String previousNumber = SnowflakeIdGenerator.encode(previous);
+        for (int i = 0; i < 100_000; i++) {
+            long next = generator.nextId();
+            String nextNumber = SnowflakeIdGenerator.encode(next);
+            assertTrue(next > previous);
+            assertTrue(nextNumber.compareTo(previousNumber) > 0);
+            previous = next;
+            previousNumber = nextNumber;
+        }
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(400_000, ids.size());
+    }
+
+    @Test
+    void nodeIdIsEmbedded() {
+        long id = new SnowflakeIdGenerator(1023).nextId();
+        assertEquals(1023, (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID);
+        assertTrue(new SnowflakeIdGenerator(5).nextId("ORD-").matches("ORD-[0-9A-Z]{13}"));
+    }
+
+    @Test
+    void rejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+    }
+
+    @Test
+    void requiresNodeIdOutsideDevProfile() {
+        assertThrows(IllegalStateException.class, () -> new SnowflakeIdGenerator(-1, new StandardEnvironment()));
+        assertEquals(3, (new SnowflakeIdGenerator(3, new StandardEnvironment()).nextId() >>> SnowflakeIdGenerator.SEQUENCE_BITS)
+                & SnowflakeIdGenerator.MAX_NODE_ID);
+        StandardEnvironment dev = new StandardEnvironment();
+        dev.setActiveProfiles("dev");
+        new SnowflakeIdGenerator(-1, dev).nextId();
+    }
+}
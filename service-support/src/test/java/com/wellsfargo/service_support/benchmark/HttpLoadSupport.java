@@ -0,0 +1,155 @@
+package com.wellsfargo.service_support.benchmark;
+
+import com.wellsfargo.service_support.diagnostics.VirtualThreadPinningMonitor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Starts the service on H2 with platform or virtual request threads and drives an endpoint with a
+ * fixed number of concurrent HTTP clients. Shared by the services' threading benchmarks through this
+ * module's test jar.
+ */
+public final class HttpLoadSupport {
+
+    private static final Map<String, Object> H2_PROPERTIES = Map.ofEntries(
+            Map.entry("spring.datasource.driver-class-name", "org.h2.Driver"),
+            Map.entry("spring.datasource.username", "sa"),
+            Map.entry("spring.datasource.password", ""),
+            Map.entry("spring.jpa.database-platform", ""),
+            Map.entry("spring.jpa.properties.hibernate.dialect", ""),
+            Map.entry("spring.jpa.hibernate.ddl-auto", "create-drop"),
+            Map.entry("spring.jpa.show-sql", "false"),
+            Map.entry("server.port", "0"),
+            Map.entry("logging.level.root", "WARN"),
+            Map.entry("logging.level.com.wellsfargo", "WARN"),
+            Map.entry("logging.level.org.springframework.kafka", "WARN"),
+            Map.entry("logging.level.org.hibernate.SQL", "OFF"),
+            Map.entry("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "OFF"),
+            Map.entry("logging.level.com.wellsfargo.service_support.diagnostics", "INFO"),
+            Map.entry("app.id-generator.node-id", "1"));
+
+    private HttpLoadSupport() {
+        // Utility class
+    }
+
+    public record LoadResult(String endpoint, String threading, int requests, int concurrency, int errors, double seconds,
+                      double p50Millis, double p95Millis, double p99Millis, double maxMillis, int peakThreads,
+                      long pinnedEvents) {
+
+        public double throughput() {
+            return requests / seconds;
+        }
+    }
+
+    public static ConfigurableApplicationContext start(Class<?> application, boolean virtualThreads,
+                                                       Map<String, Object> properties) {
+        Map<String, Object> all = new HashMap<>(H2_PROPERTIES);
+        all.put("spring.datasource.url",
+                "jdbc:h2:mem:" + (virtualThreads ? "virtual" : "platform") + ";DB_CLOSE_DELAY=-1");
+        all.put("spring.threads.virtual.enabled", virtualThreads);
+        all.putAll(properties);
+        // Command-line arguments, because default properties lose to application.properties
+        return new SpringApplicationBuilder(application).run(all.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new));
+    }
+
+    public static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    public static HttpClient client() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static LoadResult run(ConfigurableApplicationContext context, HttpClient client, String endpoint, int requests,
+                                 int concurrency, IntFunction<HttpRequest> requestFactory) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        VirtualThreadPinningMonitor monitor = context.getBeanProvider(VirtualThreadPinningMonitor.class).getIfAvailable();
+        long pinnedBefore = pinnedEvents(monitor);
+
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore permits = new Semaphore(concurrency);
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                permits.acquire();
+                clients.submit(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(requestFactory.apply(index),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - sent;
+                        permits.release();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        // JFR delivers events roughly once a second
+        if (monitor != null) {
+            Thread.sleep(1_500);
+        }
+        Arrays.sort(latencies);
+        return new LoadResult(endpoint, isVirtual(context) ? "virtual" : "platform", requests,
+                concurrency, errors.get(), seconds, percentile(latencies, 0.50), percentile(latencies, 0.95),
+                percentile(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000.0,
+                threads.getPeakThreadCount(), pinnedEvents(monitor) - pinnedBefore);
+    }
+
+    public static String report(String title, List<LoadResult> results) {
+        StringBuilder report = new StringBuilder("# ").append(title).append(" (H2 in-memory)\n\n");
+        report.append(String.format("%-32s %-9s %7s %6s %10s %9s %9s %9s %9s %7s %6s %7s%n", "endpoint", "threads",
+                "requests", "conc", "req/s", "p50", "p95", "p99", "max", "errors", "peakT", "pinned"));
+        for (LoadResult r : results) {
+            report.append(String.format("%-32s %-9s %7d %6d %10.1f %7.1fms %7.1fms %7.1fms %7.1fms %7d %6d %7d%n",
+                    r.endpoint(), r.threading(), r.requests(), r.concurrency(), r.throughput(), r.p50Millis(),
+                    r.p95Millis(), r.p99Millis(), r.maxMillis(), r.errors(), r.peakThreads(), r.pinnedEvents()));
+        }
+        return report.toString();
+    }
+
+    private static boolean isVirtual(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+    }
+
+    private static long pinnedEvents(VirtualThreadPinningMonitor monitor) {
+        return monitor == null ? 0 : monitor.pinnedCallSites().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = Math.max(0, (int) Math.ceil(sortedNanos.length * percentile) - 1);
+        return sortedNanos[index] / 1_000_000.0;
+    }
+}
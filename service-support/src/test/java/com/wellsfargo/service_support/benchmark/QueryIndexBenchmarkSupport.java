@@ -0,0 +1,138 @@
+package com.wellsfargo.service_support.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for comparing finder latency and H2 query plans with and without the secondary indexes
+ * that Hibernate created from the entity mappings. Reports are written under {@code target/benchmarks}
+ * of the service running the benchmark.
+ */
+public final class QueryIndexBenchmarkSupport {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 50;
+    private static final int MAX_PLAN_LENGTH = 400;
+
+    private QueryIndexBenchmarkSupport() {
+        // Utility class
+    }
+
+    public record FinderCase(String name, Runnable finder, String explainSql) {
+    }
+
+    public record IndexDefinition(String table, String name, boolean uniqueConstraint, String columns) {
+
+        public String createSql() {
+            return uniqueConstraint
+                    ? "ALTER TABLE " + table + " ADD CONSTRAINT " + name + " UNIQUE (" + columns + ")"
+                    : "CREATE INDEX " + name + " ON " + table + " (" + columns + ")";
+        }
+
+        public String dropSql() {
+            return uniqueConstraint
+                    ? "ALTER TABLE " + table + " DROP CONSTRAINT " + name
+                    : "DROP INDEX " + name;
+        }
+    }
+
+    public record Measurement(double meanMillis, double p50Millis, double p95Millis, String plan) {
+    }
+
+    /** All non primary-key indexes and unique constraints on a table, in a form that can be recreated. */
+    public static List<IndexDefinition> secondaryIndexes(JdbcTemplate jdbc, String table) {
+        Map<String, List<String>> columnsByIndex = new LinkedHashMap<>();
+        jdbc.query("""
+                SELECT c.INDEX_NAME, c.COLUMN_NAME, c.ORDERING_SPECIFICATION
+                FROM INFORMATION_SCHEMA.INDEX_COLUMNS c
+                JOIN INFORMATION_SCHEMA.INDEXES i ON i.INDEX_NAME = c.INDEX_NAME AND i.TABLE_NAME = c.TABLE_NAME
+                WHERE c.TABLE_NAME = ? AND i.INDEX_TYPE_NAME = 'INDEX'
+                ORDER BY c.INDEX_NAME, c.ORDINAL_POSITION
+                """, rs -> {
+            columnsByIndex.computeIfAbsent(rs.getString(1), name -> new ArrayList<>())
+                    .add(rs.getString(2) + " " + rs.getString(3));
+        }, table.toUpperCase());
+
+        List<IndexDefinition> indexes = new ArrayList<>();
+        columnsByIndex.forEach((name, columns) ->
+                indexes.add(new IndexDefinition(table, name, false, String.join(", ", columns))));
+
+        jdbc.query("""
+                SELECT tc.CONSTRAINT_NAME, k.COLUMN_NAME
+                FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc
+                JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k ON k.CONSTRAINT_NAME = tc.CONSTRAINT_NAME
+                WHERE tc.TABLE_NAME = ? AND tc.CONSTRAINT_TYPE = 'UNIQUE'
+                ORDER BY tc.CONSTRAINT_NAME, k.ORDINAL_POSITION
+                """, rs -> {
+            indexes.add(new IndexDefinition(table, rs.getString(1), true, rs.getString(2)));
+        }, table.toUpperCase());
+        return indexes;
+    }
+
+    public static Map<String, Measurement> measure(JdbcTemplate jdbc, List<FinderCase> cases) {
+        Map<String, Measurement> results = new LinkedHashMap<>();
+        for (FinderCase finderCase : cases) {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                finderCase.finder().run();
+            }
+            double[] samples = new double[MEASURED_ITERATIONS];
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                long start = System.nanoTime();
+                finderCase.finder().run();
+                samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+            Arrays.sort(samples);
+            String plan = jdbc.queryForList("EXPLAIN " + finderCase.explainSql(), String.class).get(0)
+                    .replaceAll("\\s+", " ");
+            // The select list is noise; the access path is in the comments after FROM
+            plan = plan.substring(Math.max(plan.indexOf(" FROM "), 0)).trim();
+            results.put(finderCase.name(), new Measurement(
+                    Arrays.stream(samples).average().orElse(0),
+                    samples[samples.length / 2],
+                    samples[(int) Math.ceil(samples.length * 0.95) - 1],
+                    plan.length() > MAX_PLAN_LENGTH ? plan.substring(0, MAX_PLAN_LENGTH) + " ..." : plan));
+        }
+        return results;
+    }
+
+    public static String report(String title, int rows, List<IndexDefinition> indexes,
+                         Map<String, Measurement> before, Map<String, Measurement> after) {
+        StringBuilder report = new StringBuilder();
+        report.append("# ").append(title).append(" (").append(rows).append(" rows, H2 in-memory)\n\n");
+        report.append("Indexes under test:\n");
+        indexes.forEach(index -> report.append("  ").append(index.createSql()).append('\n'));
+        report.append('\n');
+        report.append(String.format("%-40s %12s %12s %12s %12s %9s%n",
+                "finder", "before p50", "before p95", "after p50", "after p95", "speedup"));
+        before.forEach((name, b) -> {
+            Measurement a = after.get(name);
+            report.append(String.format("%-40s %10.3fms %10.3fms %10.3fms %10.3fms %8.1fx%n",
+                    name, b.p50Millis(), b.p95Millis(), a.p50Millis(), a.p95Millis(), b.p50Millis() / a.p50Millis()));
+        });
+        report.append("\nQuery plans:\n");
+        before.forEach((name, b) -> report.append("\n").append(name).append('\n')
+                .append("  before: ").append(b.plan()).append('\n')
+                .append("  after:  ").append(after.get(name).plan()).append('\n'));
+        return report.toString();
+    }
+
+    public static void write(String fileName, String report) throws IOException {
+        Path directory = Path.of("target", "benchmarks");
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(fileName), report);
+        System.out.println(report);
+    }
+
+    public static String inList(List<String> values) {
+        return values.stream().map(value -> "'" + value + "'").collect(Collectors.joining(", "));
+    }
+}